@@ -0,0 +1,85 @@
+package miller.kyle.github_user_proxy.cache;
+
+/**
+ * Cached value together with the metadata needed to refresh it before it expires
+ *
+ * @see RefreshAheadPolicy
+ */
+public class CacheEntry {
+
+    private Object value;
+    private long createdAt;
+    private long expiresAt;
+    private long computeMillis;
+    private String etag;
+
+    public CacheEntry() {
+    }
+
+    /**
+     * @param value         cached value
+     * @param createdAt     epoch millis when the value was stored
+     * @param expiresAt     epoch millis when the value expires
+     * @param computeMillis how long computing the value took
+     */
+    public CacheEntry(Object value, long createdAt, long expiresAt, long computeMillis) {
+        this(value, createdAt, expiresAt, computeMillis, null);
+    }
+
+    /**
+     * @param value         cached value
+     * @param createdAt     epoch millis when the value was stored
+     * @param expiresAt     epoch millis when the value expires
+     * @param computeMillis how long computing the value took
+     * @param etag          entity tag of the value, or null if none was computed
+     */
+    public CacheEntry(Object value, long createdAt, long expiresAt, long computeMillis, String etag) {
+        this.value = value;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.computeMillis = computeMillis;
+        this.etag = etag;
+    }
+
+    // Getters and Setters
+
+    public Object getValue() {
+        return value;
+    }
+
+    public void setValue(Object value) {
+        this.value = value;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public long getComputeMillis() {
+        return computeMillis;
+    }
+
+    public void setComputeMillis(long computeMillis) {
+        this.computeMillis = computeMillis;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+}
@@ -0,0 +1,123 @@
+package miller.kyle.github_user_proxy.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis pub/sub channel that keeps the in-process tiers of {@link TwoTierCache}s, and the not-found filters of
+ * {@link NotFoundCache}s, on all nodes consistent.
+ * <p>
+ * A node that writes or evicts an entry publishes the key; every other node drops it from its local tier
+ * and reads it from Redis next time. Messages a node published itself are ignored. A lost message only
+ * leaves a node serving its local copy until the local time to live expires. While {@link RedisAvailability}
+ * reports Redis down nothing is published, so writes do not each wait for a command timeout.
+ */
+public class CacheInvalidationBus implements MessageListener {
+
+    public static final String CHANNEL = "github-user-proxy:cache-invalidation";
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    /**
+     * Message layout: origin node, cache name and, unless the whole cache was cleared, the key
+     */
+    private static final String SEPARATOR = "\n";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final RedisAvailability availability;
+    private final Map<String, LocalTier> caches = new ConcurrentHashMap<>();
+
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate) {
+        this(redisTemplate, null);
+    }
+
+    /**
+     * @param availability whether Redis is reachable, or null to always publish
+     */
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate, RedisAvailability availability) {
+        this.redisTemplate = redisTemplate;
+        this.availability = availability;
+    }
+
+    /**
+     * Start applying invalidations published by other nodes to the cache's local tier
+     */
+    public void register(LocalTier cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    /**
+     * Tell other nodes that an entry was written or evicted
+     */
+    public void publishEvict(String cacheName, Object key) {
+        publish(nodeId + SEPARATOR + cacheName + SEPARATOR + key);
+    }
+
+    /**
+     * Tell other nodes that the whole cache was cleared
+     */
+    public void publishClear(String cacheName) {
+        publish(nodeId + SEPARATOR + cacheName);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARATOR, 3);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        LocalTier cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (parts.length == 3) {
+            logger.debug("Invalidating local entry {} of cache {}", parts[2], parts[1]);
+            cache.evictLocal(parts[2]);
+        } else {
+            logger.debug("Clearing local tier of cache {}", parts[1]);
+            cache.clearLocal();
+        }
+    }
+
+    private void publish(String message) {
+        if (availability != null && !availability.isUp()) {
+            logger.debug("Redis is down, not publishing cache invalidation");
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (DataAccessException e) {
+            logger.warn("Failed to publish cache invalidation, other nodes keep their copy until it expires: {}",
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * A cache holding state in process that has to follow writes and evictions made on other nodes
+     */
+    public interface LocalTier {
+
+        String getName();
+
+        /**
+         * Drop a key from this node's in-process state only, on behalf of another node's write or eviction
+         */
+        void evictLocal(Object key);
+
+        /**
+         * Drop this node's whole in-process state only, on behalf of another node's clear
+         */
+        void clearLocal();
+    }
+}
@@ -0,0 +1,214 @@
+package miller.kyle.github_user_proxy.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.dao.DataAccessException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
+
+/**
+ * Cache decorator that coalesces concurrent misses for the same key into a single load ("single flight").
+ * <p>
+ * Used through {@code @Cacheable(sync = true)}: the first caller to miss a key runs the value loader,
+ * every other caller missing the same key while that load is in flight waits for it and shares its
+ * result or its error. Unlike {@code RedisCache}'s own synchronized loading, callers for different keys
+ * never block each other.
+ * <p>
+ * With a {@link RedisLoadLock} the single flight extends across nodes: only the node holding the
+ * Redis lease for a key loads it, the others wait for the filled entry. If the holder releases the lease without
+ * filling it, e.g. because GitHub failed or has no such user, the waiters look at the cache and the
+ * {@code notFound} check again, and only then compete for the lease, so the next attempt is single-flight too.
+ * <p>
+ * A cached value the {@code current} predicate rejects, e.g. an expired {@link CacheEntry} kept only to be
+ * served stale, counts as a miss: reloading it is coalesced and leased like any other load.
+ */
+public class CoalescingCache extends DelegatingCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescingCache.class);
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final RedisLoadLock loadLock;
+    private final Predicate<Object> current;
+    private final Predicate<Object> notFound;
+    private final Counter loads;
+    private final Counter coalesced;
+    private final Counter remoteFills;
+
+    public CoalescingCache(Cache delegate, MeterRegistry meterRegistry) {
+        this(delegate, meterRegistry, null);
+    }
+
+    /**
+     * @param loadLock distributed lease for cluster-wide single flight, or null to coalesce within this node only
+     */
+    public CoalescingCache(Cache delegate, MeterRegistry meterRegistry, RedisLoadLock loadLock) {
+        this(delegate, meterRegistry, loadLock, value -> true);
+    }
+
+    /**
+     * @param loadLock distributed lease for cluster-wide single flight, or null to coalesce within this node only
+     * @param current  whether a cached value can be served, or must be reloaded as if it were missing
+     */
+    public CoalescingCache(
+            Cache delegate,
+            MeterRegistry meterRegistry,
+            RedisLoadLock loadLock,
+            Predicate<Object> current) {
+        this(delegate, meterRegistry, loadLock, current, key -> false);
+    }
+
+    /**
+     * @param loadLock distributed lease for cluster-wide single flight, or null to coalesce within this node only
+     * @param current  whether a cached value can be served, or must be reloaded as if it were missing
+     * @param notFound whether a key is recorded as not found, checked when a lease holder gave up without filling
+     */
+    public CoalescingCache(
+            Cache delegate,
+            MeterRegistry meterRegistry,
+            RedisLoadLock loadLock,
+            Predicate<Object> current,
+            Predicate<Object> notFound) {
+        super(delegate);
+        this.loadLock = loadLock;
+        this.current = current;
+        this.notFound = notFound;
+        this.loads = Counter.builder("cache.loads")
+                .description("Cache misses that loaded the value from the source")
+                .tag("cache", delegate.getName())
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("cache.coalesced")
+                .description("Cache misses that joined a load already in flight for the same key")
+                .tag("cache", delegate.getName())
+                .register(meterRegistry);
+        this.remoteFills = Counter.builder("cache.remote.fills")
+                .description("Cache misses served by waiting for another node's load")
+                .tag("cache", delegate.getName())
+                .register(meterRegistry);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = lookup(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            logger.debug("Joining in-flight load for key: {}", key);
+            coalesced.increment();
+            return (T) await(key, existing, valueLoader);
+        }
+
+        try {
+            T value = load(key, valueLoader);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Load the value as the single caller for this key on this node, holding the distributed lease if enabled
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T load(Object key, Callable<T> valueLoader) {
+        // A load that finished between our miss and registering this flight has already filled the cache
+        ValueWrapper cached = lookup(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        if (loadLock == null || !loadLock.isAvailable()) {
+            return loadAndPut(key, valueLoader);
+        }
+
+        String lockKey = getName() + "::" + key;
+        long deadline = loadLock.waitDeadline();
+        for (boolean retry = false; ; retry = true) {
+            String token;
+            try {
+                token = loadLock.tryAcquire(lockKey);
+            } catch (DataAccessException e) {
+                logger.warn("Could not acquire load lock for {}, loading directly: {}", lockKey, e.getMessage());
+                return loadAndPut(key, valueLoader);
+            }
+
+            if (token != null) {
+                try {
+                    // After waiting, the previous holder may have filled the cache just before we took over
+                    cached = retry ? lookup(key) : null;
+                    return cached != null ? (T) cached.get() : loadAndPut(key, valueLoader);
+                } finally {
+                    loadLock.release(lockKey, token);
+                }
+            }
+
+            logger.debug("Another node is loading {}, waiting for it to fill the cache", lockKey);
+            ValueWrapper filled = loadLock.awaitFill(lockKey, () -> lookup(key), deadline);
+            if (filled != null) {
+                remoteFills.increment();
+                return (T) filled.get();
+            }
+            if (System.nanoTime() >= deadline || Thread.currentThread().isInterrupted()) {
+                logger.debug("No value for {} from another node, loading directly", lockKey);
+                return loadAndPut(key, valueLoader);
+            }
+            if (notFound.test(key)) {
+                logger.debug("Another node found no value for {}", lockKey);
+                throw new ValueRetrievalException(key, valueLoader, new UserNotFoundException(String.valueOf(key)));
+            }
+            logger.debug("Another node gave up loading {}, competing for the lease again", lockKey);
+        }
+    }
+
+    /**
+     * The cached value for the key, or null if it is missing or no longer current
+     */
+    private ValueWrapper lookup(Object key) {
+        ValueWrapper cached = getDelegate().get(key);
+        return cached != null && current.test(cached.get()) ? cached : null;
+    }
+
+    private <T> T loadAndPut(Object key, Callable<T> valueLoader) {
+        loads.increment();
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (value != null) {
+            getDelegate().put(key, value);
+        }
+        return value;
+    }
+
+    private Object await(Object key, CompletableFuture<Object> flight, Callable<?> valueLoader) {
+        try {
+            return flight.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+}
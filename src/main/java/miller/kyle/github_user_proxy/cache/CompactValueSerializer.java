@@ -0,0 +1,386 @@
+package miller.kyle.github_user_proxy.cache;
+
+import miller.kyle.github_user_proxy.dto.GitHubUserResponse;
+import miller.kyle.github_user_proxy.dto.RenderedResponse;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+
+/**
+ * Compact binary encoding of cached profiles, repository lists and rendered responses, with compression above a
+ * size threshold.
+ * <p>
+ * Profiles, repository lists and the {@link CacheEntry}s wrapping them are written as a version byte, a flags
+ * byte and a binary body: fields in a fixed order without names or type metadata, and each repository URL as
+ * only the part that differs from the previous one. Rendered response bodies are stored as raw bytes, without
+ * the Base64 encoding JSON would need, followed by their Brotli variant, entity tag and expiry. Bodies of at
+ * least {@code compressionThreshold} bytes are compressed in the LZ4 block format ({@link Lz4BlockCodec}),
+ * unless already gzipped, if that makes them smaller. Any other value is written by the fallback (JSON) serializer,
+ * and values not starting with the version byte, including entries written before this format, are read by it,
+ * so both formats can live in one cache. With the compact format disabled, values are written by the fallback
+ * but compact ones can still be read, which allows rolling back.
+ */
+public class CompactValueSerializer implements RedisSerializer<Object> {
+
+    /**
+     * First byte of every compact value; JSON never starts with it
+     */
+    static final byte FORMAT_VERSION = 1;
+
+    private static final int FLAG_COMPRESSED = 1;
+
+    private static final byte TYPE_ENTRY = 1;
+    private static final byte TYPE_USER = 2;
+    private static final byte TYPE_REPOS = 3;
+    private static final byte TYPE_RENDERED = 4;
+
+    private final RedisSerializer<Object> fallback;
+    private final boolean enabled;
+    private final int compressionThreshold;
+
+    /**
+     * @param fallback             serializer of other values and of values in its own format
+     * @param enabled              whether to write supported values in the compact format
+     * @param compressionThreshold smallest body, in bytes, worth compressing
+     */
+    public CompactValueSerializer(RedisSerializer<Object> fallback, boolean enabled, int compressionThreshold) {
+        this.fallback = fallback;
+        this.enabled = enabled;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (!enabled || !isSupported(value)) {
+            return fallback.serialize(value);
+        }
+        Output body = new Output();
+        body.writeByte(FORMAT_VERSION);
+        body.writeByte(0);
+        write(body, value);
+        int length = body.size - 2;
+        if (length >= compressionThreshold && !isGzipped(value)) {
+            byte[] block = Lz4BlockCodec.compress(body.buffer, 2, length);
+            if (block != null) {
+                Output compressed = new Output();
+                compressed.writeByte(FORMAT_VERSION);
+                compressed.writeByte(FLAG_COMPRESSED);
+                compressed.writeVarLong(length);
+                compressed.writeBytes(block);
+                return Arrays.copyOf(compressed.buffer, compressed.size);
+            }
+        }
+        return Arrays.copyOf(body.buffer, body.size);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0 || bytes[0] != FORMAT_VERSION) {
+            return fallback.deserialize(bytes);
+        }
+        try {
+            Input in = new Input(bytes, 2);
+            if ((bytes[1] & FLAG_COMPRESSED) != 0) {
+                byte[] body = new byte[in.readVarInt()];
+                Lz4BlockCodec.decompress(bytes, in.position, body);
+                in = new Input(body, 0);
+            }
+            return read(in);
+        } catch (DataFormatException | IndexOutOfBoundsException e) {
+            throw new SerializationException("Could not read compact value", e);
+        }
+    }
+
+    private static boolean isSupported(Object value) {
+        if (value instanceof CacheEntry entry) {
+            return entry.getValue() instanceof GitHubUserResponse || isRepoList(entry.getValue());
+        }
+        return value instanceof GitHubUserResponse || value instanceof RenderedResponse || isRepoList(value);
+    }
+
+    private static boolean isGzipped(Object value) {
+        return value instanceof RenderedResponse rendered && rendered.isGzipped();
+    }
+
+    private static boolean isRepoList(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return false;
+        }
+        for (Object element : list) {
+            if (!(element instanceof RepoInfo)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void write(Output out, Object value) {
+        if (value instanceof CacheEntry entry) {
+            out.writeByte(TYPE_ENTRY);
+            out.writeLong(entry.getCreatedAt());
+            out.writeLong(entry.getExpiresAt());
+            out.writeVarLong(entry.getComputeMillis());
+            out.writeString(entry.getEtag());
+            write(out, entry.getValue());
+        } else if (value instanceof GitHubUserResponse user) {
+            out.writeByte(TYPE_USER);
+            out.writeString(user.getLogin());
+            out.writeString(user.getName());
+            out.writeString(user.getAvatarUrl());
+            out.writeString(user.getLocation());
+            out.writeString(user.getEmail());
+            out.writeString(user.getUrl());
+            out.writeString(user.getCreatedAt());
+        } else if (value instanceof RenderedResponse rendered) {
+            out.writeByte(TYPE_RENDERED);
+            out.writeByte(rendered.isGzipped() ? 1 : 0);
+            out.writeVarLong(rendered.getBody().length);
+            out.writeBytes(rendered.getBody());
+            // Length plus one; 0 stands for no Brotli variant
+            byte[] brotli = rendered.getBrotli();
+            out.writeVarLong(brotli == null ? 0 : brotli.length + 1L);
+            if (brotli != null) {
+                out.writeBytes(brotli);
+            }
+            out.writeString(rendered.getEtag());
+            out.writeLong(rendered.getExpiresAt());
+        } else {
+            List<?> repos = (List<?>) value;
+            out.writeByte(TYPE_REPOS);
+            out.writeVarLong(repos.size());
+            String previousUrl = "";
+            for (Object element : repos) {
+                RepoInfo repo = (RepoInfo) element;
+                out.writeString(repo.getName());
+                // Repository URLs share most of their prefix with the one before
+                String url = repo.getUrl();
+                int shared = url == null ? 0 : sharedPrefix(previousUrl, url);
+                out.writeVarLong(shared);
+                out.writeString(url == null ? null : url.substring(shared));
+                if (url != null) {
+                    previousUrl = url;
+                }
+            }
+        }
+    }
+
+    private static Object read(Input in) throws DataFormatException {
+        byte type = in.readByte();
+        return switch (type) {
+            case TYPE_ENTRY -> {
+                long createdAt = in.readLong();
+                long expiresAt = in.readLong();
+                long computeMillis = in.readVarLong();
+                String etag = in.readString();
+                yield new CacheEntry(read(in), createdAt, expiresAt, computeMillis, etag);
+            }
+            case TYPE_USER -> readUser(in);
+            case TYPE_REPOS -> readRepos(in);
+            case TYPE_RENDERED -> readRendered(in);
+            default -> throw new DataFormatException("Unknown compact value type: " + type);
+        };
+    }
+
+    private static GitHubUserResponse readUser(Input in) throws DataFormatException {
+        GitHubUserResponse user = new GitHubUserResponse();
+        user.setLogin(in.readString());
+        user.setName(in.readString());
+        user.setAvatarUrl(in.readString());
+        user.setLocation(in.readString());
+        user.setEmail(in.readString());
+        user.setUrl(in.readString());
+        user.setCreatedAt(in.readString());
+        return user;
+    }
+
+    private static List<RepoInfo> readRepos(Input in) throws DataFormatException {
+        int size = in.readVarInt();
+        List<RepoInfo> repos = new ArrayList<>(Math.min(size, 1024));
+        String previousUrl = "";
+        for (int i = 0; i < size; i++) {
+            String name = in.readString();
+            int shared = in.readVarInt();
+            String suffix = in.readString();
+            String url = suffix == null ? null : previousUrl.substring(0, shared) + suffix;
+            if (url != null) {
+                previousUrl = url;
+            }
+            repos.add(new RepoInfo(name, url));
+        }
+        return repos;
+    }
+
+    private static RenderedResponse readRendered(Input in) throws DataFormatException {
+        boolean gzipped = in.readByte() != 0;
+        RenderedResponse rendered = new RenderedResponse(in.readBytes(in.readVarInt()), gzipped);
+        int brotliLength = in.readVarInt();
+        if (brotliLength > 0) {
+            rendered.setBrotli(in.readBytes(brotliLength - 1));
+        }
+        rendered.setEtag(in.readString());
+        rendered.setExpiresAt(in.readLong());
+        return rendered;
+    }
+
+    /**
+     * Length of the common prefix, never splitting a surrogate pair
+     */
+    private static int sharedPrefix(String previous, String current) {
+        int max = Math.min(previous.length(), current.length());
+        int shared = 0;
+        while (shared < max && previous.charAt(shared) == current.charAt(shared)) {
+            shared++;
+        }
+        if (shared > 0 && Character.isHighSurrogate(current.charAt(shared - 1))) {
+            shared--;
+        }
+        return shared;
+    }
+
+    /**
+     * Growable byte buffer; unlike the java.io streams, it does no locking or per-byte virtual calls
+     */
+    private static final class Output {
+
+        private byte[] buffer = new byte[256];
+        private int size;
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            ensureCapacity(Long.BYTES);
+            for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+                buffer[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        /**
+         * Unsigned little-endian base 128: 7 bits per byte, high bit set on all but the last
+         */
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        /**
+         * UTF-8 bytes preceded by their length plus one; a length of 0 stands for null
+         */
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            int length = value.length();
+            if (isAscii(value)) {
+                writeVarLong(length + 1);
+                ensureCapacity(length);
+                for (int i = 0; i < length; i++) {
+                    buffer[size++] = (byte) value.charAt(i);
+                }
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length + 1);
+            writeBytes(utf8);
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+
+        private static boolean isAscii(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) >= 0x80) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Cursor over a compact value
+     */
+    private static final class Input {
+
+        private final byte[] buffer;
+        private int position;
+
+        Input(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        byte readByte() {
+            return buffer[position++];
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                value = (value << Byte.SIZE) | (buffer[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        long readVarLong() throws DataFormatException {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                int b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new DataFormatException("Malformed variable-length number");
+        }
+
+        int readVarInt() throws DataFormatException {
+            long value = readVarLong();
+            if (value > Integer.MAX_VALUE) {
+                throw new DataFormatException("Length out of range: " + value);
+            }
+            return (int) value;
+        }
+
+        byte[] readBytes(int length) throws DataFormatException {
+            if (length > buffer.length - position) {
+                throw new DataFormatException("Truncated value: " + length + " bytes expected");
+            }
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        String readString() throws DataFormatException {
+            int length = readVarInt();
+            if (length == 0) {
+                return null;
+            }
+            String value = new String(buffer, position, length - 1, StandardCharsets.UTF_8);
+            position += length - 1;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package miller.kyle.github_user_proxy.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * CacheManager that wraps selected caches of another CacheManager with decorators, by cache name, and
+ * optionally all other caches with a default decorator
+ */
+public class DecoratingCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final Map<String, UnaryOperator<Cache>> decorators;
+    private final UnaryOperator<Cache> defaultDecorator;
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public DecoratingCacheManager(CacheManager delegate, Map<String, UnaryOperator<Cache>> decorators) {
+        this(delegate, decorators, UnaryOperator.identity());
+    }
+
+    /**
+     * @param defaultDecorator decorator of caches without one of their own
+     */
+    public DecoratingCacheManager(
+            CacheManager delegate,
+            Map<String, UnaryOperator<Cache>> decorators,
+            UnaryOperator<Cache> defaultDecorator) {
+        this.delegate = delegate;
+        this.decorators = decorators;
+        this.defaultDecorator = defaultDecorator;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> {
+            Cache cache = delegate.getCache(cacheName);
+            if (cache == null) {
+                return null;
+            }
+            return decorators.getOrDefault(cacheName, defaultDecorator).apply(cache);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
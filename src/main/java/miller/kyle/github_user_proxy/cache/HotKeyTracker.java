@@ -0,0 +1,105 @@
+package miller.kyle.github_user_proxy.cache;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Tracks the most requested usernames in fixed memory.
+ * <p>
+ * Request counts are estimated by a count-min sketch: each username increments one counter in each of a few
+ * rows, and its estimate is the smallest of them, which can only overcount, and only by colliding with busier
+ * usernames. Alongside it, a bounded set of candidates keeps the usernames estimated busiest so far. Calling
+ * {@link #decay()} halves all counts, so the ranking follows recent traffic rather than all time.
+ */
+public class HotKeyTracker {
+
+    private static final int DEPTH = 4;
+
+    private final int topN;
+    private final int capacity;
+    private final int widthMask;
+    private final AtomicIntegerArray counters;
+    private final Map<String, Integer> candidates = new ConcurrentHashMap<>();
+
+    /**
+     * Smallest estimate a new username needs to become a candidate once the candidate set is full
+     */
+    private volatile int admissionThreshold;
+
+    /**
+     * @param topN number of usernames {@link #top()} returns
+     */
+    public HotKeyTracker(int topN) {
+        this.topN = topN;
+        this.capacity = topN * 2;
+        int width = Integer.highestOneBit(Math.max(1024, topN * 16) - 1) << 1;
+        this.widthMask = width - 1;
+        this.counters = new AtomicIntegerArray(DEPTH * width);
+    }
+
+    /**
+     * Count a request for a username
+     */
+    public void record(String username) {
+        int hash = username.hashCode();
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int count = counters.incrementAndGet(index(row, hash));
+            estimate = Math.min(estimate, count);
+        }
+        if (candidates.containsKey(username) || candidates.size() < capacity || estimate > admissionThreshold) {
+            candidates.put(username, estimate);
+            if (candidates.size() > capacity * 2) {
+                trim();
+            }
+        }
+    }
+
+    /**
+     * The most requested usernames, busiest first
+     */
+    public List<String> top() {
+        return candidates.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(topN)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Halve every count, dropping usernames that reach zero, so that past traffic weighs less than recent
+     */
+    public synchronized void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+        candidates.replaceAll((username, estimate) -> estimate >>> 1);
+        candidates.values().removeIf(estimate -> estimate == 0);
+        admissionThreshold >>>= 1;
+    }
+
+    /**
+     * Keep the busiest {@code capacity} candidates, and only admit new ones busier than the least busy of those
+     */
+    private synchronized void trim() {
+        if (candidates.size() <= capacity) {
+            return;
+        }
+        List<Map.Entry<String, Integer>> ranked = candidates.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .toList();
+        for (Map.Entry<String, Integer> dropped : ranked.subList(capacity, ranked.size())) {
+            candidates.remove(dropped.getKey());
+        }
+        admissionThreshold = ranked.get(capacity - 1).getValue();
+    }
+
+    private int index(int row, int hash) {
+        // A different odd multiplier per row spreads the same hash over independent columns
+        int mixed = (hash ^ (hash >>> 16)) * (0x9E3779B1 + 2 * row);
+        return row * (widthMask + 1) + ((mixed ^ (mixed >>> 15)) & widthMask);
+    }
+}
@@ -0,0 +1,182 @@
+package miller.kyle.github_user_proxy.cache;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+
+/**
+ * Fast LZ77 compression in the LZ4 block format, for cached values.
+ * <p>
+ * A block is a series of sequences, each a token byte (literal length in the high nibble, match length minus
+ * 4 in the low one; 15 means more length bytes follow), the literals, and a 2-byte little-endian offset back to
+ * the match. The last sequence has literals only. Matches are found greedily through a small hash table of
+ * 4-byte prefixes, trading some ratio for speed, as LZ4's fast mode does.
+ */
+final class Lz4BlockCodec {
+
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_OFFSET = 0xFFFF;
+    /**
+     * The format requires the last 5 bytes to be literals, and the last match to start 12 bytes before the end
+     */
+    private static final int LAST_LITERALS = 5;
+    private static final int MATCH_FIND_LIMIT = 12;
+    private static final int MAX_HASH_BITS = 12;
+
+    private Lz4BlockCodec() {
+    }
+
+    /**
+     * Compress {@code length} bytes of {@code source} from {@code offset}
+     *
+     * @return the block, or null if it would not be smaller than the input
+     */
+    static byte[] compress(byte[] source, int offset, int length) {
+        int end = offset + length;
+        byte[] block = new byte[length];
+        int out = 0;
+        int anchor = offset;
+
+        if (length > MATCH_FIND_LIMIT) {
+            // Positions of recent 4-byte prefixes, plus one so that 0 means none; small inputs get a small table
+            int hashBits = Math.min(MAX_HASH_BITS, Integer.SIZE - Integer.numberOfLeadingZeros(length));
+            int[] table = new int[1 << hashBits];
+            int matchLimit = end - LAST_LITERALS;
+            int position = offset;
+            while (position < end - MATCH_FIND_LIMIT) {
+                int prefix = readInt(source, position);
+                int slot = hash(prefix, hashBits);
+                int candidate = table[slot] - 1;
+                table[slot] = position + 1;
+                if (candidate < offset || position - candidate > MAX_OFFSET || readInt(source, candidate) != prefix) {
+                    position++;
+                    continue;
+                }
+
+                // Extend the match backwards over pending literals, then forwards
+                while (position > anchor && candidate > offset && source[position - 1] == source[candidate - 1]) {
+                    position--;
+                    candidate--;
+                }
+                int matchLength = MIN_MATCH;
+                while (position + matchLength < matchLimit
+                        && source[position + matchLength] == source[candidate + matchLength]) {
+                    matchLength++;
+                }
+
+                out = writeSequence(block, out, source, anchor, position - anchor, position - candidate, matchLength);
+                if (out < 0) {
+                    return null;
+                }
+                position += matchLength;
+                anchor = position;
+            }
+        }
+
+        out = writeSequence(block, out, source, anchor, end - anchor, 0, 0);
+        return out < 0 ? null : Arrays.copyOf(block, out);
+    }
+
+    /**
+     * Decompress a whole block into {@code target}, which must have exactly the original length
+     *
+     * @throws DataFormatException if the block is malformed or does not fill the target
+     */
+    static void decompress(byte[] block, int offset, byte[] target) throws DataFormatException {
+        int in = offset;
+        int out = 0;
+        while (in < block.length) {
+            int token = block[in++] & 0xFF;
+            int literals = token >>> 4;
+            if (literals == 15) {
+                int more;
+                do {
+                    more = block[in++] & 0xFF;
+                    literals += more;
+                } while (more == 255);
+            }
+            System.arraycopy(block, in, target, out, literals);
+            in += literals;
+            out += literals;
+            if (in == block.length) {
+                break;
+            }
+
+            int distance = (block[in++] & 0xFF) | (block[in++] & 0xFF) << 8;
+            int matchLength = token & 0x0F;
+            if (matchLength == 15) {
+                int more;
+                do {
+                    more = block[in++] & 0xFF;
+                    matchLength += more;
+                } while (more == 255);
+            }
+            matchLength += MIN_MATCH;
+            int match = out - distance;
+            if (distance == 0 || match < 0) {
+                throw new DataFormatException("Invalid match offset: " + distance);
+            }
+            if (distance >= matchLength) {
+                System.arraycopy(target, match, target, out, matchLength);
+            } else {
+                // Overlapping match repeats the last distance bytes
+                for (int i = 0; i < matchLength; i++) {
+                    target[out + i] = target[match + i];
+                }
+            }
+            out += matchLength;
+        }
+        if (out != target.length) {
+            throw new DataFormatException("Block decompressed to " + out + " bytes, expected " + target.length);
+        }
+    }
+
+    /**
+     * Append a sequence; a match length of 0 marks the last, literals-only sequence
+     *
+     * @return the new end of the block, or -1 if the sequence does not fit
+     */
+    private static int writeSequence(byte[] block, int out, byte[] source, int literalStart, int literals,
+                                     int distance, int matchLength) {
+        int matchCode = matchLength == 0 ? 0 : matchLength - MIN_MATCH;
+        int needed = 1 + literals + literals / 255 + 1 + (matchLength == 0 ? 0 : 2 + matchCode / 255 + 1);
+        if (out + needed > block.length) {
+            return -1;
+        }
+        int token = out++;
+        block[token] = (byte) (Math.min(literals, 15) << 4 | Math.min(matchCode, 15));
+        out = writeLength(block, out, literals);
+        System.arraycopy(source, literalStart, block, out, literals);
+        out += literals;
+        if (matchLength == 0) {
+            return out;
+        }
+        block[out++] = (byte) distance;
+        block[out++] = (byte) (distance >>> 8);
+        return writeLength(block, out, matchCode);
+    }
+
+    /**
+     * Bytes beyond the token's nibble for a length of 15 or more
+     */
+    private static int writeLength(byte[] block, int out, int length) {
+        if (length < 15) {
+            return out;
+        }
+        int remaining = length - 15;
+        while (remaining >= 255) {
+            block[out++] = (byte) 255;
+            remaining -= 255;
+        }
+        block[out++] = (byte) remaining;
+        return out;
+    }
+
+    private static int readInt(byte[] bytes, int position) {
+        return (bytes[position] & 0xFF) | (bytes[position + 1] & 0xFF) << 8
+                | (bytes[position + 2] & 0xFF) << 16 | (bytes[position + 3] & 0xFF) << 24;
+    }
+
+    private static int hash(int prefix, int bits) {
+        return (prefix * -1640531535) >>> (Integer.SIZE - bits);
+    }
+}
@@ -0,0 +1,103 @@
+package miller.kyle.github_user_proxy.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache decorator remembering keys whose load found no such GitHub user, in a separate short-lived cache.
+ * <p>
+ * Used through {@code @Cacheable(sync = true)}: a cached value is always served, so a false positive of the
+ * {@link NotFoundFilter} never hides a user that exists. On a miss, a key the filter has recently seen reported
+ * as not found fails with {@link UserNotFoundException} without reading the shared not-found cache, a key
+ * recorded in the shared not-found cache fails the same way without calling GitHub, and a load failing with
+ * {@link UserNotFoundException} records the key. Evicting a key from this cache also forgets that
+ * it was not found; the not-found cache itself can be cleared separately.
+ * <p>
+ * Publishes {@code cache.negative.hits} (tagged by tier: {@code filter} or {@code redis}) and
+ * {@code cache.negative.puts} counters, tagged by cache.
+ */
+public class NegativeCachingCache extends DelegatingCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(NegativeCachingCache.class);
+
+    private final NotFoundCache notFoundCache;
+    private final Counter filterHits;
+    private final Counter redisHits;
+    private final Counter puts;
+
+    /**
+     * @param delegate      the cache of found values
+     * @param notFoundCache where keys that were not found are recorded, with its own (short) time to live
+     */
+    public NegativeCachingCache(Cache delegate, NotFoundCache notFoundCache, MeterRegistry meterRegistry) {
+        super(delegate);
+        this.notFoundCache = notFoundCache;
+        this.filterHits = hits(meterRegistry, delegate.getName(), "filter");
+        this.redisHits = hits(meterRegistry, delegate.getName(), "redis");
+        this.puts = Counter.builder("cache.negative.puts")
+                .description("Loads that found nothing and were recorded in the not-found cache")
+                .tag("cache", delegate.getName())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // Not-found markers are only consulted on a miss, so found users cost no extra lookup
+        return super.get(key, () -> {
+            if (notFoundCache.mightContain(key)) {
+                logger.debug("Not-found filter hit for key: {}", key);
+                filterHits.increment();
+                throw new UserNotFoundException(String.valueOf(key));
+            }
+            if (notFoundCache.contains(key)) {
+                logger.debug("Not-found cache hit for key: {}", key);
+                redisHits.increment();
+                throw new UserNotFoundException(String.valueOf(key));
+            }
+            try {
+                return valueLoader.call();
+            } catch (Exception e) {
+                if (isNotFound(e)) {
+                    notFoundCache.put(key, Boolean.TRUE);
+                    puts.increment();
+                }
+                throw e;
+            }
+        });
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        notFoundCache.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = super.evictIfPresent(key);
+        return notFoundCache.evictIfPresent(key) || evicted;
+    }
+
+    private static Counter hits(MeterRegistry meterRegistry, String cacheName, String tier) {
+        return Counter.builder("cache.negative.hits")
+                .description("Lookups answered as not found without calling the source")
+                .tag("cache", cacheName)
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+
+    private static boolean isNotFound(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof UserNotFoundException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
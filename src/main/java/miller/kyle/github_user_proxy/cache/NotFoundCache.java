@@ -0,0 +1,122 @@
+package miller.kyle.github_user_proxy.cache;
+
+import org.springframework.cache.Cache;
+
+/**
+ * The shared cache of keys that were not found, fronted by this node's {@link NotFoundFilter} if enabled.
+ * <p>
+ * Every key put here is also added to the filter. Since the filter cannot forget single keys, evicting any key
+ * clears the whole filter, as does clearing the cache; the filter then refills from the shared cache as
+ * lookups hit it. With a {@link CacheInvalidationBus}, evictions and clears are published, so the filters of
+ * all nodes are cleared, not just this one's.
+ */
+public class NotFoundCache extends DelegatingCache implements CacheInvalidationBus.LocalTier {
+
+    private final NotFoundFilter filter;
+    private final CacheInvalidationBus invalidationBus;
+
+    /**
+     * @param filter this node's filter of keys recently not found, or null to always read the shared cache
+     */
+    public NotFoundCache(Cache delegate, NotFoundFilter filter) {
+        this(delegate, filter, null);
+    }
+
+    /**
+     * @param filter          this node's filter of keys recently not found, or null to always read the shared cache
+     * @param invalidationBus channel telling other nodes to clear their filter, or null to only clear this one's
+     */
+    public NotFoundCache(Cache delegate, NotFoundFilter filter, CacheInvalidationBus invalidationBus) {
+        super(delegate);
+        this.filter = filter;
+        this.invalidationBus = invalidationBus;
+    }
+
+    /**
+     * Whether this node has recently seen the key reported as not found; answered without reading the cache
+     */
+    public boolean mightContain(Object key) {
+        return filter != null && filter.mightContain(key);
+    }
+
+    /**
+     * Whether the shared cache records the key as not found; a hit is remembered in the filter
+     */
+    public boolean contains(Object key) {
+        if (super.get(key) == null) {
+            return false;
+        }
+        remember(key);
+        return true;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        super.put(key, value);
+        remember(key);
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        forgetAll();
+        publishEvict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        forgetAll();
+        boolean evicted = super.evictIfPresent(key);
+        publishEvict(key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        forgetAll();
+        publishClear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        forgetAll();
+        boolean invalidated = super.invalidate();
+        publishClear();
+        return invalidated;
+    }
+
+    @Override
+    public void evictLocal(Object key) {
+        forgetAll();
+    }
+
+    @Override
+    public void clearLocal() {
+        forgetAll();
+    }
+
+    private void publishEvict(Object key) {
+        if (invalidationBus != null) {
+            invalidationBus.publishEvict(getName(), key);
+        }
+    }
+
+    private void publishClear() {
+        if (invalidationBus != null) {
+            invalidationBus.publishClear(getName());
+        }
+    }
+
+    private void remember(Object key) {
+        if (filter != null) {
+            filter.put(key);
+        }
+    }
+
+    private void forgetAll() {
+        if (filter != null) {
+            filter.clear();
+        }
+    }
+}
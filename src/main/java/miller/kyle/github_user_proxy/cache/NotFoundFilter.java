@@ -0,0 +1,157 @@
+package miller.kyle.github_user_proxy.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-process Bloom filter of logins recently confirmed not to exist on GitHub.
+ * <p>
+ * Answers "probably not found" in constant time and fixed memory, without a Redis round trip. It never misses
+ * a recorded login, but may wrongly report an unrecorded one at about the configured false positive rate
+ * when full. Logins cannot be removed from a Bloom filter, so the filter has two generations: new logins go
+ * into the current one, lookups check both, and every {@code rotation} the older one is dropped. A login is
+ * therefore remembered for between one and two rotation periods. Logins are compared case-insensitively,
+ * like GitHub does.
+ */
+public class NotFoundFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final int bits;
+    private final int hashes;
+    private final long rotationMillis;
+    private final Clock clock;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+    private volatile long rotatedAt;
+
+    /**
+     * @param expectedInsertions logins expected per rotation period
+     * @param falsePositiveRate  acceptable chance of reporting an unrecorded login, at expected insertions
+     * @param rotation           how often the older generation is dropped
+     */
+    public NotFoundFilter(int expectedInsertions, double falsePositiveRate, Duration rotation) {
+        this(expectedInsertions, falsePositiveRate, rotation, Clock.systemUTC());
+    }
+
+    NotFoundFilter(int expectedInsertions, double falsePositiveRate, Duration rotation, Clock clock) {
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+        this.bits = (int) Math.max(Long.SIZE, Math.min(optimalBits, Integer.MAX_VALUE - Long.SIZE));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * LN2));
+        this.rotationMillis = rotation.toMillis();
+        this.clock = clock;
+        this.current = new Generation(bits);
+        this.previous = new Generation(bits);
+        this.rotatedAt = clock.millis();
+    }
+
+    /**
+     * Record a login GitHub reported as not found
+     */
+    public void put(Object login) {
+        rotateIfDue();
+        long hash = hash(login);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        Generation generation = current;
+        for (int i = 0; i < hashes; i++) {
+            generation.set(Math.floorMod(h1 + i * h2, bits));
+        }
+    }
+
+    /**
+     * Whether the login was probably recorded as not found within the last one to two rotation periods
+     */
+    public boolean mightContain(Object login) {
+        rotateIfDue();
+        long hash = hash(login);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        return contains(current, h1, h2) || contains(previous, h1, h2);
+    }
+
+    /**
+     * Forget every recorded login
+     */
+    public synchronized void clear() {
+        current = new Generation(bits);
+        previous = new Generation(bits);
+        rotatedAt = clock.millis();
+    }
+
+    private boolean contains(Generation generation, long h1, long h2) {
+        for (int i = 0; i < hashes; i++) {
+            if (!generation.get(Math.floorMod(h1 + i * h2, bits))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rotateIfDue() {
+        long now = clock.millis();
+        if (now - rotatedAt < rotationMillis) {
+            return;
+        }
+        synchronized (this) {
+            if (now - rotatedAt >= rotationMillis) {
+                previous = current;
+                current = new Generation(bits);
+                rotatedAt = now;
+            }
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a of the lower-cased login
+     */
+    private static long hash(Object login) {
+        String normalized = String.valueOf(login).toLowerCase(Locale.ROOT);
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            hash ^= normalized.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * MurmurHash3 finalizer, spreading the FNV hash over all 64 bits
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static final class Generation {
+
+        private final AtomicLongArray words;
+
+        Generation(int bits) {
+            this.words = new AtomicLongArray((bits + Long.SIZE - 1) / Long.SIZE);
+        }
+
+        void set(int bit) {
+            long mask = 1L << bit;
+            int index = bit / Long.SIZE;
+            long word;
+            do {
+                word = words.get(index);
+                if ((word & mask) != 0) {
+                    return;
+                }
+            } while (!words.compareAndSet(index, word, word | mask));
+        }
+
+        boolean get(int bit) {
+            return (words.get(bit / Long.SIZE) & (1L << bit)) != 0;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package miller.kyle.github_user_proxy.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared view of whether the Redis cache can be reached, used by every {@link RedisFallbackCache}.
+ * <p>
+ * The first failed Redis command marks Redis down. While it is down, caches skip Redis and use their local
+ * fallback, so requests do not each wait for a command timeout; once every {@code retryInterval} a single
+ * command is let through to Redis, and its success marks Redis up again.
+ * <p>
+ * Reports {@code UP} either way, since requests are still served, with the mode and the time Redis went down
+ * as details, and publishes {@code cache.redis.available} (1 up, 0 down).
+ */
+public class RedisAvailability implements HealthIndicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisAvailability.class);
+
+    private final Duration retryInterval;
+    private final Clock clock;
+
+    /**
+     * When Redis went down, or null while it is up
+     */
+    private volatile Instant downSince;
+
+    /**
+     * Epoch millis after which the next command may try Redis again while it is down
+     */
+    private final AtomicLong nextAttempt = new AtomicLong();
+
+    public RedisAvailability(MeterRegistry meterRegistry, Duration retryInterval) {
+        this(meterRegistry, retryInterval, Clock.systemUTC());
+    }
+
+    RedisAvailability(MeterRegistry meterRegistry, Duration retryInterval, Clock clock) {
+        this.retryInterval = retryInterval;
+        this.clock = clock;
+        Gauge.builder("cache.redis.available", this, availability -> availability.isUp() ? 1 : 0)
+                .description("Whether the Redis cache is reachable: 1 up, 0 down and served from local memory")
+                .register(meterRegistry);
+    }
+
+    public boolean isUp() {
+        return downSince == null;
+    }
+
+    /**
+     * Ask to send a command to Redis; while Redis is down only one caller per retry interval is allowed,
+     * and it must report the outcome with {@link #markUp} or {@link #markDown}
+     */
+    public boolean shouldTry() {
+        if (downSince == null) {
+            return true;
+        }
+        long now = clock.millis();
+        long next = nextAttempt.get();
+        return now >= next && nextAttempt.compareAndSet(next, now + retryInterval.toMillis());
+    }
+
+    public void markUp() {
+        if (downSince != null) {
+            logger.info("Redis cache reachable again after {}", Duration.between(downSince, clock.instant()));
+            downSince = null;
+        }
+    }
+
+    public void markDown(RuntimeException cause) {
+        nextAttempt.set(clock.millis() + retryInterval.toMillis());
+        if (downSince == null) {
+            downSince = clock.instant();
+            logger.warn("Redis cache unreachable, serving from local memory and retrying every {}: {}",
+                    retryInterval, cause.getMessage());
+        }
+    }
+
+    @Override
+    public Health health() {
+        Instant since = downSince;
+        if (since == null) {
+            return Health.up().withDetail("mode", "redis").build();
+        }
+        return Health.up()
+                .withDetail("mode", "local-fallback")
+                .withDetail("redisDownSince", since.toString())
+                .build();
+    }
+}
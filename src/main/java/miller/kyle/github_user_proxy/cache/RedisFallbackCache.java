@@ -0,0 +1,198 @@
+package miller.kyle.github_user_proxy.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.dao.DataAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Cache decorator that keeps a Redis-backed cache working while Redis is slow or down.
+ * <p>
+ * A Redis command that fails, including by timing out, marks Redis down in the shared
+ * {@link RedisAvailability}, and the operation is answered from a bounded in-process cache instead: a failed
+ * read is a miss, and a failed write is kept locally. While Redis is down, operations go to the local cache
+ * without trying Redis at all. Once Redis is back, the local copies are dropped, as other nodes may have
+ * written newer values in the meantime; writes and evictions made only locally are not replayed.
+ * <p>
+ * Publishes {@code cache.redis.fallback} counters tagged by cache, counting operations served locally.
+ */
+public class RedisFallbackCache extends DelegatingCache {
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+    private final RedisAvailability availability;
+    private final Counter fallbacks;
+
+    /**
+     * Whether the local cache may hold entries written while Redis was down
+     */
+    private volatile boolean localInUse;
+
+    public RedisFallbackCache(
+            Cache delegate,
+            RedisAvailability availability,
+            MeterRegistry meterRegistry,
+            long maxSize,
+            Duration ttl) {
+        super(delegate);
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.availability = availability;
+        this.fallbacks = Counter.builder("cache.redis.fallback")
+                .description("Cache operations served from local memory because Redis was unreachable")
+                .tag("cache", delegate.getName())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return withFallback(() -> super.get(key), () -> {
+            Object value = local.getIfPresent(key);
+            return value != null ? new SimpleValueWrapper(value) : null;
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        return withFallback(() -> super.get(key, type), () -> {
+            Object value = local.getIfPresent(key);
+            if (value != null && type != null && !type.isInstance(value)) {
+                throw new IllegalStateException(
+                        "Cached value is not of required type [" + type.getName() + "]: " + value);
+            }
+            return (T) value;
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // Redis may fail after the value was loaded, when writing it back; do not load it twice
+        Loaded<T> loaded = new Loaded<>(valueLoader);
+        return withFallback(() -> super.get(key, loaded), () -> {
+            localInUse = true;
+            return (T) local.get(key, ignored -> {
+                try {
+                    return loaded.call();
+                } catch (Exception e) {
+                    throw new ValueRetrievalException(key, valueLoader, e);
+                }
+            });
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        withFallback(() -> {
+            super.put(key, value);
+            return null;
+        }, () -> {
+            putLocal(key, value);
+            return null;
+        });
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return withFallback(() -> super.putIfAbsent(key, value), () -> {
+            Object existing = local.getIfPresent(key);
+            if (existing != null) {
+                return new SimpleValueWrapper(existing);
+            }
+            putLocal(key, value);
+            return null;
+        });
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.invalidate(key);
+        withFallback(() -> {
+            super.evict(key);
+            return null;
+        }, () -> null);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evictedLocally = local.asMap().remove(key) != null;
+        return withFallback(() -> super.evictIfPresent(key), () -> evictedLocally);
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        withFallback(() -> {
+            super.clear();
+            return null;
+        }, () -> null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidatedLocally = local.estimatedSize() > 0;
+        local.invalidateAll();
+        return withFallback(super::invalidate, () -> invalidatedLocally);
+    }
+
+    /**
+     * Run an operation against Redis, or locally if Redis is down or the operation fails to reach it
+     */
+    private <T> T withFallback(Supplier<T> remote, Supplier<T> fallback) {
+        if (availability.shouldTry()) {
+            try {
+                T result = remote.get();
+                availability.markUp();
+                if (localInUse) {
+                    localInUse = false;
+                    local.invalidateAll();
+                }
+                return result;
+            } catch (DataAccessException e) {
+                availability.markDown(e);
+            }
+        }
+        fallbacks.increment();
+        return fallback.get();
+    }
+
+    private void putLocal(Object key, Object value) {
+        localInUse = true;
+        if (value != null) {
+            local.put(key, value);
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    /**
+     * Value loader that runs at most once and remembers its value
+     */
+    private static final class Loaded<T> implements Callable<T> {
+
+        private final Callable<T> valueLoader;
+        private boolean called;
+        private T value;
+
+        Loaded(Callable<T> valueLoader) {
+            this.valueLoader = valueLoader;
+        }
+
+        @Override
+        public synchronized T call() throws Exception {
+            if (!called) {
+                value = valueLoader.call();
+                called = true;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package miller.kyle.github_user_proxy.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived Redis lease used to make a cache fill single-flight across all nodes sharing the cache.
+ * <p>
+ * The node that acquires the lease loads the value and fills the cache; other nodes poll the cache
+ * until the value appears, the lease disappears, or the wait times out. If the holder gave up without filling,
+ * e.g. because its load failed, they compete for the lease again, so the next load is single-flight too; only
+ * once the wait times out do they load directly.
+ * While {@link RedisAvailability} reports Redis down no lease is taken and every node loads directly.
+ */
+public class RedisLoadLock {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisLoadLock.class);
+
+    private static final String LOCK_PREFIX = "lock:";
+
+    /**
+     * Delete the lock only if it is still held by the caller's token
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisAvailability availability;
+    private final Duration leaseTime;
+    private final Duration waitTimeout;
+    private final Duration pollInterval;
+
+    public RedisLoadLock(
+            StringRedisTemplate redisTemplate,
+            Duration leaseTime,
+            Duration waitTimeout,
+            Duration pollInterval) {
+        this(redisTemplate, null, leaseTime, waitTimeout, pollInterval);
+    }
+
+    /**
+     * @param availability whether Redis is reachable, or null to always try it
+     */
+    public RedisLoadLock(
+            StringRedisTemplate redisTemplate,
+            RedisAvailability availability,
+            Duration leaseTime,
+            Duration waitTimeout,
+            Duration pollInterval) {
+        this.redisTemplate = redisTemplate;
+        this.availability = availability;
+        this.leaseTime = leaseTime;
+        this.waitTimeout = waitTimeout;
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Whether leases can be taken; false while Redis is known to be down
+     */
+    public boolean isAvailable() {
+        return availability == null || availability.isUp();
+    }
+
+    /**
+     * Try to acquire the lease for a cache key
+     *
+     * @param key cache key the value is loaded for
+     * @return token identifying the lease, or null if another node holds it
+     * @throws DataAccessException if Redis cannot be reached
+     */
+    public String tryAcquire(String key) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LOCK_PREFIX + key, token, leaseTime);
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    /**
+     * Release a lease acquired with {@link #tryAcquire(String)}; a lease that already expired is left alone
+     */
+    public void release(String key, String token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(LOCK_PREFIX + key), token);
+        } catch (DataAccessException e) {
+            logger.warn("Failed to release load lock for {}, it will expire on its own: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * The deadline, in {@link System#nanoTime()} terms, of a wait for lease holders starting now
+     */
+    public long waitDeadline() {
+        return System.nanoTime() + waitTimeout.toNanos();
+    }
+
+    /**
+     * Wait for the lease holder to fill the cache
+     *
+     * @param key    cache key the value is loaded for
+     * @param lookup cache lookup for the key
+     * @return the filled value, or null if the wait timed out or the holder released the lease without filling
+     */
+    public ValueWrapper awaitFill(String key, Supplier<ValueWrapper> lookup) {
+        return awaitFill(key, lookup, waitDeadline());
+    }
+
+    /**
+     * Wait for the lease holder to fill the cache, until the given deadline
+     *
+     * @param key      cache key the value is loaded for
+     * @param lookup   cache lookup for the key
+     * @param deadline {@link System#nanoTime()} after which to stop waiting, see {@link #waitDeadline()}
+     * @return the filled value, or null if the wait timed out or the holder released the lease without filling
+     */
+    public ValueWrapper awaitFill(String key, Supplier<ValueWrapper> lookup, long deadline) {
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(pollInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+
+            ValueWrapper filled = lookup.get();
+            if (filled != null) {
+                return filled;
+            }
+            if (!isHeld(key)) {
+                // Holder gave up (e.g. the load failed); one last look in case the fill raced the release
+                return lookup.get();
+            }
+        }
+        return null;
+    }
+
+    private boolean isHeld(String key) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(LOCK_PREFIX + key));
+        } catch (DataAccessException e) {
+            logger.warn("Failed to check load lock for {}: {}", key, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package miller.kyle.github_user_proxy.cache;
+
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Reads many keys in as few round trips as the Redis topology allows.
+ * <p>
+ * Against a single node or a Sentinel-managed primary, all keys go in one {@code MGET}. In Redis Cluster a
+ * command may only touch keys of one hash slot, and cache keys such as {@code github-user-profiles::alice} carry
+ * no hash tag, so nearly every key has a slot of its own. Here each key is read with its own {@code GET}, all
+ * sent at once over Lettuce's asynchronous cluster connection: Lettuce routes each {@code GET} to the node that
+ * owns its slot (a replica if {@code github.cache.redis.read-from} says so) and writes it without waiting for
+ * earlier replies, so the reads bound for one node are pipelined over that node's connection and the whole
+ * batch costs about one round trip per node, without a thread per key.
+ */
+public class RedisMultiGet {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final boolean clustered;
+    private final Duration timeout;
+
+    /**
+     * @param clustered whether the connection factory talks to a Redis Cluster through Lettuce
+     * @param timeout   how long to wait for all replies of a clustered read
+     */
+    public RedisMultiGet(RedisConnectionFactory connectionFactory, boolean clustered, Duration timeout) {
+        this.connectionFactory = connectionFactory;
+        this.clustered = clustered;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Read the values of the given keys
+     *
+     * @param keys serialized keys
+     * @return serialized values in the order of the keys, null for missing keys
+     * @throws org.springframework.dao.DataAccessException if Redis cannot be reached
+     */
+    public List<byte[]> get(List<byte[]> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        if (!clustered) {
+            return mget(keys.toArray(byte[][]::new));
+        }
+        try (RedisClusterConnection connection = connectionFactory.getClusterConnection()) {
+            @SuppressWarnings("unchecked")
+            RedisClusterAsyncCommands<byte[], byte[]> commands =
+                    (RedisClusterAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+            List<CompletableFuture<byte[]>> reads = new ArrayList<>(keys.size());
+            for (byte[] key : keys) {
+                reads.add(commands.get(key).toCompletableFuture());
+            }
+            await(CompletableFuture.allOf(reads.toArray(CompletableFuture[]::new)));
+            return reads.stream().map(CompletableFuture::join).toList();
+        }
+    }
+
+    private List<byte[]> mget(byte[][] keys) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            List<byte[]> values = connection.stringCommands().mGet(keys);
+            return values != null ? values : Arrays.asList(new byte[keys.length][]);
+        }
+    }
+
+    private void await(CompletableFuture<Void> reads) {
+        try {
+            reads.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new RedisSystemException("Failed to read keys from Redis", e.getCause());
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Redis did not answer within " + timeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisSystemException("Interrupted while reading keys from Redis", e);
+        }
+    }
+}
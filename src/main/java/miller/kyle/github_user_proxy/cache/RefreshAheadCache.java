@@ -0,0 +1,197 @@
+package miller.kyle.github_user_proxy.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import miller.kyle.github_user_proxy.exception.GitHubApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Cache decorator storing values as {@link CacheEntry}s with jittered expiry, and refreshing them early.
+ * <p>
+ * Used through {@code @Cacheable(sync = true)}: when a read hits an entry that the {@link RefreshAheadPolicy}
+ * considers due, the value loader runs in the background and replaces the entry, while this and every other
+ * caller is served the current value. At most one early refresh per key runs on a node at a time. Misses go
+ * to the decorated cache as usual, so they stay coalesced.
+ * <p>
+ * An entry read after its expiry (but within the policy's stale grace period) is reloaded through the decorated
+ * cache, which must treat expired entries as misses (a {@link CoalescingCache} with
+ * {@link RefreshAheadPolicy#isCurrent}), so the reload is coalesced on this node and leased across nodes like
+ * any other miss. Only if GitHub fails or the circuit breaker is open are the callers served the expired value
+ * instead, and it is reported via {@link StaleResponse}. Reads through a value loader report the expiry of the
+ * value served via {@link ResponseExpiry}, and its entity tag via {@link ResponseTag}.
+ * <p>
+ * Publishes {@code cache.early.refreshes} and {@code cache.stale.served} counters tagged by cache.
+ */
+public class RefreshAheadCache extends DelegatingCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshAheadCache.class);
+
+    private final RefreshAheadPolicy policy;
+    private final Executor refreshExecutor;
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+    private final Counter earlyRefreshes;
+    private final Counter staleServed;
+
+    public RefreshAheadCache(
+            Cache delegate,
+            RefreshAheadPolicy policy,
+            Executor refreshExecutor,
+            MeterRegistry meterRegistry) {
+        super(delegate);
+        this.policy = policy;
+        this.refreshExecutor = refreshExecutor;
+        this.earlyRefreshes = Counter.builder("cache.early.refreshes")
+                .description("Entries refreshed in the background ahead of their expiry")
+                .tag("cache", delegate.getName())
+                .register(meterRegistry);
+        this.staleServed = Counter.builder("cache.stale.served")
+                .description("Reads served an expired entry because GitHub failed to reload it")
+                .tag("cache", delegate.getName())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper cached = super.get(key);
+        return cached != null ? new SimpleValueWrapper(unwrap(cached.get())) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper cached = get(key);
+        Object value = cached != null ? cached.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = super.get(key);
+        if (cached != null && cached.get() instanceof CacheEntry entry) {
+            if (policy.isExpired(entry)) {
+                return (T) reloadOrServeStale(key, entry, valueLoader);
+            }
+            if (policy.shouldRefreshEarly(entry)) {
+                refreshInBackground(key, valueLoader);
+            }
+            served(entry);
+            return (T) entry.getValue();
+        }
+
+        Object loaded = super.get(key, () -> load(valueLoader));
+        if (loaded instanceof CacheEntry entry) {
+            served(entry);
+        }
+        return (T) unwrap(loaded);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        super.put(key, wrap(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, wrap(value));
+        return existing != null ? new SimpleValueWrapper(unwrap(existing.get())) : null;
+    }
+
+    private void refreshInBackground(Object key, Callable<?> valueLoader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        logger.debug("Refreshing {} ahead of expiry", key);
+        earlyRefreshes.increment();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    CacheEntry entry = load(valueLoader);
+                    if (entry != null) {
+                        getDelegate().put(key, entry);
+                    }
+                } catch (Exception e) {
+                    logger.warn("Early refresh of {} failed, keeping the current value: {}", key, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+            logger.warn("Could not schedule early refresh of {}: {}", key, e.getMessage());
+        }
+    }
+
+    private Object reloadOrServeStale(Object key, CacheEntry stale, Callable<?> valueLoader) {
+        Object loaded;
+        try {
+            loaded = super.get(key, () -> load(valueLoader));
+        } catch (RuntimeException e) {
+            if (!isUpstreamFailure(e)) {
+                throw e;
+            }
+            logger.warn("Reloading {} failed, serving the expired value: {}", key, e.getMessage());
+            return serveStale(key, stale);
+        }
+        if (loaded instanceof CacheEntry entry) {
+            served(entry);
+        }
+        return unwrap(loaded);
+    }
+
+    private Object serveStale(Object key, CacheEntry stale) {
+        logger.debug("Serving expired value for {}", key);
+        staleServed.increment();
+        StaleResponse.record(policy.age(stale));
+        served(stale);
+        return stale.getValue();
+    }
+
+    private void served(CacheEntry entry) {
+        ResponseExpiry.record(entry.getExpiresAt());
+        ResponseTag.record(getName(), policy.entityTag(entry));
+    }
+
+    /**
+     * Whether a load failed because of GitHub rather than because of the request, e.g. an unknown user. An open
+     * circuit breaker's {@code CircuitOpenException} is a GitHub failure too.
+     */
+    private static boolean isUpstreamFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof GitHubApiException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CacheEntry load(Callable<?> valueLoader) throws Exception {
+        long start = System.nanoTime();
+        Object value = valueLoader.call();
+        long computeMillis = (System.nanoTime() - start) / 1_000_000;
+        return value != null ? policy.newEntry(value, computeMillis) : null;
+    }
+
+    private Object wrap(Object value) {
+        return value == null || value instanceof CacheEntry ? value : policy.newEntry(value, 0);
+    }
+
+    /**
+     * Values written before entries were introduced are returned as they are
+     */
+    private static Object unwrap(Object value) {
+        return value instanceof CacheEntry entry ? entry.getValue() : value;
+    }
+}
@@ -0,0 +1,143 @@
+package miller.kyle.github_user_proxy.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Expiry and early-refresh policy for cached entries.
+ * <p>
+ * Each entry's time to live is shortened by a random fraction of up to {@code jitter}, so entries written
+ * together (after a deploy or a warm-up burst) do not all expire together. Reads then decide independently
+ * whether to refresh an entry early using XFetch: an entry is due when
+ * {@code now - computeTime * beta * ln(random) >= expiresAt}, which becomes likely only close to expiry,
+ * and earlier for values that are slow to compute.
+ * <p>
+ * Expired entries are kept for a further {@code staleGrace}, so they can still be served if the upstream
+ * fails when they are reloaded.
+ * <p>
+ * With {@link #withEntityTags}, each entry also stores an entity tag of its value, computed once when the
+ * entry is created, so responses assembled from entries can be tagged without hashing their body.
+ */
+public class RefreshAheadPolicy {
+
+    private final Duration ttl;
+    private final double jitter;
+    private final double beta;
+    private final Duration staleGrace;
+    private final Clock clock;
+    private final Function<Object, String> entityTags;
+
+    /**
+     * @param ttl        nominal time to live of an entry
+     * @param jitter     largest fraction of the time to live taken off at random, e.g. 0.1 for up to 10%
+     * @param beta       XFetch eagerness; 1.0 is the usual choice, higher refreshes earlier, 0 disables it
+     * @param staleGrace how long an entry is kept after it expires, to be served if reloading it fails
+     */
+    public RefreshAheadPolicy(Duration ttl, double jitter, double beta, Duration staleGrace) {
+        this(ttl, jitter, beta, staleGrace, Clock.systemUTC());
+    }
+
+    RefreshAheadPolicy(Duration ttl, double jitter, double beta, Duration staleGrace, Clock clock) {
+        this(ttl, jitter, beta, staleGrace, clock, null);
+    }
+
+    private RefreshAheadPolicy(
+            Duration ttl,
+            double jitter,
+            double beta,
+            Duration staleGrace,
+            Clock clock,
+            Function<Object, String> entityTags) {
+        this.ttl = ttl;
+        this.jitter = jitter;
+        this.beta = beta;
+        this.staleGrace = staleGrace;
+        this.clock = clock;
+        this.entityTags = entityTags;
+    }
+
+    /**
+     * The same policy for entries with a different nominal time to live
+     */
+    public RefreshAheadPolicy withTtl(Duration ttl) {
+        return new RefreshAheadPolicy(ttl, jitter, beta, staleGrace, clock, entityTags);
+    }
+
+    /**
+     * The same policy, storing an entity tag with each new entry
+     *
+     * @param entityTags tag of a value, changing whenever its representation does
+     */
+    public RefreshAheadPolicy withEntityTags(Function<Object, String> entityTags) {
+        return new RefreshAheadPolicy(ttl, jitter, beta, staleGrace, clock, entityTags);
+    }
+
+    /**
+     * Wrap a freshly computed value in an entry with a jittered expiry
+     *
+     * @param value         the value
+     * @param computeMillis how long computing the value took
+     */
+    public CacheEntry newEntry(Object value, long computeMillis) {
+        long now = clock.millis();
+        long ttlMillis = ttl.toMillis();
+        long jittered = ttlMillis - (long) (ttlMillis * jitter * ThreadLocalRandom.current().nextDouble());
+        String etag = entityTags != null ? entityTags.apply(value) : null;
+        return new CacheEntry(value, now, now + jittered, computeMillis, etag);
+    }
+
+    /**
+     * The entity tag of an entry's value: the one stored with it, or computed now for an entry written without
+     * one. Null if this policy does not tag entries.
+     */
+    public String entityTag(CacheEntry entry) {
+        if (entry.getEtag() != null || entityTags == null) {
+            return entry.getEtag();
+        }
+        return entityTags.apply(entry.getValue());
+    }
+
+    /**
+     * Whether the entry is past its expiry and only kept to be served stale
+     */
+    public boolean isExpired(CacheEntry entry) {
+        return clock.millis() >= entry.getExpiresAt();
+    }
+
+    /**
+     * Whether a cached value can be served as it is: anything but an expired entry
+     */
+    public boolean isCurrent(Object cached) {
+        return !(cached instanceof CacheEntry entry && isExpired(entry));
+    }
+
+    /**
+     * How long ago the entry's value was computed
+     */
+    public Duration age(CacheEntry entry) {
+        return Duration.ofMillis(Math.max(0, clock.millis() - entry.getCreatedAt()));
+    }
+
+    /**
+     * Decide whether this read should refresh the entry ahead of its expiry
+     */
+    public boolean shouldRefreshEarly(CacheEntry entry) {
+        // 1 - nextDouble() is in (0, 1], keeping the logarithm finite
+        double random = 1 - ThreadLocalRandom.current().nextDouble();
+        double headStart = -entry.getComputeMillis() * beta * Math.log(random);
+        return clock.millis() + headStart >= entry.getExpiresAt();
+    }
+
+    /**
+     * How long to keep a value about to be stored: until its expiry plus the stale grace period.
+     * Usable as a Redis cache TTL function.
+     */
+    public Duration timeToLive(Object key, Object value) {
+        if (value instanceof CacheEntry entry) {
+            return Duration.ofMillis(Math.max(1, entry.getExpiresAt() - clock.millis())).plus(staleGrace);
+        }
+        return ttl;
+    }
+}
@@ -0,0 +1,54 @@
+package miller.kyle.github_user_proxy.cache;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Tells the web layer when the cached values the response to the current request was assembled from expire,
+ * so clients and shared caches can be allowed to keep the response until then.
+ * <p>
+ * Kept as a request attribute on the servlet stack. A response assembled from several cached values reports
+ * the earliest expiry, which is already past if one of them was served stale.
+ */
+public final class ResponseExpiry {
+
+    private static final String EXPIRES_AT_ATTRIBUTE = ResponseExpiry.class.getName() + ".expiresAt";
+
+    private ResponseExpiry() {
+    }
+
+    /**
+     * Record that the current servlet request is being served a value expiring at the given time.
+     * Does nothing outside a request, e.g. in a background refresh.
+     *
+     * @param expiresAt epoch millis when the value expires
+     */
+    public static void record(long expiresAt) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        // Parts of one response may be looked up on different threads
+        synchronized (attributes) {
+            Long recorded = (Long) attributes.getAttribute(EXPIRES_AT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (recorded == null || expiresAt < recorded) {
+                attributes.setAttribute(EXPIRES_AT_ATTRIBUTE, expiresAt, RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+    }
+
+    /**
+     * Earliest expiry of the cached values served to the current servlet request, if any were
+     */
+    public static Optional<Instant> expiresAt() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.empty();
+        }
+        Long expiresAt = (Long) attributes.getAttribute(EXPIRES_AT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return Optional.ofNullable(expiresAt).map(Instant::ofEpochMilli);
+    }
+}
@@ -0,0 +1,72 @@
+package miller.kyle.github_user_proxy.cache;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Tells the web layer the entity tags of the cached values the response to the current request was assembled
+ * from, so it can tag the response without hashing its body.
+ * <p>
+ * Kept as a request attribute on the servlet stack, one tag per cache.
+ */
+public final class ResponseTag {
+
+    private static final String TAGS_ATTRIBUTE = ResponseTag.class.getName() + ".tags";
+
+    private ResponseTag() {
+    }
+
+    /**
+     * Record that the current servlet request is being served a value with the given tag from the given cache.
+     * Does nothing outside a request, e.g. in a background refresh, or without a tag.
+     */
+    @SuppressWarnings("unchecked")
+    public static void record(String cacheName, String etag) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null || etag == null) {
+            return;
+        }
+        // Parts of one response may be looked up on different threads
+        synchronized (attributes) {
+            Map<String, String> tags =
+                    (Map<String, String>) attributes.getAttribute(TAGS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (tags == null) {
+                tags = new HashMap<>();
+                attributes.setAttribute(TAGS_ATTRIBUTE, tags, RequestAttributes.SCOPE_REQUEST);
+            }
+            tags.put(cacheName, etag);
+        }
+    }
+
+    /**
+     * Tag of a response assembled from values of the given caches: their tags in that order, or empty unless
+     * the current servlet request was served a tagged value from each of them
+     */
+    @SuppressWarnings("unchecked")
+    public static Optional<String> etag(String... cacheNames) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.empty();
+        }
+        synchronized (attributes) {
+            Map<String, String> tags =
+                    (Map<String, String>) attributes.getAttribute(TAGS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (tags == null) {
+                return Optional.empty();
+            }
+            StringBuilder etag = new StringBuilder();
+            for (String cacheName : cacheNames) {
+                String tag = tags.get(cacheName);
+                if (tag == null) {
+                    return Optional.empty();
+                }
+                etag.append(tag);
+            }
+            return Optional.of(etag.toString());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package miller.kyle.github_user_proxy.cache;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tells the web layer that the response to the current request was served from an expired cache entry,
+ * and how old that entry is.
+ * <p>
+ * On the servlet stack the age is kept as a request attribute; on the reactive stack the controller
+ * subscribes with a holder in the Reactor context (see {@link #capture}). A response assembled from several
+ * cached values reports the oldest stale one.
+ */
+public final class StaleResponse {
+
+    private static final String AGE_ATTRIBUTE = StaleResponse.class.getName() + ".age";
+
+    private StaleResponse() {
+    }
+
+    /**
+     * Record that the current servlet request is being served a stale value of the given age.
+     * Does nothing outside a request, e.g. in a background refresh.
+     */
+    public static void record(Duration age) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        // Parts of one response may be looked up on different threads
+        synchronized (attributes) {
+            Duration recorded = (Duration) attributes.getAttribute(AGE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (recorded == null || age.compareTo(recorded) > 0) {
+                attributes.setAttribute(AGE_ATTRIBUTE, age, RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+    }
+
+    /**
+     * Age of the stale value served to the current servlet request, if one was
+     */
+    public static Optional<Duration> age() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable((Duration) attributes.getAttribute(AGE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    /**
+     * Reactor context collecting the age of a stale value served to the subscriber into the given holder
+     */
+    public static Context capture(AtomicReference<Duration> age) {
+        return Context.of(StaleResponse.class, age);
+    }
+
+    /**
+     * Record that the subscriber with the given context is being served a stale value of the given age
+     */
+    public static void record(ContextView context, Duration age) {
+        context.<AtomicReference<Duration>>getOrEmpty(StaleResponse.class).ifPresent(holder -> holder.accumulateAndGet(
+                age, (recorded, served) -> recorded == null || served.compareTo(recorded) > 0 ? served : recorded));
+    }
+}
@@ -0,0 +1,166 @@
+package miller.kyle.github_user_proxy.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Cache decorator adding a bounded in-process tier (L1) in front of a shared cache (L2, Redis).
+ * <p>
+ * Reads are served from L1 when possible and fill it from L2 otherwise, so hot keys are answered without
+ * a network round trip or deserialization. L1 evicts by size and by its own time to live, independent of
+ * L2's. Writes and evictions go to both tiers and are published on the {@link CacheInvalidationBus} so
+ * other nodes drop their L1 copy. Keys are expected to be strings, as they travel over pub/sub as text.
+ * <p>
+ * Publishes {@code cache.tier.gets} counters tagged by cache, tier ({@code l1}/{@code l2}) and result
+ * ({@code hit}/{@code miss}).
+ */
+public class TwoTierCache extends DelegatingCache implements CacheInvalidationBus.LocalTier {
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+    private final CacheInvalidationBus invalidationBus;
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+
+    public TwoTierCache(
+            Cache delegate,
+            MeterRegistry meterRegistry,
+            CacheInvalidationBus invalidationBus,
+            long maxSize,
+            Duration ttl) {
+        super(delegate);
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.invalidationBus = invalidationBus;
+        this.localHits = gets(meterRegistry, delegate.getName(), "l1", "hit");
+        this.localMisses = gets(meterRegistry, delegate.getName(), "l1", "miss");
+        this.remoteHits = gets(meterRegistry, delegate.getName(), "l2", "hit");
+        this.remoteMisses = gets(meterRegistry, delegate.getName(), "l2", "miss");
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            localHits.increment();
+            return new SimpleValueWrapper(value);
+        }
+        localMisses.increment();
+
+        ValueWrapper cached = super.get(key);
+        if (cached != null && cached.get() != null) {
+            remoteHits.increment();
+            local.put(key, cached.get());
+        } else {
+            remoteMisses.increment();
+        }
+        return cached;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper cached = get(key);
+        Object value = cached != null ? cached.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        T value = super.get(key, valueLoader);
+        if (value != null) {
+            local.put(key, value);
+            invalidationBus.publishEvict(getName(), key);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        super.put(key, value);
+        if (value != null) {
+            local.put(key, value);
+        } else {
+            local.invalidate(key);
+        }
+        invalidationBus.publishEvict(getName(), key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, value);
+        local.invalidate(key);
+        if (existing == null) {
+            invalidationBus.publishEvict(getName(), key);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        local.invalidate(key);
+        invalidationBus.publishEvict(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = super.evictIfPresent(key);
+        local.invalidate(key);
+        invalidationBus.publishEvict(getName(), key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        local.invalidateAll();
+        invalidationBus.publishClear(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = super.invalidate();
+        local.invalidateAll();
+        invalidationBus.publishClear(getName());
+        return invalidated;
+    }
+
+    @Override
+    public void evictLocal(Object key) {
+        local.invalidate(key);
+    }
+
+    @Override
+    public void clearLocal() {
+        local.invalidateAll();
+    }
+
+    private static Counter gets(MeterRegistry meterRegistry, String cacheName, String tier, String result) {
+        return Counter.builder("cache.tier.gets")
+                .description("Cache lookups by tier and result")
+                .tag("cache", cacheName)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,229 @@
+package miller.kyle.github_user_proxy.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import miller.kyle.github_user_proxy.exception.CircuitOpenException;
+import miller.kyle.github_user_proxy.exception.GitHubApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Circuit breaker around upstream GitHub calls.
+ * <p>
+ * Tracks the outcome of the last {@code github.api.circuit-breaker.window-size} calls. Once at least
+ * {@code minimum-calls} have been seen and the share of upstream failures (5xx, rate limiting, I/O errors and
+ * timeouts; see {@link #isUpstreamFailure}) reaches {@code failure-rate-threshold}, the circuit opens and calls
+ * fail fast with {@link CircuitOpenException} for {@code open-duration}. After that a single trial call is let
+ * through: success closes the circuit, failure opens it again.
+ * <p>
+ * Publishes {@code github.circuit.state} (0 closed, 1 open, 2 half open) and {@code github.circuit.rejected}.
+ */
+@Component
+public class GitHubCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(GitHubCircuitBreaker.class);
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean enabled;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final Duration openDuration;
+    private final Clock clock;
+    private final Counter rejected;
+
+    /**
+     * Ring buffer of recent outcomes, true for a failure
+     */
+    private final boolean[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private long trialStartedAt = -1;
+
+    @Autowired
+    public GitHubCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${github.api.circuit-breaker.enabled}") boolean enabled,
+            @Value("${github.api.circuit-breaker.failure-rate-threshold}") double failureRateThreshold,
+            @Value("${github.api.circuit-breaker.window-size}") int windowSize,
+            @Value("${github.api.circuit-breaker.minimum-calls}") int minimumCalls,
+            @Value("${github.api.circuit-breaker.open-duration}") Duration openDuration) {
+        this(meterRegistry, enabled, failureRateThreshold, windowSize, minimumCalls, openDuration, Clock.systemUTC());
+    }
+
+    GitHubCircuitBreaker(
+            MeterRegistry meterRegistry,
+            boolean enabled,
+            double failureRateThreshold,
+            int windowSize,
+            int minimumCalls,
+            Duration openDuration,
+            Clock clock) {
+        this.enabled = enabled;
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openDuration = openDuration;
+        this.clock = clock;
+        this.outcomes = new boolean[windowSize];
+        this.rejected = Counter.builder("github.circuit.rejected")
+                .description("GitHub calls short-circuited while the circuit was open")
+                .register(meterRegistry);
+        Gauge.builder("github.circuit.state", this, breaker -> breaker.state().ordinal())
+                .description("GitHub circuit breaker state: 0 closed, 1 open, 2 half open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run an upstream call through the breaker
+     *
+     * @param call      the call
+     * @param isFailure which exceptions of the call count as upstream failures; others count as successes
+     * @throws CircuitOpenException while the circuit is open
+     * @throws RuntimeException     the call's own exception, unchanged
+     */
+    public <T> T call(Callable<T> call, Predicate<Throwable> isFailure) {
+        if (!tryAcquirePermission()) {
+            throw new CircuitOpenException();
+        }
+        try {
+            T result = call.call();
+            onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            record(isFailure.test(e));
+            throw e;
+        } catch (Exception e) {
+            record(isFailure.test(e));
+            throw new GitHubApiException("Failed to fetch data from GitHub", e);
+        }
+    }
+
+    /**
+     * Ask to make a call; a caller granted permission must report the outcome with {@link #onSuccess} or
+     * {@link #onFailure}
+     *
+     * @return false while the circuit is open
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (!enabled) {
+            return true;
+        }
+        long now = clock.millis();
+        if (state == State.OPEN && now - openedAt >= openDuration.toMillis()) {
+            logger.info("GitHub circuit half open, sending a trial call");
+            state = State.HALF_OPEN;
+            trialStartedAt = -1;
+        }
+        if (state == State.HALF_OPEN) {
+            // A trial that never reported back (e.g. cancelled) does not keep the circuit half open forever
+            if (trialStartedAt < 0 || now - trialStartedAt >= openDuration.toMillis()) {
+                trialStartedAt = now;
+                return true;
+            }
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void onSuccess() {
+        record(false);
+    }
+
+    public void onFailure() {
+        record(true);
+    }
+
+    /**
+     * Whether an exception thrown by a RestTemplate or WebClient call means GitHub itself is failing, as
+     * opposed to an answer about the request such as 404 Not Found
+     */
+    public static boolean isUpstreamFailure(Throwable e) {
+        if (e instanceof HttpServerErrorException
+                || e instanceof HttpClientErrorException.Forbidden
+                || e instanceof HttpClientErrorException.TooManyRequests
+                || e instanceof ResourceAccessException
+                || e instanceof WebClientRequestException
+                || e instanceof TimeoutException) {
+            return true;
+        }
+        if (e instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status >= 500 || status == 403 || status == 429;
+        }
+        return false;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private synchronized void record(boolean failure) {
+        if (!enabled) {
+            return;
+        }
+        switch (state) {
+            case HALF_OPEN -> {
+                if (failure) {
+                    logger.warn("GitHub trial call failed, circuit open for another {}", openDuration);
+                    open();
+                } else {
+                    logger.info("GitHub circuit closed");
+                    state = State.CLOSED;
+                    resetWindow();
+                }
+            }
+            case CLOSED -> {
+                if (recorded == outcomes.length && outcomes[next]) {
+                    failures--;
+                }
+                outcomes[next] = failure;
+                next = (next + 1) % outcomes.length;
+                recorded = Math.min(recorded + 1, outcomes.length);
+                if (failure) {
+                    failures++;
+                }
+                if (recorded >= minimumCalls && failures >= failureRateThreshold * recorded) {
+                    logger.warn("GitHub circuit open for {} after {} failures in {} calls",
+                            openDuration, failures, recorded);
+                    open();
+                }
+            }
+            case OPEN -> {
+                // Outcome of a call that started before the circuit opened
+            }
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.millis();
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,322 @@
+package miller.kyle.github_user_proxy.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import miller.kyle.github_user_proxy.dto.GitHubUserResponse;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+import miller.kyle.github_user_proxy.exception.GitHubApiException;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Client for interacting with GitHub's GraphQL API
+ * <p>
+ * One query returns a user's profile together with the first page of their repositories, so
+ * {@link #getUser} and {@link #getUserRepos} for the same login share a single upstream call. Lookups for
+ * different users that arrive within {@code github.api.graphql.batch.window} of each other are sent as one
+ * aliased query, with as many users per query as fit in {@code github.api.graphql.batch.max-nodes}.
+ * Logins are resolved with {@code repositoryOwner}, so organizations are found as the REST API's
+ * {@code /users/{login}} finds them. Queries go through the {@link GitHubCircuitBreaker}.
+ */
+@Component
+@ConditionalOnProperty(name = "github.api.mode", havingValue = "graphql")
+public class GraphQlGitHubApiClient implements GitHubApiClient {
+
+    static final int REPOS_PER_PAGE = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphQlGitHubApiClient.class);
+
+    /**
+     * Only public repositories, as the REST API lists them: the token owner's private ones must not reach the
+     * shared cache and be served to anonymous callers
+     */
+    private static final String REPO_FILTER =
+            "privacy: PUBLIC, ownerAffiliations: OWNER, orderBy: {field: NAME, direction: ASC}";
+    private static final String REPO_PAGE = "pageInfo { hasNextPage endCursor } nodes { name nameWithOwner }";
+
+    /**
+     * Profile fields live on the concrete owner types; the login, avatar and repositories on the shared interface
+     */
+    static final String OWNER_FRAGMENT = "fragment OwnerFields on RepositoryOwner { login avatarUrl "
+            + "repositories(first: " + REPOS_PER_PAGE + ", " + REPO_FILTER + ") { " + REPO_PAGE + " } "
+            + "... on User { name location email createdAt } "
+            + "... on Organization { name location email createdAt } }";
+
+    static final String REPOS_QUERY = "query($login: String!, $after: String) { repositoryOwner(login: $login) { "
+            + "repositories(first: " + REPOS_PER_PAGE + ", after: $after, " + REPO_FILTER + ") { "
+            + REPO_PAGE + " } } }";
+
+    private final RestTemplate restTemplate;
+    private final ExecutorService githubExecutor;
+    private final GitHubCircuitBreaker circuitBreaker;
+    private final String githubApiBaseUrl;
+    private final String token;
+    private final int maxRepos;
+    private final Duration batchWindow;
+    private final int maxUsersPerQuery;
+
+    private final Object batchLock = new Object();
+    // Guarded by batchLock: lookups queued or sent but not yet answered, and the batch still accepting users
+    private final Map<String, CompletableFuture<JsonNode>> inFlight = new HashMap<>();
+    private Map<String, CompletableFuture<JsonNode>> openBatch = new LinkedHashMap<>();
+
+    public GraphQlGitHubApiClient(
+            RestTemplate restTemplate,
+            ExecutorService githubExecutor,
+            GitHubCircuitBreaker circuitBreaker,
+            @Value("${github.api.base-url}") String githubApiBaseUrl,
+            @Value("${github.api.token}") String token,
+            @Value("${github.api.repos.max}") int maxRepos,
+            @Value("${github.api.graphql.batch.window}") Duration batchWindow,
+            @Value("${github.api.graphql.batch.max-nodes}") int maxNodes) {
+        this.restTemplate = restTemplate;
+        this.githubExecutor = githubExecutor;
+        this.circuitBreaker = circuitBreaker;
+        this.githubApiBaseUrl = githubApiBaseUrl;
+        this.token = token;
+        this.maxRepos = maxRepos;
+        this.batchWindow = batchWindow;
+        // Each user costs one node plus a full page of repositories
+        this.maxUsersPerQuery = Math.max(1, maxNodes / (1 + REPOS_PER_PAGE));
+    }
+
+    @Override
+    public GitHubUserResponse getUser(String username) {
+        JsonNode user = awaitUser(username);
+
+        GitHubUserResponse response = new GitHubUserResponse();
+        response.setLogin(user.path("login").asText(null));
+        response.setName(user.path("name").asText(null));
+        response.setAvatarUrl(user.path("avatarUrl").asText(null));
+        response.setLocation(user.path("location").asText(null));
+        // GraphQL reports a private email as an empty string where REST reports null
+        String email = user.path("email").asText(null);
+        response.setEmail(email == null || email.isEmpty() ? null : email);
+        response.setUrl(githubApiBaseUrl + "/users/" + response.getLogin());
+        response.setCreatedAt(user.path("createdAt").asText(null));
+        return response;
+    }
+
+    @Override
+    public List<RepoInfo> getUserRepos(String username) {
+        JsonNode repositories = awaitUser(username).path("repositories");
+        List<RepoInfo> repos = new ArrayList<>();
+        addRepos(repos, repositories);
+
+        // Further pages are cursor-based, so they have to be fetched one after another
+        while (repos.size() < maxRepos && repositories.path("pageInfo").path("hasNextPage").asBoolean()) {
+            repositories = fetchRepoPage(username, repositories.path("pageInfo").path("endCursor").asText());
+            addRepos(repos, repositories);
+        }
+        if (repos.size() > maxRepos) {
+            logger.warn("User {} has more than {} repositories, truncating", username, maxRepos);
+            repos = new ArrayList<>(repos.subList(0, maxRepos));
+        }
+
+        logger.debug("Successfully fetched {} repositories for user: {}", repos.size(), username);
+        return repos;
+    }
+
+    private void addRepos(List<RepoInfo> repos, JsonNode repositories) {
+        for (JsonNode repo : repositories.path("nodes")) {
+            repos.add(new RepoInfo(
+                    repo.path("name").asText(),
+                    githubApiBaseUrl + "/repos/" + repo.path("nameWithOwner").asText()));
+        }
+    }
+
+    private JsonNode fetchRepoPage(String username, String cursor) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("login", username);
+        variables.put("after", cursor);
+
+        JsonNode result = query(REPOS_QUERY, variables);
+        JsonNode owner = result.path("data").path("repositoryOwner");
+        if (!owner.isObject()) {
+            throw aliasError(result, "repositoryOwner", username);
+        }
+        return owner.path("repositories");
+    }
+
+    /**
+     * Wait for the user's entry in the batch the lookup joined, rethrowing its original exception
+     */
+    private JsonNode awaitUser(String login) {
+        CompletableFuture<JsonNode> user = enqueue(login);
+        try {
+            return user.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new GitHubApiException("Failed to fetch user data from GitHub", e.getCause());
+        } catch (InterruptedException e) {
+            // Other callers may be waiting on the same lookup, so it is left running
+            Thread.currentThread().interrupt();
+            throw new GitHubApiException("Interrupted while fetching data from GitHub", e);
+        }
+    }
+
+    /**
+     * Join the pending lookup for a login, or add the login to the open batch.
+     * The first login in a batch starts its window; a batch that fills up is sent straight away.
+     */
+    private CompletableFuture<JsonNode> enqueue(String login) {
+        Map<String, CompletableFuture<JsonNode>> fullBatch = null;
+        CompletableFuture<JsonNode> user;
+        synchronized (batchLock) {
+            user = inFlight.get(login);
+            if (user != null) {
+                return user;
+            }
+            user = new CompletableFuture<>();
+            inFlight.put(login, user);
+
+            if (openBatch.isEmpty()) {
+                Map<String, CompletableFuture<JsonNode>> batch = openBatch;
+                githubExecutor.execute(() -> sendAfterWindow(batch));
+            }
+            openBatch.put(login, user);
+            if (openBatch.size() >= maxUsersPerQuery) {
+                fullBatch = openBatch;
+                openBatch = new LinkedHashMap<>();
+            }
+        }
+
+        if (fullBatch != null) {
+            Map<String, CompletableFuture<JsonNode>> batch = fullBatch;
+            githubExecutor.execute(() -> send(batch));
+        }
+        return user;
+    }
+
+    private void sendAfterWindow(Map<String, CompletableFuture<JsonNode>> batch) {
+        try {
+            Thread.sleep(batchWindow);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (batchLock) {
+            if (openBatch != batch) {
+                // Filled up and already sent
+                return;
+            }
+            openBatch = new LinkedHashMap<>();
+        }
+        send(batch);
+    }
+
+    /**
+     * Fetch every user in the batch with one aliased query and complete their lookups
+     */
+    private void send(Map<String, CompletableFuture<JsonNode>> batch) {
+        List<String> logins = new ArrayList<>(batch.keySet());
+        try {
+            StringBuilder declarations = new StringBuilder();
+            StringBuilder selections = new StringBuilder();
+            Map<String, Object> variables = new LinkedHashMap<>();
+            for (int i = 0; i < logins.size(); i++) {
+                declarations.append(i == 0 ? "" : ", ").append("$l").append(i).append(": String!");
+                selections.append(" u").append(i).append(": repositoryOwner(login: $l").append(i)
+                        .append(") { ...OwnerFields }");
+                variables.put("l" + i, logins.get(i));
+            }
+            String query = "query(" + declarations + ") {" + selections + " } " + OWNER_FRAGMENT;
+
+            logger.debug("Fetching {} users from GitHub GraphQL API", logins.size());
+            JsonNode result = query(query, variables);
+            for (int i = 0; i < logins.size(); i++) {
+                JsonNode user = result.path("data").path("u" + i);
+                if (user.isObject()) {
+                    batch.get(logins.get(i)).complete(user);
+                } else {
+                    batch.get(logins.get(i)).completeExceptionally(aliasError(result, "u" + i, logins.get(i)));
+                }
+            }
+        } catch (RuntimeException e) {
+            batch.values().forEach(user -> user.completeExceptionally(e));
+        } finally {
+            synchronized (batchLock) {
+                batch.forEach(inFlight::remove);
+            }
+        }
+    }
+
+    /**
+     * Post a GraphQL query
+     *
+     * @return the response document; its {@code data} may still be partial, with per-field {@code errors}
+     * @throws GitHubApiException if the request failed or GitHub returned no data at all
+     */
+    private JsonNode query(String query, Map<String, Object> variables) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (token != null && !token.isBlank()) {
+            headers.setBearerAuth(token);
+        }
+        Map<String, Object> body = Map.of("query", query, "variables", variables);
+
+        try {
+            JsonNode result = circuitBreaker.call(() -> restTemplate.postForObject(
+                    githubApiBaseUrl + "/graphql",
+                    new HttpEntity<>(body, headers),
+                    JsonNode.class), GitHubCircuitBreaker::isUpstreamFailure);
+            if (result == null || !result.path("data").isObject()) {
+                String message = result == null
+                        ? "empty response"
+                        : result.path("errors").path(0).path("message").asText();
+                throw new GitHubApiException("GitHub API error: " + message);
+            }
+            return result;
+        } catch (GitHubApiException e) {
+            logger.error("GitHub GraphQL query failed: {}", e.getMessage());
+            throw e;
+        } catch (HttpClientErrorException e) {
+            logger.error("GitHub GraphQL API error: {} - {}", e.getStatusCode(), e.getMessage());
+            throw new GitHubApiException("GitHub API error: " + e.getStatusCode());
+        } catch (Exception e) {
+            logger.error("Error querying GitHub GraphQL API: {}", e.getMessage());
+            throw new GitHubApiException("Failed to fetch user data from GitHub", e);
+        }
+    }
+
+    /**
+     * Translate the error GitHub reported for one aliased field of a query. {@code repositoryOwner} answers an
+     * unknown login with null and no error.
+     */
+    private RuntimeException aliasError(JsonNode result, String alias, String login) {
+        for (JsonNode error : result.path("errors")) {
+            if (alias.equals(error.path("path").path(0).asText())) {
+                if ("NOT_FOUND".equals(error.path("type").asText())) {
+                    logger.warn("User not found: {}", login);
+                    return new UserNotFoundException(login);
+                }
+                logger.error("GitHub API error for user {}: {}", login, error.path("message").asText());
+                return new GitHubApiException("GitHub API error: " + error.path("message").asText());
+            }
+        }
+        if (result.path("data").has(alias)) {
+            logger.warn("User not found: {}", login);
+            return new UserNotFoundException(login);
+        }
+        return new GitHubApiException("Unexpected response from GitHub API");
+    }
+}
@@ -0,0 +1,199 @@
+package miller.kyle.github_user_proxy.client;
+
+import miller.kyle.github_user_proxy.dto.GitHubUserResponse;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+import miller.kyle.github_user_proxy.exception.CircuitOpenException;
+import miller.kyle.github_user_proxy.exception.GitHubApiException;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Non-blocking client for GitHub's REST API, used by the reactive serving stack.
+ * <p>
+ * Mirrors {@link RestGitHubApiClient}: the same pagination (first page, then the remaining pages
+ * concurrently), the same streaming repo extraction and the same exceptions, signalled through the
+ * returned {@link Mono} instead of thrown. Calls go through the same {@link GitHubCircuitBreaker}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGitHubApiClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveGitHubApiClient.class);
+
+    private final WebClient githubWebClient;
+    private final GitHubCircuitBreaker circuitBreaker;
+    private final int maxRepos;
+    private final int pageConcurrency;
+
+    public ReactiveGitHubApiClient(
+            WebClient githubWebClient,
+            GitHubCircuitBreaker circuitBreaker,
+            @Value("${github.api.repos.max}") int maxRepos,
+            @Value("${github.api.repos.page-concurrency}") int pageConcurrency) {
+        this.githubWebClient = githubWebClient;
+        this.circuitBreaker = circuitBreaker;
+        this.maxRepos = maxRepos;
+        this.pageConcurrency = pageConcurrency;
+    }
+
+    /**
+     * Fetch user information from GitHub
+     *
+     * @param username GitHub username
+     * @return GitHubUserResponse with user data; fails with {@link UserNotFoundException} if the user
+     *         doesn't exist, or {@link GitHubApiException} if GitHub API returns an error
+     */
+    public Mono<GitHubUserResponse> getUser(String username) {
+        return guarded(githubWebClient.get()
+                .uri("/users/{username}", username)
+                .retrieve()
+                .bodyToMono(GitHubUserResponse.class))
+                .doOnNext(user -> logger.debug("Successfully fetched user data for: {}", username))
+                .onErrorMap(e -> !(e instanceof GitHubApiException || e instanceof UserNotFoundException),
+                        e -> userError(username, e));
+    }
+
+    /**
+     * Fetch user's repositories from GitHub, following pagination up to the configured maximum
+     *
+     * @param username GitHub username
+     * @return List of repositories, in GitHub's order; fails with {@link UserNotFoundException} if the user
+     *         doesn't exist, or {@link GitHubApiException} on other errors
+     */
+    public Mono<List<RepoInfo>> getUserRepos(String username) {
+        int maxPages = (maxRepos + RestGitHubApiClient.REPOS_PER_PAGE - 1) / RestGitHubApiClient.REPOS_PER_PAGE;
+
+        return fetchRepoPage(username, 1)
+                .flatMap(firstPage -> {
+                    int lastPage = Math.min(
+                            RestGitHubApiClient.lastPage(firstPage.getHeaders().getFirst(HttpHeaders.LINK)),
+                            maxPages);
+                    return Flux.range(2, Math.max(0, lastPage - 1))
+                            .flatMapSequential(page -> fetchRepoPage(username, page), pageConcurrency)
+                            .startWith(firstPage)
+                            .concatMapIterable(ResponseEntity::getBody)
+                            .collectList();
+                })
+                .map(repos -> {
+                    if (repos.size() > maxRepos) {
+                        logger.warn("User {} has more than {} repositories, truncating", username, maxRepos);
+                        return new ArrayList<>(repos.subList(0, maxRepos));
+                    }
+                    return repos;
+                })
+                .doOnNext(repos -> logger.debug(
+                        "Successfully fetched {} repositories for user: {}", repos.size(), username))
+                .onErrorMap(e -> !(e instanceof GitHubApiException || e instanceof UserNotFoundException),
+                        e -> reposError(username, e));
+    }
+
+    /**
+     * Fetch one page of repositories, reading each chunk of the body into {@link RepoInfo} as it arrives
+     *
+     * @see RepoListReader#incremental()
+     */
+    private Mono<ResponseEntity<List<RepoInfo>>> fetchRepoPage(String username, int page) {
+        return guarded(githubWebClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/users/{username}/repos")
+                        .queryParam("per_page", RestGitHubApiClient.REPOS_PER_PAGE)
+                        .queryParamIfPresent("page", page > 1 ? Optional.of(page) : Optional.empty())
+                        .build(username))
+                .retrieve()
+                .toEntityFlux(DataBuffer.class)
+                .flatMap(response -> readRepos(response.getBody())
+                        .map(repos -> new ResponseEntity<>(repos, response.getHeaders(), response.getStatusCode()))));
+    }
+
+    /**
+     * Run an upstream call through the circuit breaker, failing fast while it is open
+     */
+    private <T> Mono<T> guarded(Mono<T> call) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return Mono.error(new CircuitOpenException());
+            }
+            return call.doOnSuccess(result -> circuitBreaker.onSuccess())
+                    .doOnError(e -> {
+                        if (GitHubCircuitBreaker.isUpstreamFailure(e)) {
+                            circuitBreaker.onFailure();
+                        } else {
+                            circuitBreaker.onSuccess();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Feed each buffer to the reader and release it, so the page is never held whole
+     */
+    private static Mono<List<RepoInfo>> readRepos(Flux<DataBuffer> body) {
+        return Mono.defer(() -> {
+            RepoListReader.Incremental reader = incremental();
+            return body.doOnNext(buffer -> {
+                try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                    while (chunks.hasNext()) {
+                        reader.feed(chunks.next());
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    DataBufferUtils.release(buffer);
+                }
+            }).then(Mono.fromCallable(reader::finish));
+        });
+    }
+
+    private static RepoListReader.Incremental incremental() {
+        try {
+            return RepoListReader.incremental();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private RuntimeException userError(String username, Throwable e) {
+        if (e instanceof WebClientResponseException.NotFound) {
+            logger.warn("User not found: {}", username);
+            return new UserNotFoundException(username);
+        }
+        if (e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()) {
+            logger.error("GitHub API error for user {}: {} - {}", username, response.getStatusCode(), e.getMessage());
+            return new GitHubApiException("GitHub API error: " + response.getStatusCode());
+        }
+        logger.error("Error fetching user data for {}: {}", username, e.getMessage());
+        return new GitHubApiException("Failed to fetch user data from GitHub", e);
+    }
+
+    private RuntimeException reposError(String username, Throwable e) {
+        if (e instanceof WebClientResponseException.NotFound) {
+            logger.warn("User not found when fetching repositories: {}", username);
+            return new UserNotFoundException(username);
+        }
+        if (e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()) {
+            logger.error("GitHub API error for repos of {}: {} - {}",
+                    username, response.getStatusCode(), e.getMessage());
+            return new GitHubApiException("GitHub API error: " + response.getStatusCode());
+        }
+        logger.error("Error fetching repositories for {}: {}", username, e.getMessage());
+        return new GitHubApiException("Failed to fetch repositories from GitHub", e);
+    }
+}
@@ -0,0 +1,167 @@
+package miller.kyle.github_user_proxy.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader for GitHub's repository list JSON.
+ * <p>
+ * GitHub repository objects carry around a hundred fields; this reads the response token by token and
+ * builds {@link RepoInfo} directly from {@code name} and {@code url}, skipping every other field
+ * (including nested objects such as {@code owner}) without materialising it. {@link #incremental()} does the
+ * same for a body that arrives in chunks, without blocking on or buffering the rest of it.
+ */
+public final class RepoListReader {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private RepoListReader() {
+    }
+
+    /**
+     * Read a JSON array of GitHub repository objects
+     *
+     * @param body response body, closed when done
+     * @return repositories in document order
+     * @throws IOException if the body is not a JSON array of objects
+     */
+    public static List<RepoInfo> read(InputStream body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected a JSON array of repositories");
+            }
+
+            List<RepoInfo> repos = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                repos.add(readRepo(parser));
+            }
+            return repos;
+        }
+    }
+
+    /**
+     * Start reading a JSON array of GitHub repository objects that is fed in chunks as they arrive
+     */
+    public static Incremental incremental() throws IOException {
+        return new Incremental();
+    }
+
+    private static RepoInfo readRepo(JsonParser parser) throws IOException {
+        String name = null;
+        String url = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "name" -> name = parser.getValueAsString();
+                case "url" -> url = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+        return new RepoInfo(name, url);
+    }
+
+    /**
+     * Non-blocking reader fed one chunk of the body at a time; the repositories in a chunk are read as soon as it
+     * is fed, so only the unfinished token at its end is kept between chunks.
+     */
+    public static final class Incremental {
+
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+        private final List<RepoInfo> repos = new ArrayList<>();
+
+        /**
+         * Nesting level of the current token: 1 inside the array, 2 inside a repository object
+         */
+        private int depth;
+        private boolean started;
+        private String field;
+        private String name;
+        private String url;
+
+        private Incremental() throws IOException {
+            parser = JSON_FACTORY.createNonBlockingByteBufferParser();
+            feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        /**
+         * Read the next chunk of the body; the chunk is not used once this returns
+         *
+         * @throws IOException if the body so far is not a JSON array of objects
+         */
+        public void feed(ByteBuffer chunk) throws IOException {
+            feeder.feedInput(chunk);
+            drain();
+        }
+
+        /**
+         * Finish reading once the whole body has been fed
+         *
+         * @return repositories in document order; none if the body was empty
+         * @throws IOException if the body ended before the array did
+         */
+        public List<RepoInfo> finish() throws IOException {
+            feeder.endOfInput();
+            try (parser) {
+                drain();
+                if (started && depth > 0) {
+                    throw new JsonParseException(parser, "Unexpected end of the repository array");
+                }
+                return repos;
+            }
+        }
+
+        private void drain() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (!started) {
+                    if (token != JsonToken.START_ARRAY) {
+                        throw new JsonParseException(parser, "Expected a JSON array of repositories");
+                    }
+                    started = true;
+                    depth = 1;
+                    continue;
+                }
+                if (depth == 0) {
+                    continue;
+                }
+                read(token);
+            }
+        }
+
+        private void read(JsonToken token) throws IOException {
+            if (depth == 1 && token != JsonToken.START_OBJECT && token != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "Expected a JSON array of repository objects");
+            }
+            if (token.isStructStart()) {
+                if (depth == 1) {
+                    name = null;
+                    url = null;
+                }
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+                if (depth == 1) {
+                    repos.add(new RepoInfo(name, url));
+                }
+            } else if (depth == 2 && token == JsonToken.FIELD_NAME) {
+                field = parser.currentName();
+            } else if (depth == 2 && "name".equals(field)) {
+                name = parser.getValueAsString();
+            } else if (depth == 2 && "url".equals(field)) {
+                url = parser.getValueAsString();
+            }
+        }
+    }
+}
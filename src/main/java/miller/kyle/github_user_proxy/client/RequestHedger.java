@@ -0,0 +1,196 @@
+package miller.kyle.github_user_proxy.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import miller.kyle.github_user_proxy.exception.GitHubApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hedges idempotent upstream GETs to cut tail latency.
+ * <p>
+ * If the first attempt has not answered within the configured latency percentile of recent attempts
+ * (never less than {@code github.api.hedge.min-delay}), a second attempt is sent and whichever answers first
+ * is used; the other is cancelled. Every request earns {@code github.api.hedge.budget-ratio} of a hedge and
+ * every hedge spends one, so hedges can never add more than that fraction of extra upstream calls.
+ * <p>
+ * Publishes {@code github.request.latency}, {@code github.hedge.sent}, {@code github.hedge.won} and
+ * {@code github.hedge.skipped} (no budget left), tagged by operation.
+ */
+@Component
+public class RequestHedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestHedger.class);
+
+    /**
+     * Budget is kept in millionths of a hedge to avoid rounding drift
+     */
+    private static final long HEDGE_COST = 1_000_000;
+
+    /**
+     * Unused budget is capped so a quiet period cannot be followed by a burst of hedges
+     */
+    private static final long MAX_BUDGET = 10 * HEDGE_COST;
+
+    private final ExecutorService githubExecutor;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final double percentile;
+    private final Duration minDelay;
+    private final long budgetPerRequest;
+
+    private final ConcurrentMap<String, Timer> latencies = new ConcurrentHashMap<>();
+    private final Object budgetLock = new Object();
+    private long budget;
+
+    public RequestHedger(
+            ExecutorService githubExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${github.api.hedge.enabled}") boolean enabled,
+            @Value("${github.api.hedge.percentile}") double percentile,
+            @Value("${github.api.hedge.min-delay}") Duration minDelay,
+            @Value("${github.api.hedge.budget-ratio}") double budgetRatio) {
+        this.githubExecutor = githubExecutor;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelay = minDelay;
+        this.budgetPerRequest = Math.round(budgetRatio * HEDGE_COST);
+    }
+
+    /**
+     * Run an idempotent upstream call, hedging it if it is slow and budget allows
+     *
+     * @param operation name of the call, used to track its latency and tag metrics
+     * @param attempt   the call; may run twice concurrently
+     * @return result of whichever attempt answered first
+     * @throws RuntimeException the exception of the attempt that answered first, unchanged
+     */
+    public <T> T call(String operation, Callable<T> attempt) {
+        if (!enabled) {
+            return callDirectly(attempt);
+        }
+
+        Timer latency = latency(operation);
+        earnBudget();
+
+        ExecutorCompletionService<T> attempts = new ExecutorCompletionService<>(githubExecutor);
+        Future<T> primary = attempts.submit(timed(latency, attempt));
+        Future<T> hedge = null;
+        try {
+            Duration delay = hedgeDelay(latency);
+            Future<T> first = attempts.poll(delay.toNanos(), TimeUnit.NANOSECONDS);
+            if (first == null) {
+                if (spendBudget()) {
+                    logger.debug("No answer for {} after {}, sending hedge", operation, delay);
+                    hedge = attempts.submit(timed(latency, attempt));
+                    counter("github.hedge.sent", operation).increment();
+                } else {
+                    counter("github.hedge.skipped", operation).increment();
+                }
+                first = attempts.take();
+            }
+            if (first == hedge) {
+                counter("github.hedge.won", operation).increment();
+            }
+            return first.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GitHubApiException("Interrupted while fetching data from GitHub", e);
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Delay before hedging: the configured percentile of recent attempt latencies, at least the minimum delay
+     */
+    private Duration hedgeDelay(Timer latency) {
+        for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                Duration observed = Duration.ofNanos((long) value.value(TimeUnit.NANOSECONDS));
+                return observed.compareTo(minDelay) > 0 ? observed : minDelay;
+            }
+        }
+        return minDelay;
+    }
+
+    private Timer latency(String operation) {
+        return latencies.computeIfAbsent(operation, name -> Timer.builder("github.request.latency")
+                .description("Latency of individual upstream GitHub attempts")
+                .tag("operation", name)
+                .publishPercentiles(percentile)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Record the latency of attempts that ran to completion; cancelled losers would skew it low
+     */
+    private <T> Callable<T> timed(Timer latency, Callable<T> attempt) {
+        return () -> {
+            long start = System.nanoTime();
+            T result = attempt.call();
+            latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        };
+    }
+
+    private void earnBudget() {
+        synchronized (budgetLock) {
+            budget = Math.min(MAX_BUDGET, budget + budgetPerRequest);
+        }
+    }
+
+    private boolean spendBudget() {
+        synchronized (budgetLock) {
+            if (budget < HEDGE_COST) {
+                return false;
+            }
+            budget -= HEDGE_COST;
+            return true;
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return meterRegistry.counter(name, "operation", operation);
+    }
+
+    private static <T> T callDirectly(Callable<T> attempt) {
+        try {
+            return attempt.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GitHubApiException("Failed to fetch data from GitHub", e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        if (e.getCause() instanceof Error error) {
+            throw error;
+        }
+        return new GitHubApiException("Failed to fetch data from GitHub", e.getCause());
+    }
+}
@@ -0,0 +1,360 @@
+package miller.kyle.github_user_proxy.client;
+
+import miller.kyle.github_user_proxy.dto.CachedGitHubResponse;
+import miller.kyle.github_user_proxy.dto.GitHubUserResponse;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+import miller.kyle.github_user_proxy.exception.GitHubApiException;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import miller.kyle.github_user_proxy.service.GitHubDataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Client for interacting with GitHub's REST API
+ * <p>
+ * The {@code ETag}/{@code Last-Modified} validators of successful responses are kept in the
+ * {@value #VALIDATORS_CACHE} cache, without the body. While the profile or repo list is still cached, e.g. when
+ * its entry has expired and is being reloaded, later requests for the same URL are sent as conditional requests,
+ * and a {@code 304 Not Modified} is answered from that cached value (304s do not count against the rate limit).
+ * The repo list is sliced back into the requested page. Calls go through the {@link GitHubCircuitBreaker}.
+ */
+@Component
+@ConditionalOnProperty(name = "github.api.mode", havingValue = "rest", matchIfMissing = true)
+public class RestGitHubApiClient implements GitHubApiClient {
+
+    public static final String VALIDATORS_CACHE = "github-validators";
+
+    static final int REPOS_PER_PAGE = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(RestGitHubApiClient.class);
+    private static final Pattern LAST_PAGE_LINK = Pattern.compile("<[^>]*[?&]page=(\\d+)[^>]*>;\\s*rel=\"last\"");
+
+    private final RestTemplate restTemplate;
+    private final Cache validatorCache;
+    private final Cache profileCache;
+    private final Cache repoCache;
+    private final ExecutorService githubExecutor;
+    private final RequestHedger requestHedger;
+    private final GitHubCircuitBreaker circuitBreaker;
+    private final String githubApiBaseUrl;
+    private final int maxRepos;
+    private final int pageConcurrency;
+
+    public RestGitHubApiClient(
+            RestTemplate restTemplate,
+            CacheManager cacheManager,
+            ExecutorService githubExecutor,
+            RequestHedger requestHedger,
+            GitHubCircuitBreaker circuitBreaker,
+            @Value("${github.api.base-url}") String githubApiBaseUrl,
+            @Value("${github.api.repos.max}") int maxRepos,
+            @Value("${github.api.repos.page-concurrency}") int pageConcurrency) {
+        this.restTemplate = restTemplate;
+        this.validatorCache = cacheManager.getCache(VALIDATORS_CACHE);
+        this.profileCache = cacheManager.getCache(GitHubDataService.PROFILES_CACHE);
+        this.repoCache = cacheManager.getCache(GitHubDataService.REPOS_CACHE);
+        this.githubExecutor = githubExecutor;
+        this.requestHedger = requestHedger;
+        this.circuitBreaker = circuitBreaker;
+        this.githubApiBaseUrl = githubApiBaseUrl;
+        this.maxRepos = maxRepos;
+        this.pageConcurrency = pageConcurrency;
+    }
+
+    /**
+     * Fetch user information from GitHub
+     *
+     * @param username GitHub username
+     * @return GitHubUserResponse with user data
+     * @throws UserNotFoundException if user doesn't exist
+     * @throws GitHubApiException    if GitHub API returns an error
+     */
+    @Override
+    public GitHubUserResponse getUser(String username) {
+        String url = githubApiBaseUrl + "/users/" + username;
+        logger.debug("Fetching user data from GitHub: {}", url);
+
+        try {
+            GitHubUserResponse user = fetchValidated(
+                    "user",
+                    url,
+                    () -> cached(profileCache, username, GitHubUserResponse.class),
+                    RestGitHubApiClient::fingerprint,
+                    request -> restTemplate.exchange(url, HttpMethod.GET, request, GitHubUserResponse.class)
+            ).getBody();
+
+            logger.debug("Successfully fetched user data for: {}", username);
+            return user;
+        } catch (HttpClientErrorException.NotFound e) {
+            logger.warn("User not found: {}", username);
+            throw new UserNotFoundException(username);
+        } catch (HttpClientErrorException e) {
+            logger.error("GitHub API error for user {}: {} - {}", username, e.getStatusCode(), e.getMessage());
+            throw new GitHubApiException("GitHub API error: " + e.getStatusCode());
+        } catch (GitHubApiException e) {
+            logger.error("GitHub API error for user {}: {}", username, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error fetching user data for {}: {}", username, e.getMessage());
+            throw new GitHubApiException("Failed to fetch user data from GitHub", e);
+        }
+    }
+
+    /**
+     * Fetch user's repositories from GitHub, following pagination up to the configured maximum.
+     * The first page tells us how many pages there are; the remaining pages are fetched in parallel.
+     *
+     * @param username GitHub username
+     * @return List of repositories, in GitHub's order
+     * @throws GitHubApiException if GitHub API returns an error
+     */
+    @Override
+    public List<RepoInfo> getUserRepos(String username) {
+        logger.debug("Fetching repositories from GitHub: {}", reposUrl(username, 1));
+
+        try {
+            ResponseEntity<List<RepoInfo>> firstPage = fetchRepoPage(username, 1);
+            List<RepoInfo> repos = new ArrayList<>(firstPage.getBody());
+
+            int maxPages = (maxRepos + REPOS_PER_PAGE - 1) / REPOS_PER_PAGE;
+            int lastPage = Math.min(lastPage(firstPage.getHeaders().getFirst(HttpHeaders.LINK)), maxPages);
+            if (lastPage > 1) {
+                repos.addAll(fetchRemainingRepoPages(username, lastPage));
+            }
+            if (repos.size() > maxRepos) {
+                logger.warn("User {} has more than {} repositories, truncating", username, maxRepos);
+                repos = new ArrayList<>(repos.subList(0, maxRepos));
+            }
+
+            logger.debug("Successfully fetched {} repositories for user: {}", repos.size(), username);
+            return repos;
+        } catch (HttpClientErrorException e) {
+            logger.error("GitHub API error for repos of {}: {} - {}",
+                    username, e.getStatusCode(), e.getMessage());
+            throw new GitHubApiException("GitHub API error: " + e.getStatusCode());
+        } catch (GitHubApiException e) {
+            logger.error("GitHub API error for repos of {}: {}", username, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error fetching repositories for {}: {}", username, e.getMessage());
+            throw new GitHubApiException("Failed to fetch repositories from GitHub", e);
+        }
+    }
+
+    /**
+     * Fetch pages 2..lastPage concurrently, at most {@code pageConcurrency} at a time, and merge them in page order
+     */
+    private List<RepoInfo> fetchRemainingRepoPages(String username, int lastPage) throws Exception {
+        Semaphore permits = new Semaphore(pageConcurrency);
+        List<Future<ResponseEntity<List<RepoInfo>>>> pages = new ArrayList<>();
+        for (int page = 2; page <= lastPage; page++) {
+            int pageNumber = page;
+            pages.add(githubExecutor.submit(() -> {
+                permits.acquire();
+                try {
+                    return fetchRepoPage(username, pageNumber);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        List<RepoInfo> repos = new ArrayList<>();
+        try {
+            for (Future<ResponseEntity<List<RepoInfo>>> page : pages) {
+                repos.addAll(page.get().getBody());
+            }
+        } catch (ExecutionException e) {
+            pages.forEach(page -> page.cancel(true));
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            pages.forEach(page -> page.cancel(true));
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+        return repos;
+    }
+
+    /**
+     * Fetch one page of repositories, streaming the body straight into {@link RepoInfo}
+     *
+     * @see RepoListReader
+     */
+    private ResponseEntity<List<RepoInfo>> fetchRepoPage(String username, int page) {
+        String url = reposUrl(username, page);
+        return fetchValidated(
+                "repos",
+                url,
+                () -> cachedPage(username, page),
+                repos -> fingerprint(kept(repos, page)),
+                request -> restTemplate.execute(
+                        url,
+                        HttpMethod.GET,
+                        clientRequest -> clientRequest.getHeaders().putAll(request.getHeaders()),
+                        response -> new ResponseEntity<List<RepoInfo>>(
+                                response.getStatusCode() == HttpStatus.OK
+                                        ? RepoListReader.read(response.getBody())
+                                        : null,
+                                response.getHeaders(),
+                                response.getStatusCode())
+                ));
+    }
+
+    /**
+     * The given page of the cached repo list, as far as it was kept
+     */
+    private List<RepoInfo> cachedPage(String username, int page) {
+        @SuppressWarnings("unchecked")
+        List<RepoInfo> repos = cached(repoCache, username, List.class);
+        int from = (page - 1) * REPOS_PER_PAGE;
+        if (repos == null || repos.size() < from) {
+            return null;
+        }
+        return new ArrayList<>(repos.subList(from, Math.min(repos.size(), from + REPOS_PER_PAGE)));
+    }
+
+    /**
+     * The repos of a page that are kept within the configured maximum
+     */
+    private List<RepoInfo> kept(List<RepoInfo> repos, int page) {
+        int keep = maxRepos - (page - 1) * REPOS_PER_PAGE;
+        return repos.size() > keep ? repos.subList(0, Math.max(0, keep)) : repos;
+    }
+
+    private String reposUrl(String username, int page) {
+        String url = githubApiBaseUrl + "/users/" + username + "/repos?per_page=" + REPOS_PER_PAGE;
+        return page > 1 ? url + "&page=" + page : url;
+    }
+
+    /**
+     * Extract the last page number from a GitHub {@code Link} header; a response without one is the only page
+     */
+    static int lastPage(String link) {
+        if (link == null) {
+            return 1;
+        }
+        Matcher matcher = LAST_PAGE_LINK.matcher(link);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 1;
+    }
+
+    /**
+     * Perform a GET, as a conditional request if validators are stored for the URL and the cached value they
+     * were sent with is still at hand. A {@code 304 Not Modified} is answered from that value; the validators of
+     * a fresh response are stored, if it has any. The request is hedged when it is slow, see {@link RequestHedger},
+     * and fails fast while the circuit is open.
+     *
+     * @param operation   name of the call, for hedging latency tracking and metrics
+     * @param url         request URL, also the key of the stored validators
+     * @param cachedBody  the body as last cached, or null if it is not cached
+     * @param fingerprint hash of a body, telling whether the cached one is the one the validators were sent with
+     * @param exchange    performs the request with the given (conditional) request entity
+     * @return the fresh or revalidated response
+     */
+    private <T> ResponseEntity<T> fetchValidated(
+            String operation,
+            String url,
+            Supplier<T> cachedBody,
+            ToIntFunction<T> fingerprint,
+            Function<HttpEntity<Void>, ResponseEntity<T>> exchange) {
+        CachedGitHubResponse validators = validatorCache.get(url, CachedGitHubResponse.class);
+        T cached = validators != null && validators.getFingerprint() != null ? cachedBody.get() : null;
+        if (cached != null && fingerprint.applyAsInt(cached) != validators.getFingerprint()) {
+            cached = null;
+        }
+        HttpEntity<Void> request = conditionalRequest(cached != null ? validators : null);
+        ResponseEntity<T> response = circuitBreaker.call(
+                () -> requestHedger.call(operation, () -> exchange.apply(request)),
+                GitHubCircuitBreaker::isUpstreamFailure);
+
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+            logger.debug("Not modified: {}", url);
+            HttpHeaders headers = new HttpHeaders();
+            if (validators.getLink() != null) {
+                headers.set(HttpHeaders.LINK, validators.getLink());
+            }
+            return new ResponseEntity<>(cached, headers, HttpStatus.OK);
+        } else if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+            HttpHeaders headers = response.getHeaders();
+            if (headers.getETag() != null || headers.getFirst(HttpHeaders.LAST_MODIFIED) != null) {
+                CachedGitHubResponse fetched = new CachedGitHubResponse(
+                        headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED));
+                fetched.setLink(headers.getFirst(HttpHeaders.LINK));
+                fetched.setFingerprint(fingerprint.applyAsInt(response.getBody()));
+                validatorCache.put(url, fetched);
+            }
+            return response;
+        } else {
+            throw new GitHubApiException("Unexpected response from GitHub API");
+        }
+    }
+
+    /**
+     * Look up a cached profile or repo list, expired or not; a failed lookup only costs the conditional request
+     */
+    private static <T> T cached(Cache cache, String username, Class<T> type) {
+        try {
+            Cache.ValueWrapper cached = cache.get(username);
+            return cached != null && type.isInstance(cached.get()) ? type.cast(cached.get()) : null;
+        } catch (RuntimeException e) {
+            logger.debug("Could not read cached value of {} to revalidate: {}", username, e.getMessage());
+            return null;
+        }
+    }
+
+    private static int fingerprint(GitHubUserResponse user) {
+        return Objects.hash(user.getLogin(), user.getName(), user.getAvatarUrl(), user.getLocation(),
+                user.getEmail(), user.getUrl(), user.getCreatedAt());
+    }
+
+    private static int fingerprint(List<RepoInfo> repos) {
+        int hash = 1;
+        for (RepoInfo repo : repos) {
+            hash = 31 * hash + Objects.hash(repo.getName(), repo.getUrl());
+        }
+        return hash;
+    }
+
+    /**
+     * Build a request carrying {@code If-None-Match}/{@code If-Modified-Since} for a previously fetched response
+     */
+    private HttpEntity<Void> conditionalRequest(CachedGitHubResponse cached) {
+        HttpHeaders headers = new HttpHeaders();
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                headers.setIfNoneMatch(cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+            }
+        }
+        return new HttpEntity<>(headers);
+    }
+}
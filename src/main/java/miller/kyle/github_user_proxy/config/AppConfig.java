@@ -2,19 +2,35 @@ package miller.kyle.github_user_proxy.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Application configuration
  */
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
     /**
-     * Configure RestTemplate bean for making HTTP requests
+     * Configure RestTemplate bean for making HTTP requests, backed by the tuned GitHub HTTP client
+     *
+     * @see GitHubHttpClientConfig
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(ClientHttpRequestFactory githubRequestFactory) {
+        return new RestTemplate(githubRequestFactory);
+    }
+
+    /**
+     * Executor used to run upstream GitHub calls concurrently, one virtual thread per call
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService githubExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
     }
 }
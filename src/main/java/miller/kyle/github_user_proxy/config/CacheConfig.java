@@ -1,31 +1,260 @@
 package miller.kyle.github_user_proxy.config;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import miller.kyle.github_user_proxy.cache.CacheInvalidationBus;
+import miller.kyle.github_user_proxy.cache.CoalescingCache;
+import miller.kyle.github_user_proxy.cache.CompactValueSerializer;
+import miller.kyle.github_user_proxy.cache.DecoratingCacheManager;
+import miller.kyle.github_user_proxy.cache.HotKeyTracker;
+import miller.kyle.github_user_proxy.cache.NegativeCachingCache;
+import miller.kyle.github_user_proxy.cache.NotFoundCache;
+import miller.kyle.github_user_proxy.cache.NotFoundFilter;
+import miller.kyle.github_user_proxy.cache.RedisAvailability;
+import miller.kyle.github_user_proxy.cache.RedisFallbackCache;
+import miller.kyle.github_user_proxy.cache.RedisLoadLock;
+import miller.kyle.github_user_proxy.cache.RefreshAheadCache;
+import miller.kyle.github_user_proxy.cache.RefreshAheadPolicy;
+import miller.kyle.github_user_proxy.cache.TwoTierCache;
+import miller.kyle.github_user_proxy.client.RestGitHubApiClient;
+import miller.kyle.github_user_proxy.service.GitHubDataService;
+import miller.kyle.github_user_proxy.service.RenderedResponseService;
+import miller.kyle.github_user_proxy.service.UserProxyService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.util.DigestUtils;
 
+import java.io.UncheckedIOException;
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 @Configuration
 public class CacheConfig implements CachingConfigurer {
 
+    /**
+     * Time to live of cached responses, unless configured per cache
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(30);
+
+    /**
+     * Redis-backed cache manager. User profiles and repository lists are cached separately, each with its
+     * own TTL, and both get the same treatment: concurrent misses are coalesced per username, and across
+     * nodes when the distributed load lock is enabled. With the local tier enabled, entries are also kept
+     * in process in front of Redis. Entries expire after a jittered TTL and hot ones are refreshed in the
+     * background shortly before that. Unknown usernames are remembered in a short-lived not-found cache,
+     * fronted by an in-process Bloom filter if enabled. Rendered response bodies, if enabled, are cached as
+     * plain entries in front of both, through the local tier as well. Every cache falls back to local memory
+     * while Redis is unreachable, if enabled.
+     */
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(
+            RedisConnectionFactory connectionFactory,
+            RedisSerializer<Object> cacheValueSerializer,
+            MeterRegistry meterRegistry,
+            ExecutorService githubExecutor,
+            RefreshAheadPolicy refreshAheadPolicy,
+            ObjectProvider<RedisLoadLock> loadLock,
+            ObjectProvider<CacheInvalidationBus> invalidationBus,
+            ObjectProvider<NotFoundFilter> notFoundFilter,
+            ObjectProvider<RedisAvailability> redisAvailability,
+            @Value("${github.cache.profiles.ttl}") Duration profilesTtl,
+            @Value("${github.cache.repos.ttl}") Duration reposTtl,
+            @Value("${github.cache.validators.ttl}") Duration validatorsTtl,
+            @Value("${github.cache.not-found.ttl}") Duration notFoundTtl,
+            @Value("${github.cache.rendered.ttl}") Duration renderedTtl,
+            @Value("${github.cache.l1.enabled}") boolean localEnabled,
+            @Value("${github.cache.l1.max-size}") long localMaxSize,
+            @Value("${github.cache.l1.ttl}") Duration localTtl,
+            @Value("${github.cache.fallback.max-size}") long fallbackMaxSize,
+            @Value("${github.cache.fallback.ttl}") Duration fallbackTtl) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(30))
+                .entryTtl(DEFAULT_TTL)
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(cacheValueSerializer))
                 .disableCachingNullValues();
+        RefreshAheadPolicy profilesPolicy = refreshAheadPolicy.withTtl(profilesTtl);
+        RefreshAheadPolicy reposPolicy = refreshAheadPolicy.withTtl(reposTtl);
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
+                // Upstream ETags, without the bodies, so expired entries can be revalidated during the stale grace
+                .withCacheConfiguration(RestGitHubApiClient.VALIDATORS_CACHE, config.entryTtl(validatorsTtl))
+                // Profile and repo entries carry their own jittered expiry
+                .withCacheConfiguration(GitHubDataService.PROFILES_CACHE, config.entryTtl(profilesPolicy::timeToLive))
+                .withCacheConfiguration(GitHubDataService.REPOS_CACHE, config.entryTtl(reposPolicy::timeToLive))
+                .withCacheConfiguration(UserProxyService.NOT_FOUND_CACHE, config.entryTtl(notFoundTtl))
+                .withCacheConfiguration(RenderedResponseService.RENDERED_CACHE, config.entryTtl(renderedTtl))
                 .transactionAware()
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        RedisAvailability availability = redisAvailability.getIfAvailable();
+        CacheManager resilientCacheManager = availability == null ? redisCacheManager : new DecoratingCacheManager(
+                redisCacheManager,
+                Map.of(),
+                cache -> new RedisFallbackCache(cache, availability, meterRegistry, fallbackMaxSize, fallbackTtl));
+
+        RedisLoadLock usersLoadLock = loadLock.getIfAvailable();
+        CacheInvalidationBus bus = invalidationBus.getIfAvailable();
+        UnaryOperator<Cache> tiered = cache -> {
+            if (!localEnabled) {
+                return cache;
+            }
+            TwoTierCache twoTierCache = new TwoTierCache(cache, meterRegistry, bus, localMaxSize, localTtl);
+            bus.register(twoTierCache);
+            return twoTierCache;
+        };
+        NotFoundCache notFoundCache = new NotFoundCache(
+                resilientCacheManager.getCache(UserProxyService.NOT_FOUND_CACHE), notFoundFilter.getIfAvailable(), bus);
+        if (bus != null) {
+            bus.register(notFoundCache);
+        }
+        Function<RefreshAheadPolicy, UnaryOperator<Cache>> userData = policy -> cache -> new NegativeCachingCache(
+                new RefreshAheadCache(
+                        new CoalescingCache(tiered.apply(cache), meterRegistry, usersLoadLock, policy::isCurrent,
+                                notFoundCache::contains),
+                        policy, githubExecutor, meterRegistry),
+                notFoundCache,
+                meterRegistry);
+        Map<String, UnaryOperator<Cache>> decorators = Map.of(
+                GitHubDataService.PROFILES_CACHE, userData.apply(profilesPolicy),
+                GitHubDataService.REPOS_CACHE, userData.apply(reposPolicy),
+                RenderedResponseService.RENDERED_CACHE, tiered,
+                // Clearing the not-found cache, e.g. through the actuator, also resets the filter on every node
+                UserProxyService.NOT_FOUND_CACHE,
+                cache -> notFoundCache
+        );
+        return new DecoratingCacheManager(resilientCacheManager, decorators);
+    }
+
+    /**
+     * Treat cache failures that reach the caching aspect as misses: log them and call the method instead
+     */
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new LoggingCacheErrorHandler();
+    }
+
+    /**
+     * Whether Redis is reachable, shared by the caches' local fallbacks and reported as the redisCache health
+     */
+    @Bean("redisCache")
+    @ConditionalOnProperty(name = "github.cache.fallback.enabled", havingValue = "true")
+    public RedisAvailability redisAvailability(
+            MeterRegistry meterRegistry,
+            @Value("${github.cache.fallback.retry-interval}") Duration retryInterval) {
+        return new RedisAvailability(meterRegistry, retryInterval);
+    }
+
+    /**
+     * Serializer of cached values, shared by both serving stacks: profiles, repository lists and rendered
+     * responses in a compact binary format, everything else (and entries written before that format) as JSON
+     */
+    @Bean
+    public RedisSerializer<Object> cacheValueSerializer(
+            @Value("${github.cache.compact-codec.enabled}") boolean enabled,
+            @Value("${github.cache.compact-codec.compression-threshold}") int compressionThreshold) {
+        return new CompactValueSerializer(new GenericJackson2JsonRedisSerializer(), enabled, compressionThreshold);
+    }
+
+    /**
+     * Jittered expiry, probabilistic early refresh and stale grace of profile and repo entries, shared by both
+     * serving stacks; each cache applies it with its own TTL. Each entry is stored with an entity tag of its
+     * value, the first 64 bits of the MD5 of its JSON, from which user responses are tagged.
+     */
+    @Bean
+    public RefreshAheadPolicy refreshAheadPolicy(
+            ObjectMapper objectMapper,
+            @Value("${github.cache.ttl-jitter}") double ttlJitter,
+            @Value("${github.cache.refresh-ahead.beta}") double beta,
+            @Value("${github.cache.stale-grace}") Duration staleGrace) {
+        return new RefreshAheadPolicy(DEFAULT_TTL, ttlJitter, beta, staleGrace).withEntityTags(value -> {
+            try {
+                return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(value)).substring(0, 16);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Bloom filter answering repeat lookups of recently not-found usernames without a Redis round trip
+     */
+    @Bean
+    @ConditionalOnProperty(name = "github.cache.not-found.filter.enabled", havingValue = "true")
+    public NotFoundFilter notFoundFilter(
+            @Value("${github.cache.not-found.filter.expected-insertions}") int expectedInsertions,
+            @Value("${github.cache.not-found.filter.false-positive-rate}") double falsePositiveRate,
+            @Value("${github.cache.not-found.filter.rotation}") Duration rotation) {
+        return new NotFoundFilter(expectedInsertions, falsePositiveRate, rotation);
+    }
+
+    /**
+     * Request counts of usernames, from which the busiest are persisted for warming caches on startup
+     */
+    @Bean
+    @ConditionalOnProperty(name = "github.cache.warmup.enabled", havingValue = "true")
+    public HotKeyTracker hotKeyTracker(@Value("${github.cache.warmup.top-n}") int topN) {
+        return new HotKeyTracker(topN);
+    }
+
+    /**
+     * Redis lease making user cache fills single-flight across all nodes sharing the cache
+     */
+    @Bean
+    @ConditionalOnProperty(name = "github.cache.distributed-lock.enabled", havingValue = "true")
+    public RedisLoadLock redisLoadLock(
+            StringRedisTemplate stringRedisTemplate,
+            ObjectProvider<RedisAvailability> redisAvailability,
+            @Value("${github.cache.distributed-lock.lease-time}") Duration leaseTime,
+            @Value("${github.cache.distributed-lock.wait-timeout}") Duration waitTimeout,
+            @Value("${github.cache.distributed-lock.poll-interval}") Duration pollInterval) {
+        return new RedisLoadLock(stringRedisTemplate, redisAvailability.getIfAvailable(),
+                leaseTime, waitTimeout, pollInterval);
+    }
+
+    /**
+     * Pub/sub channel invalidating the local user cache tier and the not-found filter on other nodes
+     */
+    @Bean
+    @ConditionalOnExpression("${github.cache.l1.enabled} or ${github.cache.not-found.filter.enabled}")
+    public CacheInvalidationBus cacheInvalidationBus(
+            StringRedisTemplate stringRedisTemplate,
+            ObjectProvider<RedisAvailability> redisAvailability) {
+        return new CacheInvalidationBus(stringRedisTemplate, redisAvailability.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnExpression("${github.cache.l1.enabled} or ${github.cache.not-found.filter.enabled}")
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            CacheInvalidationBus cacheInvalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheInvalidationBus, new ChannelTopic(CacheInvalidationBus.CHANNEL));
+        return container;
     }
 }
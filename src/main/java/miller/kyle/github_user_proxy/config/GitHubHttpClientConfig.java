@@ -0,0 +1,117 @@
+package miller.kyle.github_user_proxy.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Configuration of the HTTP client used to call the GitHub API.
+ * <p>
+ * By default requests go through a pooled Apache HttpClient with keep-alive reuse, per-route limits and
+ * connect/read/response timeouts; pool statistics are published as {@code httpcomponents.httpclient.pool.*}
+ * metrics. Setting {@code github.api.http2.enabled=true} switches to the JDK HttpClient, which multiplexes
+ * requests over a single HTTP/2 connection per host instead of pooling HTTP/1.1 connections.
+ */
+@Configuration
+public class GitHubHttpClientConfig {
+
+    /**
+     * Pooled connection manager for HTTP/1.1 keep-alive connections to GitHub
+     */
+    @Bean
+    @ConditionalOnProperty(name = "github.api.http2.enabled", havingValue = "false", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager githubConnectionManager(
+            @Value("${github.api.pool.max-total}") int maxTotal,
+            @Value("${github.api.pool.max-per-route}") int maxPerRoute,
+            @Value("${github.api.connect-timeout}") Duration connectTimeout,
+            @Value("${github.api.read-timeout}") Duration readTimeout,
+            @Value("${github.api.pool.time-to-live}") Duration timeToLive) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                        .setTimeToLive(TimeValue.ofMilliseconds(timeToLive.toMillis()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Apache HttpClient backed by the pooled connection manager
+     */
+    @Bean
+    @ConditionalOnProperty(name = "github.api.http2.enabled", havingValue = "false", matchIfMissing = true)
+    public CloseableHttpClient githubHttpClient(
+            PoolingHttpClientConnectionManager githubConnectionManager,
+            @Value("${github.api.pool.acquire-timeout}") Duration acquireTimeout,
+            @Value("${github.api.response-timeout}") Duration responseTimeout,
+            @Value("${github.api.keep-alive}") Duration keepAlive) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeout.toMillis()))
+                .setResponseTimeout(Timeout.ofMilliseconds(responseTimeout.toMillis()))
+                .setConnectionKeepAlive(TimeValue.ofMilliseconds(keepAlive.toMillis()))
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(githubConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(keepAlive.toMillis()))
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "github.api.http2.enabled", havingValue = "false", matchIfMissing = true)
+    public ClientHttpRequestFactory githubRequestFactory(CloseableHttpClient githubHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(githubHttpClient);
+    }
+
+    /**
+     * Publish connection pool statistics (leased, available, pending, max) to the meter registry
+     */
+    @Bean
+    @ConditionalOnProperty(name = "github.api.http2.enabled", havingValue = "false", matchIfMissing = true)
+    public MeterBinder githubConnectionPoolMetrics(PoolingHttpClientConnectionManager githubConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(githubConnectionManager, "github");
+    }
+
+    /**
+     * JDK HttpClient negotiating HTTP/2, multiplexing concurrent requests over one connection per host
+     */
+    @Bean
+    @ConditionalOnProperty(name = "github.api.http2.enabled", havingValue = "true")
+    public ClientHttpRequestFactory githubHttp2RequestFactory(
+            ExecutorService githubExecutor,
+            @Value("${github.api.connect-timeout}") Duration connectTimeout,
+            @Value("${github.api.read-timeout}") Duration readTimeout) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .executor(githubExecutor)
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return requestFactory;
+    }
+}
@@ -0,0 +1,76 @@
+package miller.kyle.github_user_proxy.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the reactive serving stack, active with {@code spring.main.web-application-type=reactive}.
+ * <p>
+ * Upstream calls go through a non-blocking WebClient on Reactor Netty, sized by the same
+ * {@code github.api.*} settings as the blocking client, and the profile and repo caches are read and written
+ * with a reactive Redis template using the same keys and serialization as the blocking cache manager.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    /**
+     * Non-blocking WebClient for the GitHub API with a bounded, keep-alive connection pool
+     */
+    @Bean
+    public WebClient githubWebClient(
+            WebClient.Builder builder,
+            @Value("${github.api.base-url}") String githubApiBaseUrl,
+            @Value("${github.api.pool.max-total}") int maxTotal,
+            @Value("${github.api.pool.acquire-timeout}") Duration acquireTimeout,
+            @Value("${github.api.pool.time-to-live}") Duration timeToLive,
+            @Value("${github.api.keep-alive}") Duration keepAlive,
+            @Value("${github.api.connect-timeout}") Duration connectTimeout,
+            @Value("${github.api.response-timeout}") Duration responseTimeout) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("github")
+                .maxConnections(maxTotal)
+                .pendingAcquireTimeout(acquireTimeout)
+                .maxIdleTime(keepAlive)
+                .maxLifeTime(timeToLive)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+
+        return builder
+                .baseUrl(githubApiBaseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    /**
+     * Reactive access to cached profiles and repository lists, serialized exactly as by the blocking cache manager
+     *
+     * @see CacheConfig
+     */
+    @Bean
+    public ReactiveRedisTemplate<String, Object> userCacheRedisTemplate(
+            ReactiveRedisConnectionFactory connectionFactory,
+            RedisSerializer<Object> cacheValueSerializer) {
+        RedisSerializationContext<String, Object> serializationContext = RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(cacheValueSerializer)
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
+    }
+}
@@ -0,0 +1,47 @@
+package miller.kyle.github_user_proxy.config;
+
+import io.lettuce.core.ReadFrom;
+import miller.kyle.github_user_proxy.cache.RedisMultiGet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.time.Duration;
+
+/**
+ * Redis topology settings shared by the cache and the other Redis users.
+ * <p>
+ * The connection factory itself is Spring Boot's: a single node by default, Redis Cluster with
+ * {@code spring.data.redis.cluster.nodes}, or a Sentinel-managed primary with {@code spring.data.redis.sentinel.*}.
+ * This adds where read commands are sent, so that with replicas, cache lookups can be spread over them.
+ */
+@Configuration
+public class RedisConfig {
+
+    /**
+     * Send read commands to the nodes selected by {@code github.cache.redis.read-from}; writes always go to
+     * the primary. Any Lettuce {@link ReadFrom} name is accepted, e.g. {@code upstream} or {@code replicaPreferred}.
+     */
+    @Bean
+    public LettuceClientConfigurationBuilderCustomizer redisReadFromCustomizer(
+            @Value("${github.cache.redis.read-from}") String readFrom) {
+        ReadFrom nodes = ReadFrom.valueOf(readFrom);
+        return builder -> builder.readFrom(nodes);
+    }
+
+    /**
+     * Multi-key reads that respect Redis Cluster's rule that one command may only touch a single hash slot,
+     * waiting for a clustered read as long as for any other Redis command
+     */
+    @Bean
+    public RedisMultiGet redisMultiGet(RedisConnectionFactory connectionFactory) {
+        if (connectionFactory instanceof LettuceConnectionFactory lettuce && lettuce.isClusterAware()) {
+            return new RedisMultiGet(connectionFactory, true,
+                    lettuce.getClientConfiguration().getCommandTimeout());
+        }
+        return new RedisMultiGet(connectionFactory, false, Duration.ZERO);
+    }
+}
@@ -0,0 +1,175 @@
+package miller.kyle.github_user_proxy.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import miller.kyle.github_user_proxy.cache.HotKeyTracker;
+import miller.kyle.github_user_proxy.dto.BatchUserRequest;
+import miller.kyle.github_user_proxy.dto.BatchUserResponse;
+import miller.kyle.github_user_proxy.dto.BatchUserResult;
+import miller.kyle.github_user_proxy.dto.ErrorResponse;
+import miller.kyle.github_user_proxy.exception.InvalidBatchRequestException;
+import miller.kyle.github_user_proxy.exception.InvalidUsernameException;
+import miller.kyle.github_user_proxy.service.BatchUserProxyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * REST Controller for looking up several GitHub users in one request, as one JSON response or streamed as
+ * newline-delimited JSON
+ */
+@RestController
+@RequestMapping("/api/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BatchUserProxyController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchUserProxyController.class);
+
+    private final BatchUserProxyService batchUserProxyService;
+    private final ObjectMapper objectMapper;
+    private final HotKeyTracker hotKeyTracker;
+    private final int maxSize;
+    private final int streamMaxSize;
+
+    /**
+     * @param hotKeyTracker request counts of usernames, if cache warming is enabled
+     * @param maxSize       most distinct usernames accepted in one batch
+     * @param streamMaxSize most distinct usernames accepted in one streamed batch
+     */
+    public BatchUserProxyController(
+            BatchUserProxyService batchUserProxyService,
+            ObjectMapper objectMapper,
+            ObjectProvider<HotKeyTracker> hotKeyTracker,
+            @Value("${github.batch.max-size}") int maxSize,
+            @Value("${github.batch.stream.max-size}") int streamMaxSize) {
+        this.batchUserProxyService = batchUserProxyService;
+        this.objectMapper = objectMapper;
+        this.hotKeyTracker = hotKeyTracker.getIfAvailable();
+        this.maxSize = maxSize;
+        this.streamMaxSize = streamMaxSize;
+    }
+
+    /**
+     * Get GitHub user data with repositories for several users
+     *
+     * @param request usernames to look up; 400 Bad Request if there are none or more than the configured maximum
+     * @param accept  with {@code application/x-ndjson}, results are streamed (see {@link #stream})
+     * @return one result per distinct username, in request order, each with the user's data or the error the
+     *         single-user endpoint would have answered with
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> getUsers(
+            @RequestBody BatchUserRequest request,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (acceptsNdjson(accept)) {
+            return stream(distinct(request, streamMaxSize));
+        }
+        List<String> usernames = distinct(request, maxSize);
+        logger.info("Received batch request for {} usernames", usernames.size());
+
+        Map<String, BatchUserResult> results = new LinkedHashMap<>();
+        usernames.forEach(username -> results.put(username, null));
+        List<String> valid = validate(usernames, result -> results.put(result.getUsername(), result));
+        if (!valid.isEmpty()) {
+            results.putAll(batchUserProxyService.getUsers(valid));
+        }
+        return ResponseEntity.ok(new BatchUserResponse(new ArrayList<>(results.values())));
+    }
+
+    /**
+     * Stream the results one JSON object per line, in completion order: cached users first, then the others
+     * as GitHub answers for them. Up to {@code streamMaxSize} usernames are accepted, since only a bounded
+     * window of results is held at a time.
+     */
+    private ResponseEntity<StreamingResponseBody> stream(List<String> usernames) {
+        logger.info("Received streamed batch request for {} usernames", usernames.size());
+
+        StreamingResponseBody body = out -> {
+            Consumer<BatchUserResult> writeLine = result -> {
+                try {
+                    objectMapper.writeValue(StreamUtils.nonClosing(out), result);
+                    out.write('\n');
+                    // Each result goes out as soon as it is known; the write blocks while the client is behind
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            try {
+                List<String> valid = validate(usernames, writeLine);
+                batchUserProxyService.streamUsers(valid, writeLine);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private static boolean acceptsNdjson(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The distinct usernames of a batch request, in request order
+     *
+     * @throws InvalidBatchRequestException if there are none or more than {@code max}
+     */
+    private static List<String> distinct(BatchUserRequest request, int max) {
+        List<String> usernames = request.getUsernames() == null
+                ? List.of()
+                : request.getUsernames().stream().distinct().toList();
+        if (usernames.isEmpty() || usernames.size() > max) {
+            throw new InvalidBatchRequestException("A batch must contain between 1 and " + max + " usernames");
+        }
+        return usernames;
+    }
+
+    /**
+     * Pass on a 400 result for every username that cannot be a GitHub login, and return the others
+     */
+    private List<String> validate(List<String> usernames, Consumer<BatchUserResult> invalid) {
+        List<String> valid = new ArrayList<>(usernames.size());
+        for (String username : usernames) {
+            try {
+                UsernameValidator.validate(username);
+                valid.add(username);
+                if (hotKeyTracker != null) {
+                    hotKeyTracker.record(username);
+                }
+            } catch (InvalidUsernameException e) {
+                invalid.accept(BatchUserResult.failed(username,
+                        new ErrorResponse("Bad Request", e.getMessage(), HttpStatus.BAD_REQUEST.value())));
+            }
+        }
+        return valid;
+    }
+}
@@ -0,0 +1,37 @@
+package miller.kyle.github_user_proxy.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Response headers letting clients and shared caches reuse a response, and revalidate it once it expires.
+ * <p>
+ * A request whose {@code If-None-Match} lists the response's {@code ETag} is answered with 304 Not Modified and
+ * no body by Spring MVC itself, since the handlers return a {@link ResponseEntity}.
+ */
+final class CachingHeaders {
+
+    private CachingHeaders() {
+    }
+
+    /**
+     * Add an {@code ETag}, and a {@code Cache-Control} max age running until the expiry of the cached data
+     *
+     * @param etag      entity tag of the body as sent, without quotes, or null if there is none
+     * @param expiresAt when the cached data the body was made from expires, or null if unknown, in which case
+     *                  clients must revalidate before each reuse
+     */
+    static ResponseEntity.BodyBuilder validated(ResponseEntity.BodyBuilder response, String etag, Instant expiresAt) {
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        if (expiresAt == null) {
+            return response.cacheControl(CacheControl.noCache());
+        }
+        long maxAge = Math.max(0, Duration.between(Instant.now(), expiresAt).toSeconds());
+        return response.cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAge)));
+    }
+}
@@ -0,0 +1,83 @@
+package miller.kyle.github_user_proxy.controller;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content negotiation for response bodies cached in gzip and Brotli form, or gzipped per request
+ */
+final class ContentEncoding {
+
+    static final String GZIP = "gzip";
+    static final String BROTLI = "br";
+
+    private ContentEncoding() {
+    }
+
+    /**
+     * How much an {@code Accept-Encoding} header prefers a content coding: its {@code q} value, given by name or
+     * through {@code *}, 1 if the header gives none, and 0 if the coding is not accepted
+     *
+     * @param acceptEncoding header value, or null if the request has none
+     * @param coding         content coding, e.g. {@link #GZIP}
+     */
+    static double quality(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return 0;
+        }
+        double wildcard = 0;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parameters = element.split(";");
+            String name = parameters[0].trim();
+            if (name.equalsIgnoreCase(coding) || (coding.equals(GZIP) && name.equalsIgnoreCase("x-gzip"))) {
+                return quality(parameters);
+            }
+            if (name.equals("*")) {
+                wildcard = quality(parameters);
+            }
+        }
+        return wildcard;
+    }
+
+    /**
+     * Decode a gzipped body for a client that does not accept gzip
+     */
+    static byte[] gunzip(byte[] gzipped) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gzip a body rendered for this request
+     */
+    static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return gzipped.toByteArray();
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 1;
+                }
+            }
+        }
+        return 1;
+    }
+}
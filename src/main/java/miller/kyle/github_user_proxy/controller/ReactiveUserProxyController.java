@@ -0,0 +1,65 @@
+package miller.kyle.github_user_proxy.controller;
+
+import miller.kyle.github_user_proxy.cache.HotKeyTracker;
+import miller.kyle.github_user_proxy.cache.StaleResponse;
+import miller.kyle.github_user_proxy.dto.UserProxyResponse;
+import miller.kyle.github_user_proxy.service.ReactiveUserProxyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reactive REST Controller for the GitHub User Proxy API, active with
+ * {@code spring.main.web-application-type=reactive}
+ */
+@RestController
+@RequestMapping("/api/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserProxyController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveUserProxyController.class);
+
+    private final ReactiveUserProxyService userProxyService;
+    private final HotKeyTracker hotKeyTracker;
+
+    /**
+     * @param hotKeyTracker request counts of usernames, if cache warming is enabled
+     */
+    public ReactiveUserProxyController(
+            ReactiveUserProxyService userProxyService,
+            ObjectProvider<HotKeyTracker> hotKeyTracker) {
+        this.userProxyService = userProxyService;
+        this.hotKeyTracker = hotKeyTracker.getIfAvailable();
+    }
+
+    /**
+     * Get GitHub user data with repositories
+     *
+     * @param username GitHub username; 400 Bad Request if it cannot be a GitHub login
+     * @return UserProxyResponse with user data and repositories; with {@code Warning} and {@code Age} headers
+     *         if GitHub is failing and an expired copy is served instead
+     */
+    @GetMapping("/{username}")
+    public Mono<ResponseEntity<UserProxyResponse>> getUserData(@PathVariable String username) {
+        logger.info("Received request for username: {}", username);
+        UsernameValidator.validate(username);
+        if (hotKeyTracker != null) {
+            hotKeyTracker.record(username);
+        }
+
+        AtomicReference<Duration> staleAge = new AtomicReference<>();
+        return userProxyService.getUserData(username)
+                .map(response -> StaleHeaders.ok(staleAge.get()).body(response))
+                .contextWrite(StaleResponse.capture(staleAge));
+    }
+}
@@ -0,0 +1,31 @@
+package miller.kyle.github_user_proxy.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+/**
+ * Response headers marking a body served from an expired cache entry
+ */
+final class StaleHeaders {
+
+    static final String RESPONSE_IS_STALE = "110 - \"Response is Stale\"";
+
+    private StaleHeaders() {
+    }
+
+    /**
+     * A 200 response, with {@code Warning} and {@code Age} headers if the body is stale
+     *
+     * @param staleAge age of the stale body, or null if it is fresh
+     */
+    static ResponseEntity.BodyBuilder ok(Duration staleAge) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (staleAge != null) {
+            response.header(HttpHeaders.WARNING, RESPONSE_IS_STALE)
+                    .header(HttpHeaders.AGE, Long.toString(staleAge.toSeconds()));
+        }
+        return response;
+    }
+}
@@ -1,42 +1,153 @@
 package miller.kyle.github_user_proxy.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import miller.kyle.github_user_proxy.cache.HotKeyTracker;
+import miller.kyle.github_user_proxy.cache.ResponseExpiry;
+import miller.kyle.github_user_proxy.cache.ResponseTag;
+import miller.kyle.github_user_proxy.cache.StaleResponse;
+import miller.kyle.github_user_proxy.dto.RenderedResponse;
 import miller.kyle.github_user_proxy.dto.UserProxyResponse;
+import miller.kyle.github_user_proxy.service.GitHubDataService;
+import miller.kyle.github_user_proxy.service.RenderedResponseService;
 import miller.kyle.github_user_proxy.service.UserProxyService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
 /**
  * REST Controller for the GitHub User Proxy API
  */
 @RestController
 @RequestMapping("/api/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UserProxyController {
 
     private static final Logger logger = LoggerFactory.getLogger(UserProxyController.class);
 
     private final UserProxyService userProxyService;
+    private final RenderedResponseService renderedResponseService;
+    private final HotKeyTracker hotKeyTracker;
+    private final ObjectMapper objectMapper;
+    private final int gzipThreshold;
 
-    public UserProxyController(UserProxyService userProxyService) {
+    /**
+     * @param renderedResponseService cache of rendered response bodies, if enabled
+     * @param hotKeyTracker           request counts of usernames, if cache warming is enabled
+     * @param gzipThreshold           smallest body, in bytes, gzipped for clients accepting it when it is not
+     *                                cached in rendered form
+     */
+    public UserProxyController(
+            UserProxyService userProxyService,
+            ObjectProvider<RenderedResponseService> renderedResponseService,
+            ObjectProvider<HotKeyTracker> hotKeyTracker,
+            ObjectMapper objectMapper,
+            @Value("${github.cache.rendered.gzip-threshold}") int gzipThreshold) {
         this.userProxyService = userProxyService;
+        this.renderedResponseService = renderedResponseService.getIfAvailable();
+        this.hotKeyTracker = hotKeyTracker.getIfAvailable();
+        this.objectMapper = objectMapper;
+        this.gzipThreshold = gzipThreshold;
     }
 
     /**
      * Get GitHub user data with repositories
      *
-     * @param username GitHub username
-     * @return UserProxyResponse with user data and repositories
+     * @param username       GitHub username; 400 Bad Request if it cannot be a GitHub login
+     * @param acceptEncoding content codings the client accepts; a cached Brotli or gzipped body is sent as is
+     *                       if its coding is one of them, Brotli unless the client prefers gzip, and other
+     *                       bodies of at least the gzip threshold are gzipped if the client accepts gzip
+     * @return UserProxyResponse with user data and repositories, with an {@code ETag} and a {@code Cache-Control}
+     *         max age until the cached data expires, or 304 Not Modified if {@code If-None-Match} has the
+     *         {@code ETag}; with {@code Warning} and {@code Age} headers if GitHub is failing and an expired copy
+     *         is served instead
      */
     @GetMapping("/{username}")
-    public ResponseEntity<UserProxyResponse> getUserData(@PathVariable String username) {
+    public ResponseEntity<?> getUserData(
+            @PathVariable String username,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         logger.info("Received request for username: {}", username);
+        UsernameValidator.validate(username);
+        if (hotKeyTracker != null) {
+            hotKeyTracker.record(username);
+        }
 
+        if (renderedResponseService != null) {
+            return rendered(renderedResponseService.getUserData(username), acceptEncoding);
+        }
         UserProxyResponse response = userProxyService.getUserData(username);
+        return encoded(response, acceptEncoding);
+    }
+
+    /**
+     * Render a response assembled per request, gzipped here rather than by the server so that it keeps a strong
+     * tag: the tags stored with the profile and repo entries it was assembled from, one per content coding
+     */
+    private ResponseEntity<byte[]> encoded(UserProxyResponse userResponse, String acceptEncoding) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(userResponse);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        ResponseEntity.BodyBuilder response = StaleHeaders.ok(StaleResponse.age().orElse(null))
+                .contentType(MediaType.APPLICATION_JSON);
+        // No tag if a part did not come from a tagged entry, e.g. because the cache failed
+        String etag = ResponseTag.etag(GitHubDataService.PROFILES_CACHE, GitHubDataService.REPOS_CACHE).orElse(null);
+        if (body.length >= gzipThreshold) {
+            response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (ContentEncoding.quality(acceptEncoding, ContentEncoding.GZIP) > 0) {
+                body = ContentEncoding.gzip(body);
+                response.header(HttpHeaders.CONTENT_ENCODING, ContentEncoding.GZIP);
+                etag = etag != null ? etag + "-" + ContentEncoding.GZIP : null;
+            }
+        }
+        return CachingHeaders.validated(response, etag, ResponseExpiry.expiresAt().orElse(null))
+                .contentLength(body.length)
+                .body(body);
+    }
 
-        return ResponseEntity.ok(response);
+    /**
+     * Send an already rendered JSON body without going through the message converters' object mapping
+     */
+    private ResponseEntity<byte[]> rendered(RenderedResponse rendered, String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = StaleHeaders.ok(StaleResponse.age().orElse(null))
+                .contentType(MediaType.APPLICATION_JSON);
+        byte[] body = rendered.getBody();
+        String etag = rendered.getEtag();
+        if (rendered.isGzipped()) {
+            response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+            double gzip = ContentEncoding.quality(acceptEncoding, ContentEncoding.GZIP);
+            double brotli = ContentEncoding.quality(acceptEncoding, ContentEncoding.BROTLI);
+            String coding = null;
+            if (rendered.getBrotli() != null && brotli > 0 && brotli >= gzip) {
+                coding = ContentEncoding.BROTLI;
+                body = rendered.getBrotli();
+            } else if (gzip > 0) {
+                coding = ContentEncoding.GZIP;
+            } else {
+                body = ContentEncoding.gunzip(body);
+            }
+            if (coding != null) {
+                response.header(HttpHeaders.CONTENT_ENCODING, coding);
+                // A strong tag identifies the bytes sent, so each encoded body has its own
+                etag = etag != null ? etag + "-" + coding : null;
+            }
+        }
+        Instant expiresAt = rendered.getExpiresAt() > 0 ? Instant.ofEpochMilli(rendered.getExpiresAt()) : null;
+        return CachingHeaders.validated(response, etag, expiresAt).contentLength(body.length).body(body);
     }
 }
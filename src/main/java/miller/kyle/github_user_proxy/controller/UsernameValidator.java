@@ -0,0 +1,30 @@
+package miller.kyle.github_user_proxy.controller;
+
+import miller.kyle.github_user_proxy.exception.InvalidUsernameException;
+
+import java.util.regex.Pattern;
+
+/**
+ * Rejects usernames that cannot be GitHub logins, before any cache or upstream work is done for them
+ */
+final class UsernameValidator {
+
+    /**
+     * 1 to 39 ASCII letters, digits or hyphens, with no leading, trailing or consecutive hyphens; optionally
+     * followed by the {@code _shortcode} suffix of Enterprise Managed User accounts
+     */
+    private static final Pattern GITHUB_LOGIN = Pattern.compile(
+            "[A-Za-z0-9](?:[A-Za-z0-9]|-(?=[A-Za-z0-9])){0,38}(?:_[A-Za-z0-9]{1,39})?");
+
+    private UsernameValidator() {
+    }
+
+    /**
+     * @throws InvalidUsernameException if the username is not a valid GitHub login
+     */
+    static void validate(String username) {
+        if (username == null || !GITHUB_LOGIN.matcher(username).matches()) {
+            throw new InvalidUsernameException(username);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package miller.kyle.github_user_proxy.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * DTO for a batch lookup of several users in one request
+ */
+public class BatchUserRequest {
+
+    @JsonProperty("usernames")
+    private List<String> usernames;
+
+    public BatchUserRequest() {
+    }
+
+    public BatchUserRequest(List<String> usernames) {
+        this.usernames = usernames;
+    }
+
+    public List<String> getUsernames() {
+        return usernames;
+    }
+
+    public void setUsernames(List<String> usernames) {
+        this.usernames = usernames;
+    }
+}
@@ -0,0 +1,29 @@
+package miller.kyle.github_user_proxy.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * DTO for the response to a batch lookup, one result per distinct requested username, in request order
+ */
+public class BatchUserResponse {
+
+    @JsonProperty("users")
+    private List<BatchUserResult> users;
+
+    public BatchUserResponse() {
+    }
+
+    public BatchUserResponse(List<BatchUserResult> users) {
+        this.users = users;
+    }
+
+    public List<BatchUserResult> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<BatchUserResult> users) {
+        this.users = users;
+    }
+}
@@ -0,0 +1,77 @@
+package miller.kyle.github_user_proxy.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * DTO for the outcome of one user in a batch lookup: the user's data, or the error the single-user endpoint
+ * would have answered with
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchUserResult {
+
+    @JsonProperty("username")
+    private String username;
+
+    @JsonProperty("status")
+    private int status;
+
+    @JsonProperty("user")
+    private UserProxyResponse user;
+
+    @JsonProperty("error")
+    private ErrorResponse error;
+
+    public BatchUserResult() {
+    }
+
+    public static BatchUserResult found(String username, UserProxyResponse user) {
+        BatchUserResult result = new BatchUserResult();
+        result.setUsername(username);
+        result.setStatus(200);
+        result.setUser(user);
+        return result;
+    }
+
+    public static BatchUserResult failed(String username, ErrorResponse error) {
+        BatchUserResult result = new BatchUserResult();
+        result.setUsername(username);
+        result.setStatus(error.getStatus());
+        result.setError(error);
+        return result;
+    }
+
+    // Getters and Setters
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public UserProxyResponse getUser() {
+        return user;
+    }
+
+    public void setUser(UserProxyResponse user) {
+        this.user = user;
+    }
+
+    public ErrorResponse getError() {
+        return error;
+    }
+
+    public void setError(ErrorResponse error) {
+        this.error = error;
+    }
+}
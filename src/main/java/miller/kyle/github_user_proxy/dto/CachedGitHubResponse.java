@@ -0,0 +1,62 @@
+package miller.kyle.github_user_proxy.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * DTO holding the validators GitHub sent for a response, used to revalidate it with a conditional request.
+ * The body itself is not kept: on {@code 304 Not Modified} it is rebuilt from the cached profile or repo list,
+ * provided that still matches the stored fingerprint. Entries written with a body are read without it.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CachedGitHubResponse {
+
+    private String etag;
+    private String lastModified;
+    private String link;
+    private Integer fingerprint;
+
+    public CachedGitHubResponse() {
+    }
+
+    public CachedGitHubResponse(String etag, String lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    // Getters and Setters
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(String lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    public String getLink() {
+        return link;
+    }
+
+    public void setLink(String link) {
+        this.link = link;
+    }
+
+    /**
+     * Hash of the body the validators were sent with, so a 304 is only answered from a cached body equal to it
+     */
+    public Integer getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(Integer fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+}
@@ -0,0 +1,93 @@
+package miller.kyle.github_user_proxy.dto;
+
+/**
+ * DTO holding the final JSON body of a {@link UserProxyResponse}, gzipped if it is large and then also kept
+ * Brotli-encoded, so a cached response can be sent without mapping or compressing it again, together with its
+ * validator and expiry for HTTP caching
+ */
+public class RenderedResponse {
+
+    private byte[] body;
+    private boolean gzipped;
+    private byte[] brotli;
+    private String etag;
+    private long expiresAt;
+
+    public RenderedResponse() {
+    }
+
+    /**
+     * @param body    JSON body, as sent to clients
+     * @param gzipped whether the body is gzip-encoded
+     */
+    public RenderedResponse(byte[] body, boolean gzipped) {
+        this.body = body;
+        this.gzipped = gzipped;
+    }
+
+    /**
+     * @param body      JSON body, as sent to clients
+     * @param gzipped   whether the body is gzip-encoded
+     * @param brotli    the same JSON Brotli-encoded, or null
+     * @param etag      strong entity tag of the JSON body, without quotes
+     * @param expiresAt epoch millis until which the body may be reused without revalidation
+     */
+    public RenderedResponse(byte[] body, boolean gzipped, byte[] brotli, String etag, long expiresAt) {
+        this.body = body;
+        this.gzipped = gzipped;
+        this.brotli = brotli;
+        this.etag = etag;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public void setBody(byte[] body) {
+        this.body = body;
+    }
+
+    public boolean isGzipped() {
+        return gzipped;
+    }
+
+    public void setGzipped(boolean gzipped) {
+        this.gzipped = gzipped;
+    }
+
+    /**
+     * Brotli-encoded JSON body, or null if the body was not compressed or Brotli is unavailable
+     */
+    public byte[] getBrotli() {
+        return brotli;
+    }
+
+    public void setBrotli(byte[] brotli) {
+        this.brotli = brotli;
+    }
+
+    /**
+     * Entity tag, or null for bodies rendered before tags were stored
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    /**
+     * Epoch millis until which the body is fresh, or 0 if unknown
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
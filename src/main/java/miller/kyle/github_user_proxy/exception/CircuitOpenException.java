@@ -0,0 +1,11 @@
+package miller.kyle.github_user_proxy.exception;
+
+/**
+ * Exception thrown when a GitHub call is short-circuited because the upstream is failing
+ */
+public class CircuitOpenException extends GitHubApiException {
+
+    public CircuitOpenException() {
+        super("GitHub API unavailable, calls are suspended");
+    }
+}
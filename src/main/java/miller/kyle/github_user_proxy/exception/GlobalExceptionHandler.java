@@ -3,8 +3,12 @@ package miller.kyle.github_user_proxy.exception;
 import miller.kyle.github_user_proxy.dto.ErrorResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
@@ -33,6 +37,73 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
     }
 
+    /**
+     * Handle InvalidUsernameException (400)
+     */
+    @ExceptionHandler(InvalidUsernameException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidUsernameException(InvalidUsernameException ex) {
+        logger.warn("Invalid username: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                "Bad Request",
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value()
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    /**
+     * Handle InvalidBatchRequestException (400)
+     */
+    @ExceptionHandler(InvalidBatchRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidBatchRequestException(InvalidBatchRequestException ex) {
+        logger.warn("Invalid batch request: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                "Bad Request",
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value()
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    /**
+     * Handle HttpMessageNotReadableException (400) - request body missing or not valid JSON
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponse> handleHttpMessageNotReadableException(HttpMessageNotReadableException ex) {
+        logger.warn("Unreadable request body: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                "Bad Request",
+                "Request body is missing or is not valid JSON",
+                HttpStatus.BAD_REQUEST.value()
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    /**
+     * Handle HttpMediaTypeNotSupportedException (415) - request body sent as something other than JSON
+     */
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<ErrorResponse> handleHttpMediaTypeNotSupportedException(
+            HttpMediaTypeNotSupportedException ex) {
+        logger.warn("Unsupported media type: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                "Unsupported Media Type",
+                "Content type " + ex.getContentType() + " is not supported, use application/json",
+                HttpStatus.UNSUPPORTED_MEDIA_TYPE.value()
+        );
+
+        return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .body(errorResponse);
+    }
+
     /**
      * Handle GitHubApiException (502 Bad Gateway)
      */
@@ -50,10 +121,13 @@ public class GlobalExceptionHandler {
     }
 
     /**
-     * Handle NoResourceFoundException (404) - wrong endpoint path
+     * Handle NoResourceFoundException (404) - wrong endpoint path, on either serving stack
      */
-    @ExceptionHandler(NoResourceFoundException.class)
-    public ResponseEntity<ErrorResponse> handleNoResourceFoundException(NoResourceFoundException ex) {
+    @ExceptionHandler({
+            NoResourceFoundException.class,
+            org.springframework.web.reactive.resource.NoResourceFoundException.class
+    })
+    public ResponseEntity<ErrorResponse> handleNoResourceFoundException(Exception ex) {
         logger.warn("Resource not found: {}", ex.getMessage());
 
         ErrorResponse errorResponse = new ErrorResponse(
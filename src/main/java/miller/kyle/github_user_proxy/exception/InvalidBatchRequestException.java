@@ -0,0 +1,11 @@
+package miller.kyle.github_user_proxy.exception;
+
+/**
+ * Exception thrown when a batch lookup is empty or asks for more users than allowed
+ */
+public class InvalidBatchRequestException extends RuntimeException {
+
+    public InvalidBatchRequestException(String message) {
+        super(message);
+    }
+}
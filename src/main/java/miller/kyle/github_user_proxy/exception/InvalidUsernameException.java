@@ -0,0 +1,11 @@
+package miller.kyle.github_user_proxy.exception;
+
+/**
+ * Exception thrown when a requested username cannot be a GitHub login
+ */
+public class InvalidUsernameException extends RuntimeException {
+
+    public InvalidUsernameException(String username) {
+        super("Invalid GitHub username: " + username);
+    }
+}
@@ -0,0 +1,300 @@
+package miller.kyle.github_user_proxy.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import miller.kyle.github_user_proxy.cache.CacheEntry;
+import miller.kyle.github_user_proxy.cache.NotFoundFilter;
+import miller.kyle.github_user_proxy.cache.RedisAvailability;
+import miller.kyle.github_user_proxy.cache.RedisMultiGet;
+import miller.kyle.github_user_proxy.cache.RefreshAheadPolicy;
+import miller.kyle.github_user_proxy.dto.BatchUserResult;
+import miller.kyle.github_user_proxy.dto.ErrorResponse;
+import miller.kyle.github_user_proxy.dto.GitHubUserResponse;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+import miller.kyle.github_user_proxy.dto.UserProxyResponse;
+import miller.kyle.github_user_proxy.exception.GitHubApiException;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Looks up many users at once.
+ * <p>
+ * The cached profile, repository list and not-found marker of every requested user are read from Redis in a
+ * single multi-key read (see {@link RedisMultiGet}). Users with a fresh profile and repository list are
+ * answered from that read alone, and users GitHub recently reported as not found fail without another lookup.
+ * The rest go through {@link UserProxyService} as single lookups would, so their misses are coalesced, expired
+ * entries reloaded or served stale, and new data cached, with at most {@code concurrency} of them at a time.
+ * Large lookups can be streamed instead, see {@link #streamUsers}.
+ * <p>
+ * Publishes {@code batch.users} counters tagged by result ({@code hit}/{@code miss}).
+ */
+@Service
+public class BatchUserProxyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchUserProxyService.class);
+
+    /**
+     * Users read from the cache at once when streaming
+     */
+    static final int STREAM_CHUNK_SIZE = 100;
+
+    private final UserProxyService userProxyService;
+    private final RedisMultiGet redisMultiGet;
+    private final RedisSerializer<Object> cacheValueSerializer;
+    private final RefreshAheadPolicy refreshAheadPolicy;
+    private final NotFoundFilter notFoundFilter;
+    private final RedisAvailability redisAvailability;
+    private final ExecutorService githubExecutor;
+    private final int concurrency;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    /**
+     * @param concurrency most users of one batch looked up through {@link UserProxyService} at a time
+     */
+    public BatchUserProxyService(
+            UserProxyService userProxyService,
+            RedisMultiGet redisMultiGet,
+            RedisSerializer<Object> cacheValueSerializer,
+            RefreshAheadPolicy refreshAheadPolicy,
+            ObjectProvider<NotFoundFilter> notFoundFilter,
+            ObjectProvider<RedisAvailability> redisAvailability,
+            ExecutorService githubExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${github.batch.concurrency}") int concurrency) {
+        this.userProxyService = userProxyService;
+        this.redisMultiGet = redisMultiGet;
+        this.cacheValueSerializer = cacheValueSerializer;
+        this.refreshAheadPolicy = refreshAheadPolicy;
+        this.notFoundFilter = notFoundFilter.getIfAvailable();
+        this.redisAvailability = redisAvailability.getIfAvailable();
+        this.githubExecutor = githubExecutor;
+        this.concurrency = concurrency;
+        this.cacheHits = Counter.builder("batch.users")
+                .description("Users of batch lookups answered from a single multi-key cache read")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("batch.users")
+                .description("Users of batch lookups looked up individually")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the data of several users
+     *
+     * @param usernames distinct, valid GitHub usernames
+     * @return result per username, in the given order
+     */
+    public Map<String, BatchUserResult> getUsers(List<String> usernames) {
+        Map<String, BatchUserResult> results = new LinkedHashMap<>();
+        // Misses keep their place in the request order and are filled in once looked up
+        usernames.forEach(username -> results.put(username, null));
+        List<String> toLookUp = resolveCached(usernames, result -> results.put(result.getUsername(), result));
+
+        Semaphore permits = new Semaphore(concurrency);
+        Map<String, Future<BatchUserResult>> lookups = new LinkedHashMap<>();
+        for (String username : toLookUp) {
+            lookups.put(username, githubExecutor.submit(() -> {
+                permits.acquire();
+                try {
+                    return lookUp(username);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+        try {
+            for (Map.Entry<String, Future<BatchUserResult>> lookup : lookups.entrySet()) {
+                results.put(lookup.getKey(), lookup.getValue().get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch lookup failed", e.getCause());
+        } catch (InterruptedException e) {
+            lookups.values().forEach(lookup -> lookup.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new GitHubApiException("Interrupted while fetching data from GitHub", e);
+        }
+        return results;
+    }
+
+    /**
+     * Pass the data of many users to a consumer as each result is ready, without holding them all.
+     * <p>
+     * The cache is read {@value #STREAM_CHUNK_SIZE} users at a time and hits are passed on straight away.
+     * Misses are looked up in the background and passed on as they complete. A new lookup only starts once
+     * fewer than {@code concurrency} results are outstanding, so a slow consumer slows the lookups down instead
+     * of letting results pile up.
+     *
+     * @param usernames distinct, valid GitHub usernames
+     * @param sink      receives one result per username, in completion order, on the calling thread
+     */
+    public void streamUsers(List<String> usernames, Consumer<BatchUserResult> sink) {
+        BlockingQueue<BatchUserResult> completed = new LinkedBlockingQueue<>();
+        Map<String, FutureTask<?>> inFlight = new HashMap<>();
+        try {
+            for (int from = 0; from < usernames.size(); from += STREAM_CHUNK_SIZE) {
+                List<String> chunk = usernames.subList(from, Math.min(from + STREAM_CHUNK_SIZE, usernames.size()));
+                for (String username : resolveCached(chunk, sink)) {
+                    if (inFlight.size() >= concurrency) {
+                        emit(completed.take(), sink, inFlight);
+                    }
+                    FutureTask<?> lookup = new FutureTask<>(() -> completed.add(lookUp(username)), null);
+                    inFlight.put(username, lookup);
+                    githubExecutor.execute(lookup);
+                    for (BatchUserResult ready = completed.poll(); ready != null; ready = completed.poll()) {
+                        emit(ready, sink, inFlight);
+                    }
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                emit(completed.take(), sink, inFlight);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GitHubApiException("Interrupted while fetching data from GitHub", e);
+        } finally {
+            // Only left over if the consumer failed, e.g. because the client went away
+            inFlight.values().forEach(lookup -> lookup.cancel(true));
+        }
+    }
+
+    /**
+     * Failure of one user's lookup, as the single-user endpoint would have answered it
+     */
+    public static ErrorResponse errorFor(Throwable e) {
+        if (e instanceof UserNotFoundException) {
+            return new ErrorResponse("Not Found", e.getMessage(), HttpStatus.NOT_FOUND.value());
+        }
+        if (e instanceof GitHubApiException) {
+            return new ErrorResponse("Bad Gateway", "Error communicating with GitHub API: " + e.getMessage(),
+                    HttpStatus.BAD_GATEWAY.value());
+        }
+        return new ErrorResponse("Internal Server Error", "An unexpected error occurred",
+                HttpStatus.INTERNAL_SERVER_ERROR.value());
+    }
+
+    /**
+     * Pass on the users answered by one multi-key cache read, and return the ones that have to be looked up
+     */
+    private List<String> resolveCached(List<String> usernames, Consumer<BatchUserResult> sink) {
+        List<String> toLookUp = new ArrayList<>();
+        List<Object> cached = readCached(usernames);
+        for (int i = 0; i < usernames.size(); i++) {
+            String username = usernames.get(i);
+            BatchUserResult result = fromCache(username, cached.get(3 * i), cached.get(3 * i + 1),
+                    cached.get(3 * i + 2));
+            if (result != null) {
+                sink.accept(result);
+            } else {
+                toLookUp.add(username);
+            }
+        }
+        cacheHits.increment(usernames.size() - toLookUp.size());
+        cacheMisses.increment(toLookUp.size());
+        logger.debug("Batch of {} users: {} answered from cache, {} looked up", usernames.size(),
+                usernames.size() - toLookUp.size(), toLookUp.size());
+        return toLookUp;
+    }
+
+    /**
+     * Profile, repository list and not-found marker of every user, in that order, null where not cached
+     */
+    private List<Object> readCached(List<String> usernames) {
+        Object[] values = new Object[3 * usernames.size()];
+        if (usernames.isEmpty() || (redisAvailability != null && !redisAvailability.isUp())) {
+            return Arrays.asList(values);
+        }
+
+        List<byte[]> keys = new ArrayList<>(values.length);
+        for (String username : usernames) {
+            keys.add(key(GitHubDataService.PROFILES_CACHE, username));
+            keys.add(key(GitHubDataService.REPOS_CACHE, username));
+            keys.add(key(UserProxyService.NOT_FOUND_CACHE, username));
+        }
+        try {
+            List<byte[]> serialized = redisMultiGet.get(keys);
+            for (int i = 0; i < values.length; i++) {
+                values[i] = serialized.get(i) != null ? cacheValueSerializer.deserialize(serialized.get(i)) : null;
+            }
+        } catch (DataAccessException | SerializationException e) {
+            logger.warn("Batch cache read failed, looking up all {} users individually: {}", usernames.size(),
+                    e.getMessage());
+            Arrays.fill(values, null);
+        }
+        return Arrays.asList(values);
+    }
+
+    /**
+     * Answer a user from the multi-key read, or null if the user has to be looked up
+     */
+    @SuppressWarnings("unchecked")
+    private BatchUserResult fromCache(String username, Object profile, Object repos, Object notFound) {
+        Object githubUser = fresh(profile);
+        Object repoList = fresh(repos);
+        if (githubUser != null && repoList != null) {
+            return BatchUserResult.found(username,
+                    UserResponseMapper.toResponse((GitHubUserResponse) githubUser, (List<RepoInfo>) repoList));
+        }
+        // Only a user missing from the cache can be not found, so a filter false positive never hides a cached one
+        if (notFound != null || (notFoundFilter != null && notFoundFilter.mightContain(username))) {
+            return BatchUserResult.failed(username, errorFor(new UserNotFoundException(username)));
+        }
+        return null;
+    }
+
+    /**
+     * A cached value that can be served without a reload, or null
+     */
+    private Object fresh(Object cached) {
+        if (cached instanceof CacheEntry entry) {
+            return refreshAheadPolicy.isExpired(entry) ? null : entry.getValue();
+        }
+        // Written before entries carried expiry metadata
+        return cached;
+    }
+
+    /**
+     * Look up one user through the regular path
+     */
+    private BatchUserResult lookUp(String username) {
+        try {
+            return BatchUserResult.found(username, userProxyService.getUserData(username));
+        } catch (RuntimeException e) {
+            return BatchUserResult.failed(username, errorFor(e));
+        }
+    }
+
+    private static void emit(BatchUserResult result, Consumer<BatchUserResult> sink, Map<String, ?> inFlight) {
+        inFlight.remove(result.getUsername());
+        sink.accept(result);
+    }
+
+    private static byte[] key(String cacheName, String username) {
+        return (cacheName + "::" + username).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,220 @@
+package miller.kyle.github_user_proxy.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import miller.kyle.github_user_proxy.cache.HotKeyTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pre-loads the profiles and repository lists of the most requested usernames after startup, so a new node,
+ * or one whose Redis was flushed, does not send its first wave of requests to GitHub.
+ * <p>
+ * Every node periodically replaces its own sorted set in Redis with its busiest usernames (see
+ * {@link HotKeyTracker}), scored by rank, and once more on shutdown. As the tracker decays past traffic, a
+ * username that cools down drops out of its node's set at the next write. The set of a node that stopped
+ * writing, e.g. the previous instance of a restarted pod, expires after a day. When a node is ready, a background
+ * job merges the sets of every node that wrote within that day, summing the scores, and loads the top
+ * {@code topN} through the profile and repo caches, at most {@code rate} usernames per second, so entries still
+ * in Redis only fill the local tier and missing ones do not flood GitHub.
+ */
+@Service
+@ConditionalOnProperty(name = "github.cache.warmup.enabled", havingValue = "true")
+public class CacheWarmer {
+
+    /**
+     * Prefix of each node's sorted set of hot usernames
+     */
+    public static final String HOT_USERS_KEY = "github-user-proxy:hot-users";
+
+    /**
+     * Sorted set of node ids, scored by when each last wrote its hot usernames
+     */
+    public static final String NODES_KEY = HOT_USERS_KEY + ":nodes";
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmer.class);
+
+    /**
+     * The hot usernames of a node that has not persisted them for this long are forgotten
+     */
+    private static final Duration HOT_USERS_TTL = Duration.ofDays(1);
+
+    private final String nodeKey = HOT_USERS_KEY + ":" + UUID.randomUUID();
+
+    private final GitHubDataService gitHubDataService;
+    private final HotKeyTracker hotKeyTracker;
+    private final StringRedisTemplate redisTemplate;
+    private final int topN;
+    private final long pauseNanos;
+    private final Counter warmed;
+    private final Counter failed;
+
+    private final AtomicInteger processed = new AtomicInteger();
+    private volatile int total = -1;
+    private volatile boolean finished;
+
+    /**
+     * @param topN number of usernames persisted by each node and warmed on startup
+     * @param rate most usernames warmed per second
+     */
+    public CacheWarmer(
+            GitHubDataService gitHubDataService,
+            HotKeyTracker hotKeyTracker,
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${github.cache.warmup.top-n}") int topN,
+            @Value("${github.cache.warmup.rate}") double rate) {
+        this.gitHubDataService = gitHubDataService;
+        this.hotKeyTracker = hotKeyTracker;
+        this.redisTemplate = redisTemplate;
+        this.topN = topN;
+        this.pauseNanos = (long) (1_000_000_000 / rate);
+        this.warmed = Counter.builder("cache.warmup.users")
+                .description("Hot usernames pre-loaded on startup")
+                .tag("result", "loaded")
+                .register(meterRegistry);
+        this.failed = Counter.builder("cache.warmup.users")
+                .description("Hot usernames that could not be pre-loaded on startup")
+                .tag("result", "failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start warming in the background once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread.ofVirtual().name("cache-warmup").start(this::warmUp);
+    }
+
+    /**
+     * Replace this node's hot usernames in Redis with its current busiest ones, then let older traffic weigh
+     * less. If Redis cannot be written, the counts are kept as they are for the next attempt.
+     */
+    @Scheduled(initialDelayString = "${github.cache.warmup.persist-interval}",
+            fixedDelayString = "${github.cache.warmup.persist-interval}")
+    public void persist() {
+        List<String> top = hotKeyTracker.top();
+        if (top.isEmpty()) {
+            return;
+        }
+        // Scored by rank rather than count, so a busy node does not crowd out the others' hot usernames
+        Set<TypedTuple<String>> ranked = new LinkedHashSet<>();
+        for (int i = 0; i < top.size(); i++) {
+            ranked.add(new DefaultTypedTuple<>(top.get(i), (double) (topN - i)));
+        }
+        try {
+            redisTemplate.delete(nodeKey);
+            redisTemplate.opsForZSet().add(nodeKey, ranked);
+            redisTemplate.expire(nodeKey, HOT_USERS_TTL);
+            redisTemplate.opsForZSet().add(NODES_KEY, nodeKey, System.currentTimeMillis());
+            redisTemplate.expire(NODES_KEY, HOT_USERS_TTL);
+            logger.debug("Persisted {} hot usernames", top.size());
+        } catch (DataAccessException e) {
+            logger.warn("Could not persist hot usernames: {}", e.getMessage());
+            return;
+        }
+        hotKeyTracker.decay();
+    }
+
+    @PreDestroy
+    public void persistOnShutdown() {
+        persist();
+    }
+
+    /**
+     * Share of the hot usernames warmed so far: 0 before the list is loaded, 1 once warming has finished
+     */
+    public double progress() {
+        if (finished) {
+            return 1.0;
+        }
+        int known = total;
+        return known <= 0 ? 0.0 : (double) processed.get() / known;
+    }
+
+    void warmUp() {
+        try {
+            List<String> usernames = load();
+            total = usernames.size();
+            logger.info("Warming caches for {} hot usernames", usernames.size());
+            long next = System.nanoTime();
+            for (String username : usernames) {
+                long pause = next - System.nanoTime();
+                if (pause > 0) {
+                    Thread.sleep(Duration.ofNanos(pause));
+                }
+                next = Math.max(next, System.nanoTime()) + pauseNanos;
+                warm(username);
+                processed.incrementAndGet();
+            }
+            logger.info("Cache warm-up finished: {} loaded, {} failed", (long) warmed.count(), (long) failed.count());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            finished = true;
+        }
+    }
+
+    /**
+     * The top usernames of every node that persisted them within the last day, by their summed scores
+     */
+    private List<String> load() {
+        try {
+            long cutoff = System.currentTimeMillis() - HOT_USERS_TTL.toMillis();
+            redisTemplate.opsForZSet().removeRangeByScore(NODES_KEY, Double.NEGATIVE_INFINITY, cutoff);
+            Set<String> nodeKeys = redisTemplate.opsForZSet().rangeByScore(NODES_KEY, cutoff, Double.POSITIVE_INFINITY);
+            if (nodeKeys == null) {
+                return List.of();
+            }
+            Map<String, Double> scores = new HashMap<>();
+            for (String key : nodeKeys) {
+                Set<TypedTuple<String>> hot = redisTemplate.opsForZSet().reverseRangeWithScores(key, 0, topN - 1);
+                if (hot != null) {
+                    hot.forEach(user -> scores.merge(user.getValue(), user.getScore(), Double::sum));
+                }
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder()))
+                    .limit(topN)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } catch (DataAccessException e) {
+            logger.warn("Could not load hot usernames, skipping cache warm-up: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private void warm(String username) {
+        try {
+            gitHubDataService.getUser(username);
+            gitHubDataService.getUserRepos(username);
+            warmed.increment();
+        } catch (RuntimeException e) {
+            // Includes usernames deleted since; those now sit in the not-found cache instead
+            logger.debug("Could not warm caches for user {}: {}", username, e.getMessage());
+            failed.increment();
+        }
+    }
+}
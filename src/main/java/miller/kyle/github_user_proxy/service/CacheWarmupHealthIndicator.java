@@ -0,0 +1,41 @@
+package miller.kyle.github_user_proxy.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports {@code OUT_OF_SERVICE} until the startup cache warm-up has covered the target share of hot usernames.
+ * <p>
+ * Added to the readiness group ({@code management.endpoint.health.group.readiness.include}), it keeps a new
+ * node out of the load balancer until its caches are mostly warm. A target of 0 reports {@code UP} at once.
+ */
+@Component("cacheWarmup")
+@ConditionalOnProperty(name = "github.cache.warmup.enabled", havingValue = "true")
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+    private final CacheWarmer cacheWarmer;
+    private final double target;
+
+    /**
+     * @param target share of hot usernames, between 0 and 1, to warm before reporting {@code UP}
+     */
+    public CacheWarmupHealthIndicator(
+            CacheWarmer cacheWarmer,
+            @Value("${github.cache.warmup.readiness-target}") double target) {
+        this.cacheWarmer = cacheWarmer;
+        this.target = target;
+    }
+
+    @Override
+    public Health health() {
+        double progress = cacheWarmer.progress();
+        Health.Builder health = progress >= target ? Health.up() : Health.outOfService();
+        return health
+                .withDetail("progress", progress)
+                .withDetail("target", target)
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package miller.kyle.github_user_proxy.service;
+
+import miller.kyle.github_user_proxy.client.GitHubApiClient;
+import miller.kyle.github_user_proxy.dto.GitHubUserResponse;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Caches a user's GitHub profile and repository list as separate entries, each with its own time to live,
+ * so that when one of them expires only that one is fetched again.
+ * <p>
+ * Concurrent cache misses for the same username share a single upstream load, and a username recently found
+ * not to exist fails without calling GitHub.
+ */
+@Service
+public class GitHubDataService {
+
+    public static final String PROFILES_CACHE = "github-user-profiles";
+    public static final String REPOS_CACHE = "github-user-repos";
+
+    private static final Logger logger = LoggerFactory.getLogger(GitHubDataService.class);
+
+    private final GitHubApiClient gitHubApiClient;
+
+    public GitHubDataService(GitHubApiClient gitHubApiClient) {
+        this.gitHubApiClient = gitHubApiClient;
+    }
+
+    /**
+     * Get a user's profile from GitHub
+     *
+     * @param username GitHub username
+     * @return the user's profile
+     */
+    @Cacheable(value = PROFILES_CACHE, key = "#username", sync = true)
+    public GitHubUserResponse getUser(String username) {
+        logger.info("Fetching profile for user: {}", username);
+        return gitHubApiClient.getUser(username);
+    }
+
+    /**
+     * Get a user's repositories from GitHub, up to the configured maximum
+     *
+     * @param username GitHub username
+     * @return List of repositories, in GitHub's order
+     */
+    @Cacheable(value = REPOS_CACHE, key = "#username", sync = true)
+    public List<RepoInfo> getUserRepos(String username) {
+        logger.info("Fetching repositories for user: {}", username);
+        List<RepoInfo> repos = gitHubApiClient.getUserRepos(username);
+        logger.info("Fetched {} repositories for user: {}", repos.size(), username);
+        return repos;
+    }
+}
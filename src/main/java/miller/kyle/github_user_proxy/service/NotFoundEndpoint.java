@@ -0,0 +1,53 @@
+package miller.kyle.github_user_proxy.service;
+
+import miller.kyle.github_user_proxy.cache.NotFoundCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint forgetting usernames GitHub reported as not found, e.g. after an account was created.
+ * <p>
+ * Only the not-found cache is touched, never the profile and repo caches. Evicting a username or clearing the
+ * cache also clears the not-found filter of every node (see {@link NotFoundCache}).
+ * Exposed on the management port only.
+ */
+@Component
+@Endpoint(id = "notfound")
+public class NotFoundEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotFoundEndpoint.class);
+
+    private final CacheManager cacheManager;
+
+    public NotFoundEndpoint(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Forget every not-found username: {@code DELETE /actuator/notfound}
+     */
+    @DeleteOperation
+    public void clear() {
+        logger.info("Clearing the not-found cache");
+        notFoundCache().clear();
+    }
+
+    /**
+     * Forget one not-found username: {@code DELETE /actuator/notfound/{username}}
+     */
+    @DeleteOperation
+    public void evict(@Selector String username) {
+        logger.info("Evicting {} from the not-found cache", username);
+        notFoundCache().evict(username);
+    }
+
+    private Cache notFoundCache() {
+        return cacheManager.getCache(UserProxyService.NOT_FOUND_CACHE);
+    }
+}
@@ -0,0 +1,245 @@
+package miller.kyle.github_user_proxy.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import miller.kyle.github_user_proxy.cache.CacheEntry;
+import miller.kyle.github_user_proxy.cache.NotFoundFilter;
+import miller.kyle.github_user_proxy.cache.RefreshAheadPolicy;
+import miller.kyle.github_user_proxy.cache.StaleResponse;
+import miller.kyle.github_user_proxy.client.ReactiveGitHubApiClient;
+import miller.kyle.github_user_proxy.dto.GitHubUserResponse;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+import miller.kyle.github_user_proxy.dto.UserProxyResponse;
+import miller.kyle.github_user_proxy.exception.GitHubApiException;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Non-blocking counterpart of {@link UserProxyService}, used by the reactive serving stack.
+ * <p>
+ * Entries live under the same Redis keys, in the same format, as those written by the blocking cache
+ * manager, so both stacks can share one cache: profiles and repository lists are cached separately, each with
+ * its own TTL, and only the part that expired is fetched again. Concurrent misses for the same entry share a
+ * single upstream load, and entries due for an early refresh are reloaded in the background while the current
+ * value is served. Usernames GitHub reported as not found are remembered in the shared not-found cache and
+ * this node's {@link NotFoundFilter}.
+ * <p>
+ * Redis is a cache, not a dependency: a read that fails counts as a miss and a write that fails is skipped, so
+ * requests are served from GitHub while Redis is unreachable.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserProxyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveUserProxyService.class);
+
+    private final ReactiveRedisTemplate<String, Object> userCacheRedisTemplate;
+    private final NotFoundFilter notFoundFilter;
+    private final Duration notFoundTtl;
+    private final Part profiles;
+    private final Part repos;
+    private final ConcurrentMap<String, Mono<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public ReactiveUserProxyService(
+            ReactiveGitHubApiClient gitHubApiClient,
+            ReactiveRedisTemplate<String, Object> userCacheRedisTemplate,
+            RefreshAheadPolicy refreshAheadPolicy,
+            ObjectProvider<NotFoundFilter> notFoundFilter,
+            MeterRegistry meterRegistry,
+            @Value("${github.cache.profiles.ttl}") Duration profilesTtl,
+            @Value("${github.cache.repos.ttl}") Duration reposTtl,
+            @Value("${github.cache.not-found.ttl}") Duration notFoundTtl) {
+        this.userCacheRedisTemplate = userCacheRedisTemplate;
+        this.notFoundFilter = notFoundFilter.getIfAvailable();
+        this.notFoundTtl = notFoundTtl;
+        this.profiles = new Part(GitHubDataService.PROFILES_CACHE, refreshAheadPolicy.withTtl(profilesTtl),
+                gitHubApiClient::getUser, meterRegistry);
+        this.repos = new Part(GitHubDataService.REPOS_CACHE, refreshAheadPolicy.withTtl(reposTtl),
+                gitHubApiClient::getUserRepos, meterRegistry);
+    }
+
+    /**
+     * Get user information and repositories from GitHub, transformed to our API format.
+     * If GitHub fails while an expired entry is being reloaded, the expired value is served and reported via
+     * {@link StaleResponse}.
+     *
+     * @param username GitHub username
+     * @return UserProxyResponse with transformed data
+     */
+    @SuppressWarnings("unchecked")
+    public Mono<UserProxyResponse> getUserData(String username) {
+        // Look up the profile and repositories concurrently; a failed profile lookup cancels the repos
+        Mono<Object> profile = lookup(profiles, username).cache();
+        // As on the blocking stack, the profile's error wins, e.g. a 404 for an unknown user over a repos failure
+        Mono<Object> repoList = lookup(repos, username).onErrorResume(e -> profile.then(Mono.error(e)));
+        return Mono.zip(profile, repoList)
+                .map(parts -> UserResponseMapper.toResponse(
+                        (GitHubUserResponse) parts.getT1(), (List<RepoInfo>) parts.getT2()));
+    }
+
+    /**
+     * Look up one part of a user's data, from the cache if possible
+     */
+    private Mono<Object> lookup(Part part, String username) {
+        String cacheKey = part.cacheName + "::" + username;
+        return inFlight.computeIfAbsent(cacheKey, key -> userCacheRedisTemplate.opsForValue().get(cacheKey)
+                        .onErrorResume(DataAccessException.class, e -> readFailed(cacheKey, e))
+                        .flatMap(cached -> fromCache(part, username, cacheKey, cached))
+                        .switchIfEmpty(Mono.defer(() -> loadUnlessNotFound(part, username, cacheKey)))
+                        .doFinally(signal -> inFlight.remove(cacheKey))
+                        .cache())
+                // Shared by coalesced callers up to here; staleness is reported to each subscriber
+                .flatMap(served -> Mono.deferContextual(context -> Mono.just(unwrap(part, served, context))));
+    }
+
+    /**
+     * Resolve a cached value: reload it if expired, falling back to the expired entry if GitHub fails,
+     * and start a background refresh if it is due for one
+     */
+    private Mono<Object> fromCache(Part part, String username, String cacheKey, Object cached) {
+        if (!(cached instanceof CacheEntry entry)) {
+            // Written before entries carried expiry metadata
+            return Mono.just(cached);
+        }
+        if (part.policy.isExpired(entry)) {
+            return load(part, username, cacheKey)
+                    .cast(Object.class)
+                    .onErrorResume(GitHubApiException.class, e -> {
+                        logger.warn("Reloading {} failed, serving the expired value: {}", cacheKey, e.getMessage());
+                        return Mono.just(entry);
+                    });
+        }
+        if (part.policy.shouldRefreshEarly(entry) && refreshing.add(cacheKey)) {
+            logger.debug("Refreshing {} ahead of expiry", cacheKey);
+            load(part, username, cacheKey)
+                    .doFinally(signal -> refreshing.remove(cacheKey))
+                    .subscribe(fresh -> { }, e -> logger.warn(
+                            "Early refresh of {} failed, keeping the current value: {}", cacheKey, e.getMessage()));
+        }
+        return Mono.just(entry);
+    }
+
+    /**
+     * Load a part missing from the cache, unless GitHub recently reported the user as not found. This node's
+     * filter is only asked on a miss, so a false positive never hides a cached user.
+     */
+    private Mono<Object> loadUnlessNotFound(Part part, String username, String cacheKey) {
+        if (notFoundFilter != null && notFoundFilter.mightContain(username)) {
+            logger.debug("Not-found filter hit for user: {}", username);
+            part.filterHits.increment();
+            return Mono.error(new UserNotFoundException(username));
+        }
+        String notFoundKey = UserProxyService.NOT_FOUND_CACHE + "::" + username;
+        Mono<Boolean> notFoundCached = userCacheRedisTemplate.hasKey(notFoundKey)
+                .onErrorResume(DataAccessException.class, e -> readFailed(notFoundKey, e).thenReturn(false));
+        return notFoundCached.flatMap(notFound -> {
+            if (notFound) {
+                logger.debug("Not-found cache hit for user: {}", username);
+                part.redisHits.increment();
+                rememberNotFound(username);
+                return Mono.error(new UserNotFoundException(username));
+            }
+            return load(part, username, cacheKey)
+                    .cast(Object.class)
+                    .onErrorResume(UserNotFoundException.class, e -> userCacheRedisTemplate.opsForValue()
+                            .set(notFoundKey, Boolean.TRUE, notFoundTtl)
+                            .doOnSuccess(stored -> {
+                                part.puts.increment();
+                                rememberNotFound(username);
+                            })
+                            .onErrorResume(DataAccessException.class, failure -> writeFailed(notFoundKey, failure))
+                            .then(Mono.error(e)));
+        });
+    }
+
+    private void rememberNotFound(String username) {
+        if (notFoundFilter != null) {
+            notFoundFilter.put(username);
+        }
+    }
+
+    private static <T> Mono<T> readFailed(String key, DataAccessException e) {
+        logger.warn("Reading {} from Redis failed, treating it as a miss: {}", key, e.getMessage());
+        return Mono.empty();
+    }
+
+    private static <T> Mono<T> writeFailed(String key, DataAccessException e) {
+        logger.warn("Writing {} to Redis failed, not caching it: {}", key, e.getMessage());
+        return Mono.empty();
+    }
+
+    private Object unwrap(Part part, Object served, ContextView context) {
+        if (!(served instanceof CacheEntry entry)) {
+            return served;
+        }
+        if (part.policy.isExpired(entry)) {
+            StaleResponse.record(context, part.policy.age(entry));
+        }
+        return entry.getValue();
+    }
+
+    private Mono<CacheEntry> load(Part part, String username, String cacheKey) {
+        logger.info("Fetching {} for user: {}", part.cacheName, username);
+        return part.loader.apply(username)
+                .elapsed()
+                .flatMap(timed -> {
+                    CacheEntry entry = part.policy.newEntry(timed.getT2(), timed.getT1());
+                    return userCacheRedisTemplate.opsForValue()
+                            .set(cacheKey, entry, part.policy.timeToLive(cacheKey, entry))
+                            .onErrorResume(DataAccessException.class, e -> writeFailed(cacheKey, e))
+                            .thenReturn(entry);
+                });
+    }
+
+    /**
+     * A separately cached part of a user's data: the cache it lives in, its expiry policy, how to fetch it, and
+     * the same not-found meters the blocking stack's NegativeCachingCache publishes for that cache
+     */
+    private static final class Part {
+
+        private final String cacheName;
+        private final RefreshAheadPolicy policy;
+        private final Function<String, Mono<?>> loader;
+        private final Counter filterHits;
+        private final Counter redisHits;
+        private final Counter puts;
+
+        private Part(String cacheName, RefreshAheadPolicy policy, Function<String, Mono<?>> loader,
+                     MeterRegistry meterRegistry) {
+            this.cacheName = cacheName;
+            this.policy = policy;
+            this.loader = loader;
+            this.filterHits = notFoundHits(meterRegistry, cacheName, "filter");
+            this.redisHits = notFoundHits(meterRegistry, cacheName, "redis");
+            this.puts = Counter.builder("cache.negative.puts")
+                    .description("Loads that found nothing and were recorded in the not-found cache")
+                    .tag("cache", cacheName)
+                    .register(meterRegistry);
+        }
+
+        private static Counter notFoundHits(MeterRegistry meterRegistry, String cacheName, String tier) {
+            return Counter.builder("cache.negative.hits")
+                    .description("Lookups answered as not found without calling the source")
+                    .tag("cache", cacheName)
+                    .tag("tier", tier)
+                    .register(meterRegistry);
+        }
+    }
+}
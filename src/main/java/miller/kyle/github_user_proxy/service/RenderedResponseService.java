@@ -0,0 +1,148 @@
+package miller.kyle.github_user_proxy.service;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import miller.kyle.github_user_proxy.cache.ResponseExpiry;
+import miller.kyle.github_user_proxy.cache.StaleResponse;
+import miller.kyle.github_user_proxy.dto.RenderedResponse;
+import miller.kyle.github_user_proxy.dto.UserProxyResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches the final JSON body of each user's response, gzipped once it reaches {@code gzipThreshold} bytes, so
+ * a cache hit is sent to the client as is, without deserializing and mapping the response again.
+ * <p>
+ * A compressed body is also stored Brotli-encoded, if enabled and the native Brotli library loads on this
+ * platform, so clients accepting {@code br} get the smaller body without it being compressed per request.
+ * <p>
+ * Each body is stored with its entity tag, a hash of the JSON, and the time until which clients may reuse it:
+ * the earliest expiry of the profile and repo entries it was assembled from, at most {@code ttl} from rendering.
+ * <p>
+ * Bodies are rendered from the profile and repo caches (see {@link UserProxyService}) on a miss. A body
+ * assembled from stale parts is sent but not cached, so fresh data is served as soon as GitHub recovers.
+ */
+@Service
+@ConditionalOnProperty(name = "github.cache.rendered.enabled", havingValue = "true")
+public class RenderedResponseService {
+
+    public static final String RENDERED_CACHE = "github-user-responses";
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderedResponseService.class);
+
+    private final UserProxyService userProxyService;
+    private final ObjectMapper objectMapper;
+    private final Cache renderedCache;
+    private final Duration ttl;
+    private final int gzipThreshold;
+    private final Encoder.Parameters brotli;
+    private final Counter hits;
+    private final Counter misses;
+
+    public RenderedResponseService(
+            UserProxyService userProxyService,
+            ObjectMapper objectMapper,
+            CacheManager cacheManager,
+            MeterRegistry meterRegistry,
+            @Value("${github.cache.rendered.ttl}") Duration ttl,
+            @Value("${github.cache.rendered.gzip-threshold}") int gzipThreshold,
+            @Value("${github.cache.rendered.brotli.enabled}") boolean brotliEnabled,
+            @Value("${github.cache.rendered.brotli.quality}") int brotliQuality) {
+        this.userProxyService = userProxyService;
+        this.objectMapper = objectMapper;
+        this.renderedCache = cacheManager.getCache(RENDERED_CACHE);
+        this.ttl = ttl;
+        this.gzipThreshold = gzipThreshold;
+        this.brotli = brotliEnabled && brotliAvailable() ? new Encoder.Parameters().setQuality(brotliQuality) : null;
+        this.hits = Counter.builder("cache.rendered.gets")
+                .description("Responses sent from a cached, already rendered body")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.rendered.gets")
+                .description("Responses rendered from the profile and repo caches")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the rendered response for a user, from cache or assembled and rendered on a miss
+     *
+     * @param username GitHub username
+     * @return JSON body of the user's {@link UserProxyResponse}
+     */
+    public RenderedResponse getUserData(String username) {
+        RenderedResponse cached = renderedCache.get(username, RenderedResponse.class);
+        if (cached != null) {
+            hits.increment();
+            if (cached.getEtag() == null) {
+                // Rendered before entity tags were stored
+                cached.setEtag(DigestUtils.md5DigestAsHex(cached.getBody()));
+            }
+            return cached;
+        }
+        misses.increment();
+
+        RenderedResponse rendered = render(userProxyService.getUserData(username));
+        if (StaleResponse.age().isEmpty()) {
+            renderedCache.put(username, rendered);
+        } else {
+            logger.debug("Not caching rendered response for user {} assembled from stale data", username);
+        }
+        return rendered;
+    }
+
+    private RenderedResponse render(UserProxyResponse response) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        String etag = DigestUtils.md5DigestAsHex(json);
+        long expiresAt = Math.min(
+                ResponseExpiry.expiresAt().map(Instant::toEpochMilli).orElse(Long.MAX_VALUE),
+                System.currentTimeMillis() + ttl.toMillis());
+        if (json.length < gzipThreshold) {
+            return new RenderedResponse(json, false, null, etag, expiresAt);
+        }
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] brotliEncoded;
+        try {
+            brotliEncoded = brotli != null ? Encoder.compress(json, brotli) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new RenderedResponse(gzipped.toByteArray(), true, brotliEncoded, etag, expiresAt);
+    }
+
+    private static boolean brotliAvailable() {
+        if (Brotli4jLoader.isAvailable()) {
+            return true;
+        }
+        logger.warn("Brotli unavailable on this platform, caching gzipped bodies only: {}",
+                Brotli4jLoader.getUnavailabilityCause().getMessage());
+        return false;
+    }
+}
@@ -1,19 +1,20 @@
 package miller.kyle.github_user_proxy.service;
 
-import miller.kyle.github_user_proxy.client.GitHubApiClient;
-import miller.kyle.github_user_proxy.dto.GitHubRepoResponse;
 import miller.kyle.github_user_proxy.dto.GitHubUserResponse;
 import miller.kyle.github_user_proxy.dto.RepoInfo;
 import miller.kyle.github_user_proxy.dto.UserProxyResponse;
+import miller.kyle.github_user_proxy.exception.GitHubApiException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Service that orchestrates fetching and transforming GitHub user data
@@ -21,69 +22,81 @@ import java.util.stream.Collectors;
 @Service
 public class UserProxyService {
 
+    /**
+     * Usernames GitHub reported as not found, kept briefly so repeated lookups do not reach GitHub
+     */
+    public static final String NOT_FOUND_CACHE = "github-users-not-found";
+
     private static final Logger logger = LoggerFactory.getLogger(UserProxyService.class);
-    private static final DateTimeFormatter RFC_1123_FORMATTER = DateTimeFormatter.RFC_1123_DATE_TIME;
 
-    private final GitHubApiClient gitHubApiClient;
+    private final GitHubDataService gitHubDataService;
+    private final ExecutorService githubExecutor;
 
-    public UserProxyService(GitHubApiClient gitHubApiClient) {
-        this.gitHubApiClient = gitHubApiClient;
+    public UserProxyService(GitHubDataService gitHubDataService, ExecutorService githubExecutor) {
+        this.gitHubDataService = gitHubDataService;
+        this.githubExecutor = githubExecutor;
     }
 
     /**
-     * Get user information and repositories from GitHub, transformed to our API format
+     * Get user information and repositories from GitHub, transformed to our API format.
+     * The profile and the repository list are cached separately (see {@link GitHubDataService}), and the
+     * response is assembled from both on every call.
      *
      * @param username GitHub username
      * @return UserProxyResponse with transformed data
      */
-    @Cacheable(value = "github-users", key = "#username")
     public UserProxyResponse getUserData(String username) {
-        logger.info("Fetching data for user: {}", username);
-
-        // Fetch user data and repositories from GitHub
-        GitHubUserResponse githubUser = gitHubApiClient.getUser(username);
-        List<GitHubRepoResponse> githubRepos = gitHubApiClient.getUserRepos(username);
+        logger.debug("Getting data for user: {}", username);
 
-        // Transform to our response format
-        UserProxyResponse response = new UserProxyResponse();
-        response.setUserName(githubUser.getLogin());
-        response.setDisplayName(githubUser.getName());
-        response.setAvatar(githubUser.getAvatarUrl());
-        response.setGeoLocation(githubUser.getLocation());
-        response.setEmail(githubUser.getEmail());
-        response.setUrl(githubUser.getUrl());
-        response.setCreatedAt(formatDate(githubUser.getCreatedAt()));
-
-        // Transform repositories
-        List<RepoInfo> repos = githubRepos.stream()
-                .map(repo -> new RepoInfo(repo.getName(), repo.getUrl()))
-                .collect(Collectors.toList());
-        response.setRepos(repos);
+        // Look up the profile and repositories concurrently; both may report a stale value to this request
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        Future<List<RepoInfo>> reposFuture = githubExecutor.submit(
+                () -> inRequest(request, () -> gitHubDataService.getUserRepos(username)));
 
-        logger.info("Successfully transformed data for user: {} with {} repositories",
-                username, repos.size());
+        GitHubUserResponse githubUser;
+        try {
+            githubUser = gitHubDataService.getUser(username);
+        } catch (RuntimeException e) {
+            // No point waiting on the repo list when the user lookup failed (e.g. user not found)
+            reposFuture.cancel(true);
+            throw e;
+        }
+        List<RepoInfo> repos = await(reposFuture);
 
-        return response;
+        // Transform to our response format
+        return UserResponseMapper.toResponse(githubUser, repos);
     }
 
     /**
-     * Format ISO 8601 date from GitHub to RFC 1123 format
-     * Example: "2011-01-25T18:44:36Z" -> "Tue, 25 Jan 2011 18:44:36 GMT"
-     *
-     * @param isoDate ISO 8601 date string
-     * @return RFC 1123 formatted date string
+     * Run a lookup on another thread as part of the given request, if any
      */
-    private String formatDate(String isoDate) {
-        if (isoDate == null || isoDate.isEmpty()) {
-            return null;
+    private static <T> T inRequest(RequestAttributes request, Callable<T> lookup) throws Exception {
+        RequestContextHolder.setRequestAttributes(request);
+        try {
+            return lookup.call();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
         }
+    }
 
+    /**
+     * Wait for an upstream call running on the GitHub executor, rethrowing its original exception
+     *
+     * @param future pending upstream call
+     * @return result of the call
+     */
+    private <T> T await(Future<T> future) {
         try {
-            ZonedDateTime dateTime = ZonedDateTime.parse(isoDate);
-            return dateTime.format(RFC_1123_FORMATTER);
-        } catch (Exception e) {
-            logger.warn("Failed to parse date: {}, returning as-is", isoDate);
-            return isoDate;
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new GitHubApiException("Failed to fetch data from GitHub", e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new GitHubApiException("Interrupted while fetching data from GitHub", e);
         }
     }
 }
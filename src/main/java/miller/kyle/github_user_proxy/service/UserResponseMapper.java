@@ -0,0 +1,59 @@
+package miller.kyle.github_user_proxy.service;
+
+import miller.kyle.github_user_proxy.dto.GitHubUserResponse;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+import miller.kyle.github_user_proxy.dto.UserProxyResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Transforms GitHub user data to our API format, shared by the blocking and reactive services
+ */
+final class UserResponseMapper {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserResponseMapper.class);
+    private static final DateTimeFormatter RFC_1123_FORMATTER = DateTimeFormatter.RFC_1123_DATE_TIME;
+
+    private UserResponseMapper() {
+    }
+
+    static UserProxyResponse toResponse(GitHubUserResponse githubUser, List<RepoInfo> repos) {
+        UserProxyResponse response = new UserProxyResponse();
+        response.setUserName(githubUser.getLogin());
+        response.setDisplayName(githubUser.getName());
+        response.setAvatar(githubUser.getAvatarUrl());
+        response.setGeoLocation(githubUser.getLocation());
+        response.setEmail(githubUser.getEmail());
+        response.setUrl(githubUser.getUrl());
+        response.setCreatedAt(formatDate(githubUser.getCreatedAt()));
+
+        // Repositories are already extracted into our format by the client
+        response.setRepos(repos);
+        return response;
+    }
+
+    /**
+     * Format ISO 8601 date from GitHub to RFC 1123 format
+     * Example: "2011-01-25T18:44:36Z" -> "Tue, 25 Jan 2011 18:44:36 GMT"
+     *
+     * @param isoDate ISO 8601 date string
+     * @return RFC 1123 formatted date string
+     */
+    static String formatDate(String isoDate) {
+        if (isoDate == null || isoDate.isEmpty()) {
+            return null;
+        }
+
+        try {
+            ZonedDateTime dateTime = ZonedDateTime.parse(isoDate);
+            return dateTime.format(RFC_1123_FORMATTER);
+        } catch (Exception e) {
+            logger.warn("Failed to parse date: {}, returning as-is", isoDate);
+            return isoDate;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package miller.kyle.github_user_proxy.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class CoalescingCacheTest {
+
+    private static final int CALLERS = 10;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrentMapCache backingCache;
+    private CoalescingCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        backingCache = new ConcurrentMapCache("github-users");
+        cache = new CoalescingCache(backingCache, meterRegistry);
+    }
+
+    @Test
+    void get_shouldLoadOnceForConcurrentMissesOnSameKey() throws Exception {
+        // Arrange - a slow loader so all callers miss while the first load is in flight
+        AtomicInteger loaderCalls = new AtomicInteger();
+        Callable<String> loader = () -> {
+            loaderCalls.incrementAndGet();
+            Thread.sleep(300);
+            return "value";
+        };
+
+        // Act
+        List<Future<String>> results = callConcurrently(() -> cache.get("octocat", loader));
+
+        // Assert
+        for (Future<String> result : results) {
+            assertEquals("value", result.get());
+        }
+        assertEquals(1, loaderCalls.get());
+        assertEquals("value", backingCache.get("octocat").get());
+        assertEquals(1.0, meterRegistry.get("cache.loads").counter().count());
+        assertEquals(CALLERS - 1.0, meterRegistry.get("cache.coalesced").counter().count());
+    }
+
+    @Test
+    void get_shouldShareLoaderErrorWithAllWaitingCallers() throws Exception {
+        // Arrange
+        AtomicInteger loaderCalls = new AtomicInteger();
+        Callable<String> loader = () -> {
+            loaderCalls.incrementAndGet();
+            Thread.sleep(300);
+            throw new UserNotFoundException("ghost");
+        };
+
+        // Act
+        List<Future<String>> results = callConcurrently(() -> cache.get("ghost", loader));
+
+        // Assert
+        for (Future<String> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, result::get);
+            assertInstanceOf(Cache.ValueRetrievalException.class, e.getCause());
+            assertInstanceOf(UserNotFoundException.class, e.getCause().getCause());
+        }
+        assertEquals(1, loaderCalls.get());
+        assertNull(backingCache.get("ghost"));
+    }
+
+    @Test
+    void get_shouldLoadWithoutLeaseWhileRedisIsDown() {
+        // Arrange
+        RedisAvailability availability = new RedisAvailability(meterRegistry, Duration.ofSeconds(5));
+        availability.markDown(new RedisConnectionFailureException("Unable to connect to Redis"));
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        RedisLoadLock loadLock = new RedisLoadLock(redisTemplate, availability,
+                Duration.ofSeconds(30), Duration.ofSeconds(10), Duration.ofMillis(50));
+        CoalescingCache locked = new CoalescingCache(backingCache, meterRegistry, loadLock);
+
+        // Act
+        String value = locked.get("octocat", () -> "value");
+
+        // Assert - loaded directly, no lease asked of Redis
+        assertEquals("value", value);
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void get_shouldReloadValueThatIsNoLongerCurrent() throws Exception {
+        // Arrange - the cached value is rejected, as an expired entry is
+        CoalescingCache expiring = new CoalescingCache(backingCache, meterRegistry, null, "new"::equals);
+        backingCache.put("octocat", "old");
+        AtomicInteger loaderCalls = new AtomicInteger();
+        Callable<String> loader = () -> {
+            loaderCalls.incrementAndGet();
+            Thread.sleep(300);
+            return "new";
+        };
+
+        // Act
+        List<Future<String>> results = callConcurrently(() -> expiring.get("octocat", loader));
+
+        // Assert - reloaded once, like a miss
+        for (Future<String> result : results) {
+            assertEquals("new", result.get());
+        }
+        assertEquals(1, loaderCalls.get());
+        assertEquals("new", backingCache.get("octocat").get());
+    }
+
+    @Test
+    void get_shouldNotCoalesceDifferentKeys() throws Exception {
+        // Arrange
+        AtomicInteger loaderCalls = new AtomicInteger();
+
+        // Act
+        cache.get("octocat", () -> "octocat-" + loaderCalls.incrementAndGet());
+        cache.get("torvalds", () -> "torvalds-" + loaderCalls.incrementAndGet());
+        String cached = cache.get("octocat", () -> "octocat-" + loaderCalls.incrementAndGet());
+
+        // Assert
+        assertEquals(2, loaderCalls.get());
+        assertEquals("octocat-1", cached);
+        assertEquals(0.0, meterRegistry.get("cache.coalesced").counter().count());
+    }
+
+    private List<Future<String>> callConcurrently(Callable<String> call) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+        }
+        return results;
+    }
+}
@@ -0,0 +1,119 @@
+package miller.kyle.github_user_proxy.cache;
+
+import miller.kyle.github_user_proxy.dto.GitHubUserResponse;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the size and encode/decode time of cached values in JSON and in the compact format, for a profile
+ * and for repository lists of typical to maximum length. Run with {@code ./gradlew benchmark}.
+ * <p>
+ * Timings are averages over many iterations after a warm-up, so they show relative cost rather than exact
+ * figures; use a profiler or JMH for anything finer.
+ */
+public final class CompactValueSerializerBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 10_000;
+    private static final int MEASURED_ITERATIONS = 20_000;
+
+    private static final String[] WORDS = {
+        "api", "app", "cli", "config", "core", "demo", "docs", "dotfiles", "example", "go", "java", "kit",
+        "lib", "notes", "plugin", "proxy", "python", "rust", "sdk", "server", "site", "spring", "test", "tools",
+        "ui", "utils", "web", "workshop"
+    };
+
+    /**
+     * Results are written here so the JIT cannot drop the work
+     */
+    private static volatile long blackhole;
+
+    private CompactValueSerializerBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        RedisSerializer<Object> json = new GenericJackson2JsonRedisSerializer();
+        RedisSerializer<Object> compact = new CompactValueSerializer(json, true, Integer.MAX_VALUE);
+        RedisSerializer<Object> compressed = new CompactValueSerializer(json, true, 256);
+
+        // The first pass only warms up every code path
+        for (boolean report : new boolean[] {false, true}) {
+            if (report) {
+                System.out.printf("%-16s %-12s %10s %12s %12s%n", "value", "format", "bytes", "encode ns", "decode ns");
+            }
+            run(report, "profile", entry(user()), json, compact, compressed);
+            for (int count : new int[] {8, 30, 100, 1000}) {
+                run(report, count + " repos", entry(repos(count)), json, compact, compressed);
+            }
+        }
+    }
+
+    private static void run(boolean report, String name, CacheEntry value, RedisSerializer<Object> json,
+                            RedisSerializer<Object> compact, RedisSerializer<Object> compressed) {
+        measure(report, name, "json", value, json);
+        measure(report, name, "compact", value, compact);
+        measure(report, name, "compact+lz4", value, compressed);
+    }
+
+    private static void measure(boolean report, String name, String format, CacheEntry value,
+                                RedisSerializer<Object> serializer) {
+        byte[] bytes = serializer.serialize(value);
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += serializer.serialize(value).length;
+            sink += serializer.deserialize(bytes).hashCode();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += serializer.serialize(value).length;
+        }
+        long encode = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += serializer.deserialize(bytes).hashCode();
+        }
+        long decode = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+        blackhole = sink;
+
+        if (report) {
+            System.out.printf("%-16s %-12s %10d %12d %12d%n", name, format, bytes.length, encode, decode);
+        }
+    }
+
+    private static CacheEntry entry(Object value) {
+        long now = System.currentTimeMillis();
+        return new CacheEntry(value, now, now + 600_000, 180);
+    }
+
+    private static GitHubUserResponse user() {
+        GitHubUserResponse user = new GitHubUserResponse();
+        user.setLogin("octocat");
+        user.setName("The Octocat");
+        user.setAvatarUrl("https://avatars.githubusercontent.com/u/583231?v=4");
+        user.setLocation("San Francisco");
+        user.setEmail("octocat@github.com");
+        user.setUrl("https://api.github.com/users/octocat");
+        user.setCreatedAt("2011-01-25T18:44:36Z");
+        return user;
+    }
+
+    /**
+     * Repositories named like real ones (e.g. {@code spring-proxy-kit}), in GitHub's URL format
+     */
+    private static List<RepoInfo> repos(int count) {
+        Random random = new Random(count);
+        List<RepoInfo> repos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + "-" + WORDS[random.nextInt(WORDS.length)]
+                    + (random.nextBoolean() ? "-" + WORDS[random.nextInt(WORDS.length)] : "") + "-" + i;
+            repos.add(new RepoInfo(name, "https://api.github.com/repos/octocat/" + name));
+        }
+        return repos;
+    }
+}
@@ -0,0 +1,166 @@
+package miller.kyle.github_user_proxy.cache;
+
+import miller.kyle.github_user_proxy.dto.GitHubUserResponse;
+import miller.kyle.github_user_proxy.dto.RenderedResponse;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactValueSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+    private final CompactValueSerializer serializer = new CompactValueSerializer(json, true, 256);
+
+    @Test
+    void serialize_shouldRoundTripProfileEntry() {
+        // Arrange
+        CacheEntry entry = new CacheEntry(user(), 1_000L, 2_000L, 150L, "5d41402abc4b2a76");
+
+        // Act
+        byte[] bytes = serializer.serialize(entry);
+        CacheEntry result = (CacheEntry) serializer.deserialize(bytes);
+
+        // Assert
+        assertEquals(CompactValueSerializer.FORMAT_VERSION, bytes[0]);
+        assertEquals(1_000L, result.getCreatedAt());
+        assertEquals(2_000L, result.getExpiresAt());
+        assertEquals(150L, result.getComputeMillis());
+        assertEquals("5d41402abc4b2a76", result.getEtag());
+        GitHubUserResponse user = assertInstanceOf(GitHubUserResponse.class, result.getValue());
+        assertEquals("octocat", user.getLogin());
+        assertEquals("The Octocat", user.getName());
+        assertEquals("https://avatars.githubusercontent.com/u/583231?v=4", user.getAvatarUrl());
+        assertNull(user.getEmail());
+        assertEquals("2011-01-25T18:44:36Z", user.getCreatedAt());
+    }
+
+    @Test
+    void serialize_shouldCompressLargeRepoListsAndRoundTrip() {
+        // Arrange
+        CacheEntry entry = new CacheEntry(repos(500), 1_000L, 2_000L, 800L);
+
+        // Act
+        byte[] bytes = serializer.serialize(entry);
+        CacheEntry result = (CacheEntry) serializer.deserialize(bytes);
+
+        // Assert - compressed, a fraction of the JSON size, and unchanged after the round trip
+        assertEquals(1, bytes[1]);
+        assertTrue(bytes.length * 5 < json.serialize(entry).length,
+                "Expected well under a fifth of the JSON size, got " + bytes.length);
+        @SuppressWarnings("unchecked")
+        List<RepoInfo> repos = (List<RepoInfo>) result.getValue();
+        assertEquals(500, repos.size());
+        assertEquals("repo-499", repos.get(499).getName());
+        assertEquals("https://api.github.com/repos/octocat/repo-499", repos.get(499).getUrl());
+    }
+
+    @Test
+    void serialize_shouldStoreGzippedBodiesAsIs() {
+        // Arrange - gzip and Brotli output does not compress further
+        Random random = new Random(42);
+        byte[] gzipped = new byte[2048];
+        random.nextBytes(gzipped);
+        byte[] brotli = new byte[1800];
+        random.nextBytes(brotli);
+        String etag = "9e107d9d372bb6826bd81d3542a419d6";
+        RenderedResponse rendered = new RenderedResponse(gzipped, true, brotli, etag, 2_000L);
+
+        // Act
+        byte[] bytes = serializer.serialize(rendered);
+        RenderedResponse result = (RenderedResponse) serializer.deserialize(bytes);
+
+        // Assert - not compressed again, and only a few bytes of overhead besides the validators
+        assertEquals(0, bytes[1]);
+        assertTrue(bytes.length < gzipped.length + brotli.length + etag.length() + 24,
+                "Expected the raw bytes, got " + bytes.length);
+        assertTrue(result.isGzipped());
+        assertArrayEquals(gzipped, result.getBody());
+        assertArrayEquals(brotli, result.getBrotli());
+        assertEquals(etag, result.getEtag());
+        assertEquals(2_000L, result.getExpiresAt());
+    }
+
+    @Test
+    void serialize_shouldRoundTripBodiesWithoutBrotliVariant() {
+        // Arrange
+        byte[] json = "{\"user_name\":\"octocat\"}".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        RenderedResponse result = (RenderedResponse) serializer.deserialize(
+                serializer.serialize(new RenderedResponse(json, false, null, "5d41402abc4b2a76", 2_000L)));
+
+        // Assert
+        assertFalse(result.isGzipped());
+        assertArrayEquals(json, result.getBody());
+        assertNull(result.getBrotli());
+        assertEquals("5d41402abc4b2a76", result.getEtag());
+    }
+
+    @Test
+    void deserialize_shouldReadEntriesWrittenAsJson() {
+        // Arrange - written before the compact format was enabled
+        byte[] legacy = json.serialize(new CacheEntry(repos(2), 1_000L, 2_000L, 50L));
+
+        // Act
+        CacheEntry result = (CacheEntry) serializer.deserialize(legacy);
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        List<RepoInfo> repos = (List<RepoInfo>) result.getValue();
+        assertEquals("repo-1", repos.get(1).getName());
+    }
+
+    @Test
+    void serialize_shouldWriteOtherValuesAsJson() {
+        // Act & Assert - e.g. not-found markers, which other readers expect as JSON
+        assertArrayEquals(json.serialize(Boolean.TRUE), serializer.serialize(Boolean.TRUE));
+        assertEquals(Boolean.TRUE, serializer.deserialize(serializer.serialize(Boolean.TRUE)));
+    }
+
+    @Test
+    void serialize_shouldWriteJsonWhenDisabled_butStillReadCompact() {
+        // Arrange
+        CompactValueSerializer disabled = new CompactValueSerializer(json, false, 256);
+        CacheEntry entry = new CacheEntry(user(), 1_000L, 2_000L, 150L);
+
+        // Act
+        byte[] written = disabled.serialize(entry);
+        Object readBack = disabled.deserialize(serializer.serialize(entry));
+
+        // Assert
+        assertArrayEquals(json.serialize(entry), written);
+        assertInstanceOf(GitHubUserResponse.class, ((CacheEntry) readBack).getValue());
+    }
+
+    private GitHubUserResponse user() {
+        GitHubUserResponse user = new GitHubUserResponse();
+        user.setLogin("octocat");
+        user.setName("The Octocat");
+        user.setAvatarUrl("https://avatars.githubusercontent.com/u/583231?v=4");
+        user.setLocation("San Francisco");
+        user.setEmail(null);
+        user.setUrl("https://api.github.com/users/octocat");
+        user.setCreatedAt("2011-01-25T18:44:36Z");
+        return user;
+    }
+
+    private List<RepoInfo> repos(int count) {
+        List<RepoInfo> repos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            repos.add(new RepoInfo("repo-" + i, "https://api.github.com/repos/octocat/repo-" + i));
+        }
+        return repos;
+    }
+}
@@ -0,0 +1,81 @@
+package miller.kyle.github_user_proxy.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotKeyTrackerTest {
+
+    @Test
+    void top_shouldRankBusiestUsernamesFirst() {
+        // Arrange
+        HotKeyTracker tracker = new HotKeyTracker(3);
+
+        // Act
+        record(tracker, "octocat", 50);
+        record(tracker, "torvalds", 30);
+        record(tracker, "gaearon", 20);
+        record(tracker, "someone", 1);
+
+        // Assert
+        assertEquals(List.of("octocat", "torvalds", "gaearon"), tracker.top());
+    }
+
+    @Test
+    void top_shouldKeepHotUsernamesAmongManyOneOffs() {
+        // Arrange
+        HotKeyTracker tracker = new HotKeyTracker(10);
+
+        // Act - hot usernames interleaved with far more usernames requested once
+        for (int i = 0; i < 20_000; i++) {
+            tracker.record("once-" + i);
+            if (i % 100 == 0) {
+                for (int hot = 0; hot < 10; hot++) {
+                    tracker.record("hot-" + hot);
+                }
+            }
+        }
+
+        // Assert
+        List<String> top = tracker.top();
+        assertEquals(10, top.size());
+        assertTrue(top.stream().allMatch(username -> username.startsWith("hot-")), "Unexpected top: " + top);
+    }
+
+    @Test
+    void decay_shouldLetRecentTrafficOvertakePastTraffic() {
+        // Arrange
+        HotKeyTracker tracker = new HotKeyTracker(1);
+        record(tracker, "yesterday", 100);
+
+        // Act
+        tracker.decay();
+        tracker.decay();
+        record(tracker, "today", 40);
+
+        // Assert
+        assertEquals(List.of("today"), tracker.top());
+    }
+
+    @Test
+    void decay_shouldForgetUsernamesWhoseCountReachesZero() {
+        // Arrange
+        HotKeyTracker tracker = new HotKeyTracker(5);
+        tracker.record("octocat");
+
+        // Act
+        tracker.decay();
+
+        // Assert
+        assertTrue(tracker.top().isEmpty());
+    }
+
+    private static void record(HotKeyTracker tracker, String username, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(username);
+        }
+    }
+}
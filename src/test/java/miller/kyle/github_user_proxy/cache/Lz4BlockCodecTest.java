@@ -0,0 +1,70 @@
+package miller.kyle.github_user_proxy.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Lz4BlockCodecTest {
+
+    @Test
+    void compress_shouldRoundTripRepetitiveInput() throws DataFormatException {
+        // Arrange - long runs, overlapping matches and literal runs of more than 15 bytes
+        StringBuilder text = new StringBuilder("header-with-some-unique-literals:");
+        for (int i = 0; i < 200; i++) {
+            text.append("https://api.github.com/repos/octocat/repo-").append(i).append("aaaaaaaaaaaaaaaaaaaaaaaa");
+        }
+        byte[] input = text.toString().getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        byte[] block = Lz4BlockCodec.compress(input, 0, input.length);
+        byte[] output = new byte[input.length];
+        Lz4BlockCodec.decompress(block, 0, output);
+
+        // Assert
+        assertNotNull(block);
+        assertTrue(block.length * 4 < input.length, "Expected at least 4:1, got " + block.length);
+        assertArrayEquals(input, output);
+    }
+
+    @Test
+    void compress_shouldRoundTripFromOffset() throws DataFormatException {
+        // Arrange
+        byte[] input = "xxabcabcabcabcabcabcabcabcabcabcabcabc".getBytes(StandardCharsets.US_ASCII);
+
+        // Act
+        byte[] block = Lz4BlockCodec.compress(input, 2, input.length - 2);
+        byte[] output = new byte[input.length - 2];
+        Lz4BlockCodec.decompress(block, 0, output);
+
+        // Assert
+        assertArrayEquals("abcabcabcabcabcabcabcabcabcabcabcabc".getBytes(StandardCharsets.US_ASCII), output);
+    }
+
+    @Test
+    void compress_shouldGiveUpOnIncompressibleInput() {
+        // Arrange
+        byte[] input = new byte[4096];
+        new Random(42).nextBytes(input);
+
+        // Act & Assert
+        assertNull(Lz4BlockCodec.compress(input, 0, input.length));
+    }
+
+    @Test
+    void decompress_shouldRejectBlockOfWrongLength() {
+        // Arrange
+        byte[] input = "abcabcabcabcabcabcabcabcabcabcabcabc".getBytes(StandardCharsets.US_ASCII);
+        byte[] block = Lz4BlockCodec.compress(input, 0, input.length);
+
+        // Act & Assert
+        assertThrows(DataFormatException.class, () -> Lz4BlockCodec.decompress(block, 0, new byte[input.length + 1]));
+    }
+}
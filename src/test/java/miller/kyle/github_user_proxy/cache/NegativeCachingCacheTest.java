@@ -0,0 +1,147 @@
+package miller.kyle.github_user_proxy.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import miller.kyle.github_user_proxy.exception.GitHubApiException;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class NegativeCachingCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrentMapCache users;
+    private ConcurrentMapCache notFoundCache;
+    private NotFoundFilter filter;
+    private NegativeCachingCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        users = spy(new ConcurrentMapCache("github-users"));
+        notFoundCache = new ConcurrentMapCache("github-users-not-found");
+        filter = new NotFoundFilter(1000, 0.001, Duration.ofMinutes(5));
+        cache = new NegativeCachingCache(users, new NotFoundCache(notFoundCache, filter), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_shouldAnswerRepeatedNotFoundFromFilterWithoutLookup() {
+        // Arrange
+        Callable<String> notFound = () -> {
+            loads.incrementAndGet();
+            throw new UserNotFoundException("nonexistentuser");
+        };
+
+        // Act
+        assertNotFound(() -> cache.get("nonexistentuser", notFound));
+        assertNotFound(() -> cache.get("nonexistentuser", notFound));
+
+        // Assert - only the first lookup reached the source, and the repeat did not read the not-found cache
+        assertEquals(1, loads.get());
+        assertNotNull(notFoundCache.get("nonexistentuser"));
+        assertEquals(1, meterRegistry.get("cache.negative.puts").counter().count());
+        assertEquals(1, hits("filter"));
+        assertEquals(0, hits("redis"));
+    }
+
+    @Test
+    void get_shouldServeCachedUserDespiteFilterFalsePositive() {
+        // Arrange - the filter claims a user that exists and is cached
+        users.put("octocat", "octocat-data");
+        filter.put("octocat");
+
+        // Act
+        String result = cache.get("octocat", () -> "unused");
+
+        // Assert
+        assertEquals("octocat-data", result);
+        verify(users, times(1)).get(eq("octocat"), any(Callable.class));
+        assertEquals(0, hits("filter"));
+    }
+
+    @Test
+    void get_shouldAnswerNotFoundRecordedByAnotherNode() {
+        // Arrange - recorded in the shared cache, unknown to this node's filter
+        notFoundCache.put("nonexistentuser", Boolean.TRUE);
+
+        // Act
+        assertNotFound(() -> cache.get("nonexistentuser", () -> "unused"));
+
+        // Assert - answered from the shared cache, and remembered locally from now on
+        assertEquals(1, hits("redis"));
+        assertTrue(filter.mightContain("nonexistentuser"));
+    }
+
+    @Test
+    void get_shouldNotRecordOtherErrors() {
+        // Act
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get("octocat", () -> {
+            throw new GitHubApiException("GitHub API error: 503 SERVICE_UNAVAILABLE");
+        }));
+
+        // Assert
+        assertNull(notFoundCache.get("octocat"));
+        assertEquals("octocat-data", cache.get("octocat", () -> "octocat-data"));
+    }
+
+    @Test
+    void evict_shouldForgetNotFound() {
+        // Arrange
+        notFoundCache.put("newuser", Boolean.TRUE);
+        filter.put("newuser");
+
+        // Act
+        cache.evict("newuser");
+
+        // Assert - the next lookup goes to the source
+        assertEquals("newuser-data", cache.get("newuser", () -> "newuser-data"));
+        assertNull(notFoundCache.get("newuser"));
+    }
+
+    @Test
+    void clear_shouldResetFilterWithNotFoundCache() {
+        // Arrange
+        NotFoundCache notFound = new NotFoundCache(notFoundCache, filter);
+        notFound.put("newuser", Boolean.TRUE);
+
+        // Act
+        notFound.clear();
+
+        // Assert
+        assertEquals("newuser-data", cache.get("newuser", () -> "newuser-data"));
+    }
+
+    private double hits(String tier) {
+        return meterRegistry.get("cache.negative.hits").tag("tier", tier).counter().count();
+    }
+
+    /**
+     * Not found is thrown as is, or wrapped by the cache when answered while loading
+     */
+    private void assertNotFound(Runnable lookup) {
+        RuntimeException e = assertThrows(RuntimeException.class, lookup::run);
+        if (!(e instanceof UserNotFoundException)) {
+            assertInstanceOf(Cache.ValueRetrievalException.class, e);
+            assertInstanceOf(UserNotFoundException.class, e.getCause());
+        }
+    }
+}
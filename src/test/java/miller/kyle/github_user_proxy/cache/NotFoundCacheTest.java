@@ -0,0 +1,111 @@
+package miller.kyle.github_user_proxy.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class NotFoundCacheTest {
+
+    private ConcurrentMapCache redis;
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Stands in for the shared not-found cache in Redis
+        redis = new ConcurrentMapCache("github-users-not-found");
+        redisTemplate = mock(StringRedisTemplate.class);
+    }
+
+    @Test
+    void clear_shouldClearFilterOnEveryNode() {
+        // Arrange - both nodes have seen the username as not found
+        NotFoundFilter writerFilter = newFilter();
+        NotFoundFilter readerFilter = newFilter();
+        CacheInvalidationBus writerBus = new CacheInvalidationBus(redisTemplate);
+        CacheInvalidationBus readerBus = new CacheInvalidationBus(redisTemplate);
+        NotFoundCache writer = newNode(writerFilter, writerBus);
+        NotFoundCache reader = newNode(readerFilter, readerBus);
+        writer.put("nonexistentuser", Boolean.TRUE);
+        reader.contains("nonexistentuser");
+
+        // Act
+        writer.clear();
+        deliver(readerBus, lastPublished());
+
+        // Assert
+        assertFalse(writer.contains("nonexistentuser"));
+        assertFalse(writerFilter.mightContain("nonexistentuser"));
+        assertFalse(readerFilter.mightContain("nonexistentuser"));
+    }
+
+    @Test
+    void evict_shouldClearFilterOnEveryNode() {
+        // Arrange
+        NotFoundFilter writerFilter = newFilter();
+        NotFoundFilter readerFilter = newFilter();
+        CacheInvalidationBus readerBus = new CacheInvalidationBus(redisTemplate);
+        NotFoundCache writer = newNode(writerFilter, new CacheInvalidationBus(redisTemplate));
+        newNode(readerFilter, readerBus);
+        writer.put("newlycreated", Boolean.TRUE);
+        readerFilter.put("newlycreated");
+
+        // Act
+        writer.evict("newlycreated");
+        deliver(readerBus, lastPublished());
+
+        // Assert - the reader asks the shared cache again, which no longer has the username
+        assertFalse(readerFilter.mightContain("newlycreated"));
+        assertFalse(writer.contains("newlycreated"));
+    }
+
+    @Test
+    void put_shouldRememberKeyInFilterWithoutPublishing() {
+        // Arrange
+        NotFoundFilter filter = newFilter();
+        NotFoundCache cache = newNode(filter, new CacheInvalidationBus(redisTemplate));
+
+        // Act
+        cache.put("nonexistentuser", Boolean.TRUE);
+
+        // Assert
+        assertTrue(cache.mightContain("nonexistentuser"));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    private NotFoundCache newNode(NotFoundFilter filter, CacheInvalidationBus bus) {
+        NotFoundCache cache = new NotFoundCache(redis, filter, bus);
+        bus.register(cache);
+        return cache;
+    }
+
+    private static NotFoundFilter newFilter() {
+        return new NotFoundFilter(1_000, 0.001, Duration.ofMinutes(5));
+    }
+
+    private String lastPublished() {
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, atLeastOnce())
+                .convertAndSend(eq(CacheInvalidationBus.CHANNEL), message.capture());
+        return message.getValue();
+    }
+
+    private void deliver(CacheInvalidationBus bus, String message) {
+        bus.onMessage(new DefaultMessage(
+                CacheInvalidationBus.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                message.getBytes(StandardCharsets.UTF_8)), null);
+    }
+}
@@ -0,0 +1,105 @@
+package miller.kyle.github_user_proxy.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NotFoundFilterTest {
+
+    private static final Duration ROTATION = Duration.ofMinutes(5);
+
+    @Test
+    void mightContain_shouldAlwaysReportRecordedLogins() {
+        // Arrange
+        NotFoundFilter filter = new NotFoundFilter(10_000, 0.001, ROTATION);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("missing-" + i);
+        }
+
+        // Assert - no false negatives, and logins compare case-insensitively
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("missing-" + i));
+        }
+        assertTrue(filter.mightContain("MISSING-42"));
+    }
+
+    @Test
+    void mightContain_shouldKeepFalsePositivesNearConfiguredRate() {
+        // Arrange - filled to its expected number of insertions
+        NotFoundFilter filter = new NotFoundFilter(10_000, 0.01, ROTATION);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("missing-" + i);
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            falsePositives += filter.mightContain("other-" + i) ? 1 : 0;
+        }
+
+        // Assert - 1% expected; allow for variance
+        assertTrue(falsePositives < 2_000, "Too many false positives: " + falsePositives);
+    }
+
+    @Test
+    void mightContain_shouldForgetLoginsAfterTwoRotations() {
+        // Arrange
+        MutableClock clock = new MutableClock();
+        NotFoundFilter filter = new NotFoundFilter(1000, 0.001, ROTATION, clock);
+        filter.put("nonexistentuser");
+
+        // Act & Assert - still remembered through the next rotation, dropped by the one after
+        clock.advance(ROTATION);
+        assertTrue(filter.mightContain("nonexistentuser"));
+        clock.advance(ROTATION);
+        assertFalse(filter.mightContain("nonexistentuser"));
+    }
+
+    @Test
+    void clear_shouldForgetAllLogins() {
+        // Arrange
+        NotFoundFilter filter = new NotFoundFilter(1000, 0.001, ROTATION);
+        filter.put("nonexistentuser");
+
+        // Act
+        filter.clear();
+
+        // Assert
+        assertFalse(filter.mightContain("nonexistentuser"));
+    }
+
+    /**
+     * Clock the test moves forward by hand
+     */
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
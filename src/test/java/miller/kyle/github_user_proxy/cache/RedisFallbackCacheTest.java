@@ -0,0 +1,173 @@
+package miller.kyle.github_user_proxy.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class RedisFallbackCacheTest {
+
+    private static final Duration RETRY_INTERVAL = Duration.ofSeconds(5);
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private RedisAvailability availability;
+    private Cache redis;
+    private RedisFallbackCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        availability = new RedisAvailability(meterRegistry, RETRY_INTERVAL, clock);
+        // Stands in for the Redis cache
+        redis = spy(new ConcurrentMapCache("github-user-profiles"));
+        cache = new RedisFallbackCache(redis, availability, meterRegistry, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void get_shouldUseRedisWhileItIsUp() {
+        // Arrange
+        redis.put("octocat", "octocat-data");
+
+        // Act & Assert
+        assertEquals("octocat-data", cache.get("octocat").get());
+        assertTrue(availability.isUp());
+        assertEquals(0, fallbacks());
+    }
+
+    @Test
+    void get_shouldTreatRedisFailureAsMissAndMarkRedisDown() {
+        // Arrange
+        redisDown();
+
+        // Act & Assert
+        assertNull(cache.get("octocat"));
+        assertFalse(availability.isUp());
+        assertEquals("local-fallback", availability.health().getDetails().get("mode"));
+        assertEquals(1, fallbacks());
+    }
+
+    @Test
+    void get_shouldLoadOnceAndKeepValueLocallyWhileRedisIsDown() {
+        // Arrange
+        redisDown();
+        AtomicInteger loads = new AtomicInteger();
+        Callable<String> loader = () -> "octocat-data-" + loads.incrementAndGet();
+
+        // Act
+        String first = cache.get("octocat", loader);
+        String second = cache.get("octocat", loader);
+
+        // Assert - the second read was answered locally, without trying Redis again
+        assertEquals("octocat-data-1", first);
+        assertEquals("octocat-data-1", second);
+        assertEquals(1, loads.get());
+        verify(redis, times(1)).get(any(), any(Callable.class));
+    }
+
+    @Test
+    void get_shouldNotLoadTwiceWhenRedisFailsOnWriteBack() {
+        // Arrange - the value is loaded, then writing it to Redis fails
+        doAnswer(invocation -> {
+            invocation.getArgument(1, Callable.class).call();
+            throw new RedisConnectionFailureException("Redis down");
+        }).when(redis).get(any(), any(Callable.class));
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        String value = cache.get("octocat", () -> "octocat-data-" + loads.incrementAndGet());
+
+        // Assert
+        assertEquals("octocat-data-1", value);
+        assertEquals(1, loads.get());
+        assertFalse(availability.isUp());
+    }
+
+    @Test
+    void get_shouldRetryRedisAfterIntervalAndDropLocalCopies() {
+        // Arrange - a value written locally while Redis was down
+        redisDown();
+        cache.put("octocat", "local-data");
+        assertEquals("local-data", cache.get("octocat").get());
+
+        // Act - Redis recovers, and has a newer value
+        doCallRealMethod().when(redis).get(any());
+        doCallRealMethod().when(redis).put(any(), any());
+        redis.put("octocat", "redis-data");
+        clock.advance(RETRY_INTERVAL);
+        Cache.ValueWrapper afterRecovery = cache.get("octocat");
+
+        // Assert
+        assertEquals("redis-data", afterRecovery.get());
+        assertTrue(availability.isUp());
+    }
+
+    @Test
+    void shouldTry_shouldLetOneCallerProbeRedisPerInterval() {
+        // Arrange
+        availability.markDown(new RedisConnectionFailureException("Redis down"));
+
+        // Act & Assert
+        assertFalse(availability.shouldTry());
+        clock.advance(RETRY_INTERVAL);
+        assertTrue(availability.shouldTry());
+        assertFalse(availability.shouldTry());
+    }
+
+    private void redisDown() {
+        RedisConnectionFailureException down = new RedisConnectionFailureException("Redis down");
+        doThrow(down).when(redis).get(any());
+        doThrow(down).when(redis).get(any(), any(Callable.class));
+        doThrow(down).when(redis).put(any(), any());
+    }
+
+    private double fallbacks() {
+        return meterRegistry.get("cache.redis.fallback").counter().count();
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package miller.kyle.github_user_proxy.cache;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisMultiGetTest {
+
+    private final Map<String, String> redis = Map.of(
+            "github-user-profiles::alice", "alice-profile",
+            "github-user-repos::alice", "alice-repos",
+            "github-user-profiles::torvalds", "torvalds-profile");
+
+    private RedisConnectionFactory connectionFactory;
+    private RedisStringCommands stringCommands;
+    private RedisClusterAsyncCommands<byte[], byte[]> clusterCommands;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        connectionFactory = mock(RedisConnectionFactory.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        stringCommands = mock(RedisStringCommands.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        // Stands in for Redis: MGET answers from the map above
+        when(stringCommands.mGet(any(byte[][].class))).thenAnswer(invocation -> Arrays.stream(invocation.getArguments())
+                .map(key -> value((byte[]) key))
+                .toList());
+
+        // And for the cluster: each GET answers from the same map, asynchronously
+        RedisClusterConnection clusterConnection = mock(RedisClusterConnection.class);
+        clusterCommands = mock(RedisClusterAsyncCommands.class);
+        when(connectionFactory.getClusterConnection()).thenReturn(clusterConnection);
+        when(clusterConnection.getNativeConnection()).thenReturn(clusterCommands);
+        when(clusterCommands.get(any(byte[].class))).thenAnswer(invocation ->
+                future(CompletableFuture.supplyAsync(() -> value(invocation.getArgument(0)))));
+    }
+
+    @Test
+    void get_shouldReadAllKeysInOneCommandOutsideCluster() {
+        // Arrange
+        RedisMultiGet multiGet = new RedisMultiGet(connectionFactory, false, Duration.ZERO);
+
+        // Act
+        List<String> values = strings(multiGet.get(
+                keys("github-user-profiles::alice", "github-user-profiles::torvalds", "github-user-profiles::bob")));
+
+        // Assert
+        assertEquals(Arrays.asList("alice-profile", "torvalds-profile", null), values);
+        verify(stringCommands, times(1)).mGet(any(byte[][].class));
+    }
+
+    @Test
+    void get_shouldSendOneAsynchronousGetPerKeyInCluster() {
+        // Arrange
+        RedisMultiGet multiGet = new RedisMultiGet(connectionFactory, true, Duration.ofSeconds(1));
+
+        // Act
+        List<String> values = strings(multiGet.get(keys("github-user-profiles::alice",
+                "github-user-profiles::bob", "github-user-repos::alice", "github-user-profiles::torvalds")));
+
+        // Assert - values in key order, each key read once over the shared connection, no cross-slot MGET
+        assertEquals(Arrays.asList("alice-profile", null, "alice-repos", "torvalds-profile"), values);
+        verify(clusterCommands, times(4)).get(any(byte[].class));
+        verify(stringCommands, never()).mGet(any(byte[][].class));
+    }
+
+    @Test
+    void get_shouldFailWithDataAccessExceptionWhenAReadFails() {
+        // Arrange
+        when(clusterCommands.get(key("github-user-repos::alice")))
+                .thenAnswer(invocation -> future(CompletableFuture.failedFuture(new IllegalStateException("down"))));
+        RedisMultiGet multiGet = new RedisMultiGet(connectionFactory, true, Duration.ofSeconds(1));
+
+        // Act & Assert
+        assertThrows(DataAccessException.class,
+                () -> multiGet.get(keys("github-user-profiles::alice", "github-user-repos::alice")));
+    }
+
+    @Test
+    void get_shouldTimeOutWhenAReplyNeverArrives() {
+        // Arrange
+        when(clusterCommands.get(key("github-user-repos::alice")))
+                .thenAnswer(invocation -> future(new CompletableFuture<>()));
+        RedisMultiGet multiGet = new RedisMultiGet(connectionFactory, true, Duration.ofMillis(50));
+
+        // Act & Assert
+        assertThrows(QueryTimeoutException.class,
+                () -> multiGet.get(keys("github-user-profiles::alice", "github-user-repos::alice")));
+    }
+
+    @Test
+    void get_shouldReturnEmptyListForNoKeys() {
+        // Arrange
+        RedisMultiGet multiGet = new RedisMultiGet(connectionFactory, true, Duration.ofSeconds(1));
+
+        // Act & Assert
+        assertEquals(List.of(), multiGet.get(List.of()));
+    }
+
+    private byte[] value(byte[] key) {
+        String value = redis.get(new String(key, StandardCharsets.UTF_8));
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static RedisFuture<byte[]> future(CompletableFuture<byte[]> reply) {
+        Reply future = new Reply();
+        reply.whenComplete((value, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(value);
+            }
+        });
+        return future;
+    }
+
+    private static byte[] key(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<byte[]> keys(String... keys) {
+        return Arrays.stream(keys).map(RedisMultiGetTest::key).toList();
+    }
+
+    private static List<String> strings(List<byte[]> values) {
+        return values.stream()
+                .map(value -> value != null ? new String(value, StandardCharsets.UTF_8) : null)
+                .toList();
+    }
+
+    /**
+     * A reply as Lettuce hands it out
+     */
+    private static class Reply extends CompletableFuture<byte[]> implements RedisFuture<byte[]> {
+
+        @Override
+        public String getError() {
+            return isCompletedExceptionally() ? "ERR" : null;
+        }
+
+        @Override
+        public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+            try {
+                get(timeout, unit);
+                return true;
+            } catch (ExecutionException e) {
+                return true;
+            } catch (TimeoutException e) {
+                return false;
+            }
+        }
+    }
+}
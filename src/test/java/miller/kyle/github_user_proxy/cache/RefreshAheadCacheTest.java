@@ -0,0 +1,279 @@
+package miller.kyle.github_user_proxy.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import miller.kyle.github_user_proxy.exception.CircuitOpenException;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RefreshAheadCacheTest {
+
+    /**
+     * Compute time so long that XFetch refreshes an entry well ahead of its expiry on practically every read
+     */
+    private static final long SLOW_COMPUTE_MILLIS = 1_000_000_000_000L;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrentMapCache redis;
+    private List<Runnable> scheduled;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Stands in for the shared Redis tier
+        redis = new ConcurrentMapCache("github-users");
+        // Background refreshes are run by the test, when it chooses
+        scheduled = new ArrayList<>();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void get_shouldWrapLoadedValueInEntry() {
+        // Arrange
+        RefreshAheadCache cache = newCache(1.0);
+
+        // Act
+        String result = cache.get("octocat", () -> "octocat-data");
+
+        // Assert
+        assertEquals("octocat-data", result);
+        CacheEntry entry = assertInstanceOf(CacheEntry.class, redis.get("octocat").get());
+        assertEquals("octocat-data", entry.getValue());
+        assertTrue(entry.getExpiresAt() > System.currentTimeMillis());
+        assertEquals("octocat-data", cache.get("octocat").get());
+        assertEquals("octocat-data", cache.get("octocat", String.class));
+    }
+
+    @Test
+    void get_shouldServeCurrentValueWhileRefreshingInBackground() {
+        // Arrange - an entry due for an early refresh
+        RefreshAheadCache cache = newCache(1.0);
+        redis.put("octocat", nearExpiry("old"));
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act - two readers see the entry before the refresh runs
+        String first = cache.get("octocat", () -> "new-" + loads.incrementAndGet());
+        String second = cache.get("octocat", () -> "new-" + loads.incrementAndGet());
+
+        // Assert - both served the current value, and only one refresh was scheduled
+        assertEquals("old", first);
+        assertEquals("old", second);
+        assertEquals(1, scheduled.size());
+        assertEquals(0, loads.get());
+
+        // Act - the refresh completes
+        scheduled.get(0).run();
+
+        // Assert
+        assertEquals("new-1", cache.get("octocat").get());
+        assertEquals(1, meterRegistry.get("cache.early.refreshes").counter().count());
+    }
+
+    @Test
+    void get_shouldKeepCurrentValueWhenRefreshFails() {
+        // Arrange
+        RefreshAheadCache cache = newCache(1.0);
+        redis.put("octocat", nearExpiry("old"));
+        cache.get("octocat", () -> {
+            throw new IllegalStateException("GitHub unavailable");
+        });
+
+        // Act
+        scheduled.get(0).run();
+
+        // Assert - the failure is swallowed and a later read may refresh again
+        assertEquals("old", ((CacheEntry) redis.get("octocat").get()).getValue());
+        cache.get("octocat", () -> "new");
+        assertEquals(2, scheduled.size());
+    }
+
+    @Test
+    void get_shouldNotRefreshWhenDisabled() {
+        // Arrange - beta of zero turns early refresh off
+        RefreshAheadCache cache = newCache(0);
+        redis.put("octocat", nearExpiry("old"));
+
+        // Act
+        String result = cache.get("octocat", () -> "new");
+
+        // Assert
+        assertEquals("old", result);
+        assertTrue(scheduled.isEmpty());
+    }
+
+    @Test
+    void get_shouldReloadExpiredEntry() {
+        // Arrange
+        RefreshAheadCache cache = newCache(1.0);
+        redis.put("octocat", expired("old"));
+
+        // Act
+        String result = cache.get("octocat", () -> "new");
+
+        // Assert - reloaded by the caller, not in the background
+        assertEquals("new", result);
+        assertEquals("new", cache.get("octocat").get());
+        assertTrue(scheduled.isEmpty());
+        assertTrue(StaleResponse.age().isEmpty());
+    }
+
+    @Test
+    void get_shouldShareExpiredReloadWithConcurrentCallers() throws Exception {
+        // Arrange - a slow reload so every caller reads the expired entry while it is in flight
+        RefreshAheadCache cache = newCache(1.0);
+        redis.put("octocat", expired("old"));
+        AtomicInteger loads = new AtomicInteger();
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            Thread.sleep(300);
+            return "new";
+        };
+
+        // Act
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 5; i++) {
+                results.add(executor.submit(() -> cache.get("octocat", loader)));
+            }
+        }
+
+        // Assert - GitHub is healthy, so nobody is served the expired value while it reloads
+        for (Future<String> result : results) {
+            assertEquals("new", result.get());
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, meterRegistry.get("cache.stale.served").counter().count());
+    }
+
+    @Test
+    void get_shouldServeExpiredEntryWhenGitHubFails() {
+        // Arrange
+        RefreshAheadCache cache = newCache(1.0);
+        redis.put("octocat", expired("old"));
+
+        // Act
+        String result = cache.get("octocat", () -> {
+            throw new CircuitOpenException();
+        });
+
+        // Assert - served stale, reported with its age, and still kept for the next attempt
+        assertEquals("old", result);
+        assertTrue(StaleResponse.age().orElseThrow().compareTo(Duration.ofMinutes(30)) >= 0);
+        assertEquals(1, meterRegistry.get("cache.stale.served").counter().count());
+        assertEquals("old", ((CacheEntry) redis.get("octocat").get()).getValue());
+        assertTrue(ResponseExpiry.expiresAt().orElseThrow().toEpochMilli() < System.currentTimeMillis());
+    }
+
+    @Test
+    void get_shouldReportEarliestExpiryServed() {
+        // Arrange - one fresh entry loaded, one cached that expires sooner
+        RefreshAheadCache cache = newCache(0);
+        CacheEntry soon = new CacheEntry("repos", System.currentTimeMillis(), System.currentTimeMillis() + 60_000, 0);
+        redis.put("octocat-repos", soon);
+
+        // Act
+        cache.get("octocat", () -> "octocat-data");
+        long loadedExpiry = ResponseExpiry.expiresAt().orElseThrow().toEpochMilli();
+        cache.get("octocat-repos", () -> "new");
+
+        // Assert
+        assertEquals(((CacheEntry) redis.get("octocat").get()).getExpiresAt(), loadedExpiry);
+        assertEquals(soon.getExpiresAt(), ResponseExpiry.expiresAt().orElseThrow().toEpochMilli());
+    }
+
+    @Test
+    void get_shouldReportStoredEntityTag() {
+        // Arrange
+        RefreshAheadPolicy policy = new RefreshAheadPolicy(Duration.ofMinutes(30), 0.1, 0, Duration.ofHours(1))
+                .withEntityTags(value -> "tag-" + value);
+        RefreshAheadCache cache = new RefreshAheadCache(
+                new CoalescingCache(redis, meterRegistry, null, policy::isCurrent), policy, scheduled::add,
+                meterRegistry);
+
+        // Act
+        cache.get("octocat", () -> "octocat-data");
+
+        // Assert - stored with the entry, and reported under the cache's name
+        assertEquals("tag-octocat-data", ((CacheEntry) redis.get("octocat").get()).getEtag());
+        assertEquals("tag-octocat-data", ResponseTag.etag("github-users").orElseThrow());
+    }
+
+    @Test
+    void get_shouldNotServeExpiredEntryWhenUserIsGone() {
+        // Arrange
+        RefreshAheadCache cache = newCache(1.0);
+        redis.put("octocat", expired("old"));
+
+        // Act & Assert - an answer from GitHub is not an outage
+        Cache.ValueRetrievalException e = assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get("octocat", () -> {
+                    throw new UserNotFoundException("octocat");
+                }));
+        assertInstanceOf(UserNotFoundException.class, e.getCause());
+    }
+
+    @Test
+    void get_shouldPassThroughLegacyValues() {
+        // Arrange - written before entries carried expiry metadata
+        RefreshAheadCache cache = newCache(1.0);
+        redis.put("octocat", "octocat-data");
+
+        // Act & Assert
+        assertEquals("octocat-data", cache.get("octocat", () -> "new"));
+        assertEquals("octocat-data", cache.get("octocat").get());
+    }
+
+    @Test
+    void put_shouldWrapValueInEntry() {
+        // Arrange
+        RefreshAheadCache cache = newCache(1.0);
+
+        // Act
+        cache.put("octocat", "octocat-data");
+
+        // Assert
+        assertInstanceOf(CacheEntry.class, redis.get("octocat").get());
+        assertEquals("octocat-data", cache.get("octocat").get());
+    }
+
+    private RefreshAheadCache newCache(double beta) {
+        RefreshAheadPolicy policy = new RefreshAheadPolicy(Duration.ofMinutes(30), 0.1, beta, Duration.ofHours(1));
+        CoalescingCache coalescing = new CoalescingCache(redis, meterRegistry, null, policy::isCurrent);
+        return new RefreshAheadCache(coalescing, policy, scheduled::add, meterRegistry);
+    }
+
+    private static CacheEntry nearExpiry(String value) {
+        long now = System.currentTimeMillis();
+        return new CacheEntry(value, now, now + 60_000, SLOW_COMPUTE_MILLIS);
+    }
+
+    private static CacheEntry expired(String value) {
+        long now = System.currentTimeMillis();
+        return new CacheEntry(value, now - Duration.ofMinutes(31).toMillis(), now - 60_000, 100);
+    }
+}
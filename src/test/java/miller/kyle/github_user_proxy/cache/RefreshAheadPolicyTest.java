@@ -0,0 +1,134 @@
+package miller.kyle.github_user_proxy.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RefreshAheadPolicyTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Duration TTL = Duration.ofMinutes(30);
+    private static final Duration GRACE = Duration.ofHours(1);
+
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    @Test
+    void newEntry_shouldExpireWithinJitteredWindow() {
+        // Arrange
+        RefreshAheadPolicy policy = new RefreshAheadPolicy(TTL, 0.1, 1.0, GRACE, clock);
+        long earliest = NOW.toEpochMilli() + TTL.toMillis() - TTL.toMillis() / 10;
+        long latest = NOW.toEpochMilli() + TTL.toMillis();
+
+        // Act & Assert - never later than the TTL, never more than 10% earlier, and not all the same
+        long first = policy.newEntry("octocat-data", 100).getExpiresAt();
+        boolean spread = false;
+        for (int i = 0; i < 1000; i++) {
+            CacheEntry entry = policy.newEntry("octocat-data", 100);
+            assertTrue(entry.getExpiresAt() >= earliest && entry.getExpiresAt() <= latest);
+            spread |= entry.getExpiresAt() != first;
+        }
+        assertTrue(spread, "Expected expiry times to be spread out");
+    }
+
+    @Test
+    void entityTag_shouldBeStoredWithNewEntriesAndComputedForOldOnes() {
+        // Arrange
+        AtomicInteger tagged = new AtomicInteger();
+        RefreshAheadPolicy policy = new RefreshAheadPolicy(TTL, 0.1, 1.0, GRACE, clock)
+                .withEntityTags(value -> {
+                    tagged.incrementAndGet();
+                    return "tag-" + value;
+                })
+                .withTtl(Duration.ofHours(2));
+        CacheEntry untagged = new CacheEntry("old-data", NOW.toEpochMilli(), NOW.plus(TTL).toEpochMilli(), 100);
+
+        // Act
+        CacheEntry entry = policy.newEntry("octocat-data", 100);
+
+        // Assert - computed once for a new entry, and kept by a policy with another TTL
+        assertEquals("tag-octocat-data", entry.getEtag());
+        assertEquals("tag-octocat-data", policy.entityTag(entry));
+        assertEquals(1, tagged.get());
+        assertEquals("tag-old-data", policy.entityTag(untagged));
+    }
+
+    @Test
+    void shouldRefreshEarly_shouldNotFireFarFromExpiry() {
+        // Arrange - a 100ms computation with almost the full TTL left
+        RefreshAheadPolicy policy = new RefreshAheadPolicy(TTL, 0.1, 1.0, GRACE, clock);
+        CacheEntry entry = new CacheEntry("octocat-data", NOW.toEpochMilli(), NOW.plus(TTL).toEpochMilli(), 100);
+
+        // Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(policy.shouldRefreshEarly(entry));
+        }
+    }
+
+    @Test
+    void shouldRefreshEarly_shouldSometimesFireCloseToExpiry() {
+        // Arrange - one computation time left before expiry
+        RefreshAheadPolicy policy = new RefreshAheadPolicy(TTL, 0.1, 1.0, GRACE, clock);
+        CacheEntry entry = new CacheEntry("octocat-data", 0, NOW.toEpochMilli() + 100, 100);
+
+        // Act
+        int refreshes = 0;
+        for (int i = 0; i < 1000; i++) {
+            refreshes += policy.shouldRefreshEarly(entry) ? 1 : 0;
+        }
+
+        // Assert - fires with probability e^-1, roughly a third of reads
+        assertTrue(refreshes > 200 && refreshes < 550, "Unexpected number of early refreshes: " + refreshes);
+    }
+
+    @Test
+    void shouldRefreshEarly_shouldAlwaysFireOnceExpired() {
+        // Arrange
+        RefreshAheadPolicy policy = new RefreshAheadPolicy(TTL, 0.1, 1.0, GRACE, clock);
+        CacheEntry entry = new CacheEntry("octocat-data", 0, NOW.toEpochMilli(), 100);
+
+        // Act & Assert
+        assertTrue(policy.shouldRefreshEarly(entry));
+    }
+
+    @Test
+    void isExpired_shouldBeTrueFromExpiryOn() {
+        // Arrange
+        RefreshAheadPolicy policy = new RefreshAheadPolicy(TTL, 0.1, 1.0, GRACE, clock);
+
+        // Act & Assert
+        assertFalse(policy.isExpired(new CacheEntry("octocat-data", 0, NOW.toEpochMilli() + 1, 100)));
+        assertTrue(policy.isExpired(new CacheEntry("octocat-data", 0, NOW.toEpochMilli(), 100)));
+    }
+
+    @Test
+    void timeToLive_shouldKeepEntryForGraceAfterExpiry() {
+        // Arrange
+        RefreshAheadPolicy policy = new RefreshAheadPolicy(TTL, 0.1, 1.0, GRACE, clock);
+        CacheEntry entry = new CacheEntry("octocat-data", 0, NOW.toEpochMilli() + 60_000, 100);
+
+        // Act & Assert
+        assertEquals(Duration.ofMinutes(61), policy.timeToLive("octocat", entry));
+        assertEquals(TTL, policy.timeToLive("octocat", "legacy-value"));
+    }
+
+    @Test
+    void withTtl_shouldExpireEntriesAfterTheNewTtl() {
+        // Arrange
+        RefreshAheadPolicy policy = new RefreshAheadPolicy(TTL, 0.0, 1.0, GRACE, clock).withTtl(Duration.ofMinutes(10));
+
+        // Act
+        CacheEntry entry = policy.newEntry("octocat-repos", 100);
+
+        // Assert - the rest of the policy is unchanged
+        assertEquals(NOW.plus(Duration.ofMinutes(10)).toEpochMilli(), entry.getExpiresAt());
+        assertEquals(Duration.ofMinutes(70), policy.timeToLive("octocat", entry));
+    }
+}
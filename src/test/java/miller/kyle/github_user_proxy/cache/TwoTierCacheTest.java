@@ -0,0 +1,159 @@
+package miller.kyle.github_user_proxy.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TwoTierCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private Cache redis;
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Stands in for the shared Redis tier
+        redis = spy(new ConcurrentMapCache("github-users"));
+        redisTemplate = mock(StringRedisTemplate.class);
+    }
+
+    @Test
+    void get_shouldServeRepeatedReadsFromLocalTier() {
+        // Arrange
+        redis.put("octocat", "octocat-data");
+        TwoTierCache cache = newNode(new CacheInvalidationBus(redisTemplate));
+
+        // Act
+        Cache.ValueWrapper first = cache.get("octocat");
+        Cache.ValueWrapper second = cache.get("octocat");
+
+        // Assert - only the first read went to Redis
+        assertEquals("octocat-data", first.get());
+        assertEquals("octocat-data", second.get());
+        verify(redis, times(1)).get("octocat");
+        assertEquals(1, count("l1", "hit"));
+        assertEquals(1, count("l1", "miss"));
+        assertEquals(1, count("l2", "hit"));
+    }
+
+    @Test
+    void get_shouldCountMissOnBothTiers() {
+        // Arrange
+        TwoTierCache cache = newNode(new CacheInvalidationBus(redisTemplate));
+
+        // Act & Assert
+        assertNull(cache.get("nonexistentuser"));
+        assertEquals(1, count("l1", "miss"));
+        assertEquals(1, count("l2", "miss"));
+    }
+
+    @Test
+    void put_shouldWriteBothTiersAndPublishInvalidation() {
+        // Arrange
+        TwoTierCache cache = newNode(new CacheInvalidationBus(redisTemplate));
+
+        // Act
+        cache.put("octocat", "octocat-data");
+
+        // Assert
+        assertEquals("octocat-data", redis.get("octocat").get());
+        assertEquals("octocat-data", cache.get("octocat").get());
+        verify(redisTemplate).convertAndSend(eq(CacheInvalidationBus.CHANNEL), anyString());
+        assertEquals(1, count("l1", "hit"));
+    }
+
+    @Test
+    void put_shouldInvalidateLocalCopyOnOtherNodes() {
+        // Arrange - two nodes sharing Redis, both holding the old value locally
+        CacheInvalidationBus writerBus = new CacheInvalidationBus(redisTemplate);
+        CacheInvalidationBus readerBus = new CacheInvalidationBus(redisTemplate);
+        TwoTierCache writer = newNode(writerBus);
+        TwoTierCache reader = newNode(readerBus);
+        redis.put("octocat", "old");
+        writer.get("octocat");
+        reader.get("octocat");
+
+        // Act - the writer updates the entry and its message reaches the reader
+        writer.put("octocat", "new");
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CacheInvalidationBus.CHANNEL), message.capture());
+        deliver(readerBus, message.getValue());
+        deliver(writerBus, message.getValue());
+
+        // Assert - the reader goes back to Redis; the writer ignores its own message
+        assertEquals("new", reader.get("octocat").get());
+        assertEquals("new", writer.get("octocat").get());
+    }
+
+    @Test
+    void clear_shouldClearLocalTierOnOtherNodes() {
+        // Arrange
+        CacheInvalidationBus writerBus = new CacheInvalidationBus(redisTemplate);
+        CacheInvalidationBus readerBus = new CacheInvalidationBus(redisTemplate);
+        TwoTierCache writer = newNode(writerBus);
+        TwoTierCache reader = newNode(readerBus);
+        redis.put("octocat", "octocat-data");
+        reader.get("octocat");
+
+        // Act
+        writer.clear();
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CacheInvalidationBus.CHANNEL), message.capture());
+        deliver(readerBus, message.getValue());
+
+        // Assert
+        assertNull(reader.get("octocat"));
+    }
+
+    @Test
+    void put_shouldNotPublishInvalidationWhileRedisIsDown() {
+        // Arrange
+        RedisAvailability availability = new RedisAvailability(meterRegistry, Duration.ofSeconds(5));
+        availability.markDown(new RedisConnectionFailureException("Unable to connect to Redis"));
+        TwoTierCache cache = newNode(new CacheInvalidationBus(redisTemplate, availability));
+
+        // Act
+        cache.put("octocat", "octocat-data");
+        cache.evict("octocat");
+
+        // Assert - no publish waiting for a command timeout
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+    }
+
+    private TwoTierCache newNode(CacheInvalidationBus bus) {
+        TwoTierCache cache = new TwoTierCache(redis, meterRegistry, bus, 100, Duration.ofMinutes(1));
+        bus.register(cache);
+        return cache;
+    }
+
+    private void deliver(CacheInvalidationBus bus, String message) {
+        bus.onMessage(new DefaultMessage(
+                CacheInvalidationBus.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                message.getBytes(StandardCharsets.UTF_8)), null);
+    }
+
+    private double count(String tier, String result) {
+        return meterRegistry.get("cache.tier.gets").tag("tier", tier).tag("result", result).counter().count();
+    }
+}
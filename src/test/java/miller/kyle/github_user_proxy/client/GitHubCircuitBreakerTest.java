@@ -0,0 +1,163 @@
+package miller.kyle.github_user_proxy.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import miller.kyle.github_user_proxy.exception.CircuitOpenException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GitHubCircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private GitHubCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        // Opens once half of at least 4 of the last 10 calls failed
+        circuitBreaker = new GitHubCircuitBreaker(meterRegistry, true, 0.5, 10, 4, OPEN_DURATION, clock);
+    }
+
+    @Test
+    void call_shouldOpenAfterFailureRateIsReachedAndFailFast() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act - two successes, then failures until the rate reaches 50% of 4 calls
+        circuitBreaker.call(() -> calls.incrementAndGet(), GitHubCircuitBreaker::isUpstreamFailure);
+        circuitBreaker.call(() -> calls.incrementAndGet(), GitHubCircuitBreaker::isUpstreamFailure);
+        failOnce();
+        assertEquals(GitHubCircuitBreaker.State.CLOSED, circuitBreaker.state());
+        failOnce();
+
+        // Assert - further calls never reach GitHub
+        assertEquals(GitHubCircuitBreaker.State.OPEN, circuitBreaker.state());
+        assertThrows(CircuitOpenException.class, () -> circuitBreaker.call(
+                () -> calls.incrementAndGet(), GitHubCircuitBreaker::isUpstreamFailure));
+        assertEquals(2, calls.get());
+        assertEquals(1, meterRegistry.get("github.circuit.rejected").counter().count());
+        assertEquals(1, meterRegistry.get("github.circuit.state").gauge().value());
+    }
+
+    @Test
+    void call_shouldNotCountNotFoundAsFailure() {
+        // Act
+        for (int i = 0; i < 10; i++) {
+            assertThrows(HttpClientErrorException.class, () -> circuitBreaker.call(() -> {
+                throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+            }, GitHubCircuitBreaker::isUpstreamFailure));
+        }
+
+        // Assert
+        assertEquals(GitHubCircuitBreaker.State.CLOSED, circuitBreaker.state());
+    }
+
+    @Test
+    void call_shouldCloseAfterSuccessfulTrial() {
+        // Arrange
+        openCircuit();
+        clock.advance(OPEN_DURATION);
+
+        // Act - the first call after the open period is the trial; others wait for its outcome
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onSuccess();
+
+        // Assert
+        assertEquals(GitHubCircuitBreaker.State.CLOSED, circuitBreaker.state());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void call_shouldReopenAfterFailedTrial() {
+        // Arrange
+        openCircuit();
+        clock.advance(OPEN_DURATION);
+
+        // Act
+        failOnce();
+
+        // Assert - open for another full period
+        assertEquals(GitHubCircuitBreaker.State.OPEN, circuitBreaker.state());
+        clock.advance(OPEN_DURATION.minusSeconds(1));
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void call_shouldPassThroughWhenDisabled() {
+        // Arrange
+        GitHubCircuitBreaker disabled = new GitHubCircuitBreaker(
+                new SimpleMeterRegistry(), false, 0.5, 10, 4, OPEN_DURATION, clock);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            assertThrows(HttpServerErrorException.class, () -> disabled.call(() -> {
+                throw serverError();
+            }, GitHubCircuitBreaker::isUpstreamFailure));
+        }
+
+        // Assert
+        assertEquals(GitHubCircuitBreaker.State.CLOSED, disabled.state());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            failOnce();
+        }
+        assertEquals(GitHubCircuitBreaker.State.OPEN, circuitBreaker.state());
+    }
+
+    private void failOnce() {
+        assertThrows(HttpServerErrorException.class, () -> circuitBreaker.call(() -> {
+            throw serverError();
+        }, GitHubCircuitBreaker::isUpstreamFailure));
+    }
+
+    private static HttpServerErrorException serverError() {
+        return HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", null, null, null);
+    }
+
+    /**
+     * Clock the test moves forward by hand
+     */
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
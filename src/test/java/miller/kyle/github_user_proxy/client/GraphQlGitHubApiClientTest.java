@@ -0,0 +1,370 @@
+package miller.kyle.github_user_proxy.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import miller.kyle.github_user_proxy.dto.GitHubUserResponse;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+import miller.kyle.github_user_proxy.exception.GitHubApiException;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class GraphQlGitHubApiClientTest {
+
+    private static final String BASE_URL = "https://api.github.com";
+    private static final String GRAPHQL_URL = BASE_URL + "/graphql";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private RestTemplate restTemplate;
+    private MockRestServiceServer mockServer;
+    private ExecutorService githubExecutor;
+
+    /**
+     * Repos each user owns in the stub; users not listed do not exist
+     */
+    private final Map<String, Integer> repoCounts = new ConcurrentHashMap<>();
+    /**
+     * Logins in {@link #repoCounts} that are organizations rather than users
+     */
+    private final Set<String> organizations = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger maxUsersPerRequest = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        restTemplate = new RestTemplate();
+        mockServer = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        githubExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        githubExecutor.close();
+    }
+
+    @Test
+    void getUserAndRepos_shouldShareOneQuery() throws Exception {
+        // Arrange
+        repoCounts.put("octocat", 2);
+        expectQueries(ExpectedCount.once());
+        GraphQlGitHubApiClient client = newClient(1000);
+
+        // Act - the service asks for the profile and the repos at the same time
+        Future<List<RepoInfo>> repos = githubExecutor.submit(() -> client.getUserRepos("octocat"));
+        GitHubUserResponse user = client.getUser("octocat");
+
+        // Assert
+        assertEquals("octocat", user.getLogin());
+        assertEquals("The octocat", user.getName());
+        assertEquals(BASE_URL + "/users/octocat", user.getUrl());
+        assertEquals("2011-01-25T18:44:36Z", user.getCreatedAt());
+        assertNull(user.getEmail());
+        assertEquals(2, repos.get().size());
+        assertEquals("octocat-repo-0", repos.get().get(0).getName());
+        assertEquals(BASE_URL + "/repos/octocat/octocat-repo-0", repos.get().get(0).getUrl());
+        mockServer.verify();
+    }
+
+    @Test
+    void getUser_shouldBatchConcurrentUsersIntoOneQuery() throws Exception {
+        // Arrange
+        List<String> logins = List.of("alice", "bob", "carol", "dave", "erin");
+        logins.forEach(login -> repoCounts.put(login, 1));
+        expectQueries(ExpectedCount.once());
+        GraphQlGitHubApiClient client = newClient(1000);
+
+        // Act
+        List<Future<GitHubUserResponse>> users = new ArrayList<>();
+        for (String login : logins) {
+            users.add(githubExecutor.submit(() -> client.getUser(login)));
+        }
+
+        // Assert - one request, and every caller got its own user back
+        for (int i = 0; i < logins.size(); i++) {
+            assertEquals(logins.get(i), users.get(i).get().getLogin());
+        }
+        assertEquals(5, maxUsersPerRequest.get());
+        mockServer.verify();
+    }
+
+    @Test
+    void getUser_shouldSplitBatchesAtNodeLimit() throws Exception {
+        // Arrange - room for two users (one node each plus 100 repos) per query
+        List<String> logins = List.of("alice", "bob", "carol", "dave");
+        logins.forEach(login -> repoCounts.put(login, 1));
+        expectQueries(ExpectedCount.times(2));
+        GraphQlGitHubApiClient client = newClient(202);
+
+        // Act
+        List<Future<GitHubUserResponse>> users = new ArrayList<>();
+        for (String login : logins) {
+            users.add(githubExecutor.submit(() -> client.getUser(login)));
+        }
+
+        // Assert
+        for (int i = 0; i < logins.size(); i++) {
+            assertEquals(logins.get(i), users.get(i).get().getLogin());
+        }
+        assertEquals(2, maxUsersPerRequest.get());
+        mockServer.verify();
+    }
+
+    @Test
+    void getUser_shouldThrowUserNotFoundExceptionForMissingUserOnly() throws Exception {
+        // Arrange
+        repoCounts.put("octocat", 1);
+        expectQueries(ExpectedCount.once());
+        GraphQlGitHubApiClient client = newClient(1000);
+
+        // Act
+        Future<GitHubUserResponse> existing = githubExecutor.submit(() -> client.getUser("octocat"));
+
+        // Assert
+        assertThrows(UserNotFoundException.class, () -> client.getUser("nonexistentuser"));
+        assertEquals("octocat", existing.get().getLogin());
+    }
+
+    @Test
+    void getUserAndRepos_shouldResolveOrganization() {
+        // Arrange - organizations are GitHub accounts too, and /users/{login} on the REST API finds them
+        repoCounts.put("github", 150);
+        organizations.add("github");
+        mockServer.expect(ExpectedCount.times(2), requestTo(GRAPHQL_URL))
+                .andExpect(jsonPath("$.query", containsString("repositoryOwner(login: $l")))
+                .andRespond(this::respond);
+        GraphQlGitHubApiClient client = newClient(1000);
+
+        // Act
+        GitHubUserResponse organization = client.getUser("github");
+        List<RepoInfo> repos = client.getUserRepos("github");
+
+        // Assert - the first page came with the profile, the rest from a cursor page query
+        assertEquals("github", organization.getLogin());
+        assertEquals("The github", organization.getName());
+        assertEquals("2008-05-11T04:37:31Z", organization.getCreatedAt());
+        assertEquals(BASE_URL + "/users/github", organization.getUrl());
+        assertEquals(150, repos.size());
+        mockServer.verify();
+    }
+
+    @Test
+    void getUserRepos_shouldFollowCursorPages() {
+        // Arrange - 250 repos: first page comes with the user, then two cursor pages
+        repoCounts.put("prolific", 250);
+        expectQueries(ExpectedCount.times(3));
+        GraphQlGitHubApiClient client = newClient(1000);
+
+        // Act
+        List<RepoInfo> repos = client.getUserRepos("prolific");
+
+        // Assert
+        assertEquals(250, repos.size());
+        assertEquals("prolific-repo-249", repos.get(249).getName());
+        mockServer.verify();
+    }
+
+    @Test
+    void getUserRepos_shouldAskForPublicRepositoriesOnly() {
+        // Arrange - the profile query and the cursor page query must both filter, or the token owner's private
+        // repositories would be cached and served to everyone
+        repoCounts.put("prolific", 150);
+        mockServer.expect(ExpectedCount.times(2), requestTo(GRAPHQL_URL))
+                .andExpect(jsonPath("$.query", containsString("repositories(first: 100, ")))
+                .andExpect(jsonPath("$.query", containsString("privacy: PUBLIC")))
+                .andRespond(this::respond);
+        GraphQlGitHubApiClient client = newClient(1000);
+
+        // Act
+        List<RepoInfo> repos = client.getUserRepos("prolific");
+
+        // Assert
+        assertEquals(150, repos.size());
+        mockServer.verify();
+    }
+
+    @Test
+    void getUserRepos_shouldStopAtConfiguredMaximum() {
+        // Arrange
+        repoCounts.put("prolific", 250);
+        expectQueries(ExpectedCount.times(2));
+        GraphQlGitHubApiClient client = new GraphQlGitHubApiClient(
+                restTemplate, githubExecutor, noCircuitBreaker(), BASE_URL, "", 150, Duration.ofMillis(50), 1000);
+
+        // Act
+        List<RepoInfo> repos = client.getUserRepos("prolific");
+
+        // Assert
+        assertEquals(150, repos.size());
+        mockServer.verify();
+    }
+
+    @Test
+    void getUser_shouldThrowGitHubApiExceptionWhenRequestFails() {
+        // Arrange
+        mockServer.expect(requestTo(GRAPHQL_URL))
+                .andRespond(withStatus(HttpStatus.UNAUTHORIZED));
+        GraphQlGitHubApiClient client = newClient(1000);
+
+        // Act & Assert
+        assertThrows(GitHubApiException.class, () -> client.getUser("octocat"));
+    }
+
+    @Test
+    void getUser_shouldSendTokenAsBearerAuth() {
+        // Arrange
+        repoCounts.put("octocat", 0);
+        mockServer.expect(requestTo(GRAPHQL_URL))
+                .andExpect(header("Authorization", "Bearer secret"))
+                .andRespond(this::respond);
+        GraphQlGitHubApiClient client = new GraphQlGitHubApiClient(
+                restTemplate, githubExecutor, noCircuitBreaker(), BASE_URL, "secret", 1000,
+                Duration.ofMillis(50), 1000);
+
+        // Act
+        client.getUser("octocat");
+
+        // Assert
+        mockServer.verify();
+    }
+
+    private GraphQlGitHubApiClient newClient(int maxNodes) {
+        return new GraphQlGitHubApiClient(
+                restTemplate, githubExecutor, noCircuitBreaker(), BASE_URL, "", 1000, Duration.ofMillis(50), maxNodes);
+    }
+
+    private GitHubCircuitBreaker noCircuitBreaker() {
+        return new GitHubCircuitBreaker(new SimpleMeterRegistry(), false, 0.5, 20, 10, Duration.ofSeconds(30));
+    }
+
+    private void expectQueries(ExpectedCount count) {
+        mockServer.expect(count, requestTo(GRAPHQL_URL))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(this::respond);
+    }
+
+    /**
+     * Stub of the GraphQL endpoint: answers batched owner queries ({@code $l0..$lN}) and cursor page queries
+     */
+    private ClientHttpResponse respond(ClientHttpRequest request) throws IOException {
+        JsonNode body = objectMapper.readTree(((MockClientHttpRequest) request).getBodyAsString());
+        JsonNode variables = body.path("variables");
+        ObjectNode response = objectMapper.createObjectNode();
+        ObjectNode data = response.putObject("data");
+
+        if (variables.has("login")) {
+            String login = variables.path("login").asText();
+            int after = Integer.parseInt(variables.path("after").asText());
+            data.putObject("repositoryOwner").set("repositories", repositories(login, after));
+        } else {
+            maxUsersPerRequest.accumulateAndGet(variables.size(), Math::max);
+            for (int i = 0; i < variables.size(); i++) {
+                String login = variables.path("l" + i).asText();
+                if (organizations.contains(login)) {
+                    data.set("u" + i, organization(login, body.path("query").asText()));
+                } else if (repoCounts.containsKey(login)) {
+                    data.set("u" + i, user(login));
+                } else {
+                    // repositoryOwner reports an unknown login as null, without an error
+                    data.putNull("u" + i);
+                }
+            }
+        }
+
+        ResponseCreator creator = withSuccess(toJson(response), MediaType.APPLICATION_JSON);
+        return creator.createResponse(request);
+    }
+
+    private ObjectNode user(String login) {
+        ObjectNode user = objectMapper.createObjectNode();
+        user.put("login", login);
+        user.put("name", "The " + login);
+        user.put("avatarUrl", "https://avatars.githubusercontent.com/u/583231?v=4");
+        user.put("location", "San Francisco");
+        user.put("email", "");
+        user.put("createdAt", "2011-01-25T18:44:36Z");
+        user.set("repositories", repositories(login, 0));
+        return user;
+    }
+
+    /**
+     * An organization has no User fields, so its profile only comes back if the query selects it as such
+     */
+    private ObjectNode organization(String login, String query) {
+        ObjectNode organization = objectMapper.createObjectNode();
+        organization.put("login", login);
+        organization.put("avatarUrl", "https://avatars.githubusercontent.com/u/9919?v=4");
+        if (query.contains("... on Organization {")) {
+            organization.put("name", "The " + login);
+            organization.putNull("location");
+            organization.putNull("email");
+            organization.put("createdAt", "2008-05-11T04:37:31Z");
+        }
+        organization.set("repositories", repositories(login, 0));
+        return organization;
+    }
+
+    /**
+     * One page of repositories; the cursor is simply the index of the last repo returned
+     */
+    private ObjectNode repositories(String login, int after) {
+        int total = repoCounts.get(login);
+        int end = Math.min(total, after + GraphQlGitHubApiClient.REPOS_PER_PAGE);
+        ObjectNode connection = objectMapper.createObjectNode();
+        connection.putObject("pageInfo")
+                .put("hasNextPage", end < total)
+                .put("endCursor", String.valueOf(end));
+        ArrayNode nodes = connection.putArray("nodes");
+        for (int i = after; i < end; i++) {
+            nodes.addObject()
+                    .put("name", login + "-repo-" + i)
+                    .put("nameWithOwner", login + "/" + login + "-repo-" + i);
+        }
+        return connection;
+    }
+
+    private String toJson(JsonNode node) {
+        try {
+            return objectMapper.writeValueAsString(node);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package miller.kyle.github_user_proxy.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import miller.kyle.github_user_proxy.dto.GitHubUserResponse;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+import miller.kyle.github_user_proxy.exception.GitHubApiException;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReactiveGitHubApiClientTest {
+
+    private static final String BASE_URL = "https://api.github.com";
+
+    /**
+     * Stubbed GitHub responses by request URL; anything else is a 404
+     */
+    private final Map<String, ClientResponse> responses = new ConcurrentHashMap<>();
+    private final List<String> requestedUrls = new CopyOnWriteArrayList<>();
+
+    private final WebClient webClient = WebClient.builder()
+            .baseUrl(BASE_URL)
+            .exchangeFunction(this::exchange)
+            .build();
+
+    @Test
+    void getUser_shouldReturnUserWhenSuccessful() {
+        // Arrange
+        stub("/users/octocat", HttpStatus.OK, "{\"login\":\"octocat\",\"name\":\"The Octocat\"}", null);
+
+        // Act
+        GitHubUserResponse user = newClient(1000).getUser("octocat").block();
+
+        // Assert
+        assertEquals("octocat", user.getLogin());
+        assertEquals("The Octocat", user.getName());
+    }
+
+    @Test
+    void getUser_shouldSignalUserNotFoundExceptionWhen404() {
+        ReactiveGitHubApiClient client = newClient(1000);
+
+        assertThrows(UserNotFoundException.class, () -> client.getUser("nonexistentuser").block());
+    }
+
+    @Test
+    void getUser_shouldSignalGitHubApiExceptionOnOtherErrors() {
+        // Arrange
+        stub("/users/testuser", HttpStatus.FORBIDDEN, "{\"message\":\"rate limited\"}", null);
+        ReactiveGitHubApiClient client = newClient(1000);
+
+        // Act & Assert
+        assertThrows(GitHubApiException.class, () -> client.getUser("testuser").block());
+    }
+
+    @Test
+    void getUserRepos_shouldFetchAllPagesAndMergeInOrder() {
+        // Arrange - first page links to 3 pages in total
+        String reposUrl = "/users/octocat/repos?per_page=100";
+        stub(reposUrl, HttpStatus.OK, repos("page1-", 100), 3);
+        stub(reposUrl + "&page=2", HttpStatus.OK, repos("page2-", 100), 3);
+        stub(reposUrl + "&page=3", HttpStatus.OK, repos("page3-", 42), 3);
+
+        // Act
+        List<RepoInfo> result = newClient(1000).getUserRepos("octocat").block();
+
+        // Assert
+        assertEquals(242, result.size());
+        assertEquals("page1-0", result.get(0).getName());
+        assertEquals(BASE_URL + "/repos/octocat/page1-0", result.get(0).getUrl());
+        assertEquals("page2-0", result.get(100).getName());
+        assertEquals("page3-41", result.get(241).getName());
+    }
+
+    @Test
+    void getUserRepos_shouldReadPageArrivingInChunks() {
+        // Arrange - the page arrives in buffers that split repos mid-token
+        byte[] body = repos("page1-", 3).getBytes(StandardCharsets.UTF_8);
+        Flux<DataBuffer> chunks = Flux.range(0, (body.length + 15) / 16)
+                .map(i -> DefaultDataBufferFactory.sharedInstance.wrap(
+                        Arrays.copyOfRange(body, i * 16, Math.min(body.length, (i + 1) * 16))));
+        responses.put(BASE_URL + "/users/octocat/repos?per_page=100", ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(chunks)
+                .build());
+
+        // Act
+        List<RepoInfo> result = newClient(1000).getUserRepos("octocat").block();
+
+        // Assert
+        assertEquals(List.of("page1-0", "page1-1", "page1-2"), result.stream().map(RepoInfo::getName).toList());
+    }
+
+    @Test
+    void getUserRepos_shouldStopAtConfiguredMaximum() {
+        // Arrange - 150 repos max, account has 5 full pages
+        String reposUrl = "/users/prolific/repos?per_page=100";
+        stub(reposUrl, HttpStatus.OK, repos("page1-", 100), 5);
+        stub(reposUrl + "&page=2", HttpStatus.OK, repos("page2-", 100), 5);
+
+        // Act
+        List<RepoInfo> result = newClient(150).getUserRepos("prolific").block();
+
+        // Assert
+        assertEquals(150, result.size());
+        assertFalse(requestedUrls.contains(BASE_URL + reposUrl + "&page=3"));
+    }
+
+    @Test
+    void getUserRepos_shouldSignalGitHubApiExceptionOnError() {
+        // Arrange
+        stub("/users/testuser/repos?per_page=100", HttpStatus.FORBIDDEN, "{}", null);
+        ReactiveGitHubApiClient client = newClient(1000);
+
+        // Act & Assert
+        assertThrows(GitHubApiException.class, () -> client.getUserRepos("testuser").block());
+    }
+
+    @Test
+    void getUserRepos_shouldSignalUserNotFoundExceptionWhen404() {
+        ReactiveGitHubApiClient client = newClient(1000);
+
+        assertThrows(UserNotFoundException.class, () -> client.getUserRepos("nonexistentuser").block());
+    }
+
+    private ReactiveGitHubApiClient newClient(int maxRepos) {
+        GitHubCircuitBreaker noCircuitBreaker = new GitHubCircuitBreaker(
+                new SimpleMeterRegistry(), false, 0.5, 20, 10, Duration.ofSeconds(30));
+        return new ReactiveGitHubApiClient(webClient, noCircuitBreaker, maxRepos, 4);
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request) {
+        String url = request.url().toString();
+        requestedUrls.add(url);
+        ClientResponse response = responses.get(url);
+        return Mono.just(response != null ? response : ClientResponse.create(HttpStatus.NOT_FOUND).build());
+    }
+
+    private void stub(String path, HttpStatus status, String body, Integer lastPage) {
+        ClientResponse.Builder response = ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body);
+        if (lastPage != null) {
+            response.header(HttpHeaders.LINK,
+                    "<" + BASE_URL + "/user/1/repos?per_page=100&page=" + lastPage + ">; rel=\"last\"");
+        }
+        responses.put(BASE_URL + path, response.build());
+    }
+
+    private String repos(String prefix, int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"name\":\"").append(prefix).append(i)
+                    .append("\",\"url\":\"").append(BASE_URL).append("/repos/octocat/").append(prefix).append(i)
+                    .append("\",\"owner\":{\"login\":\"octocat\"}}");
+        }
+        return json.append(']').toString();
+    }
+}
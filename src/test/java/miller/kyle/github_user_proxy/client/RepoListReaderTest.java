@@ -0,0 +1,157 @@
+package miller.kyle.github_user_proxy.client;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import miller.kyle.github_user_proxy.dto.GitHubRepoResponse;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RepoListReaderTest {
+
+    private static final int REPO_COUNT = 500;
+    private static final int ITERATIONS = 50;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void read_shouldExtractNameAndUrlAndSkipEverythingElse() throws IOException {
+        // Arrange - nested owner.url and a name inside topics must not leak into the result
+        String json = "[" + repoJson(0) + "," + repoJson(1) + "]";
+
+        // Act
+        List<RepoInfo> repos = RepoListReader.read(stream(json));
+
+        // Assert
+        assertEquals(2, repos.size());
+        assertEquals("repo-0", repos.get(0).getName());
+        assertEquals("https://api.github.com/repos/octocat/repo-0", repos.get(0).getUrl());
+        assertEquals("repo-1", repos.get(1).getName());
+        assertEquals("https://api.github.com/repos/octocat/repo-1", repos.get(1).getUrl());
+    }
+
+    @Test
+    void read_shouldReturnEmptyListForEmptyArray() throws IOException {
+        assertTrue(RepoListReader.read(stream("[]")).isEmpty());
+    }
+
+    @Test
+    void read_shouldRejectNonArrayBody() {
+        assertThrows(JsonParseException.class, () -> RepoListReader.read(stream("{\"message\":\"Not Found\"}")));
+    }
+
+    @Test
+    void incremental_shouldReadBodySplitAcrossChunks() throws IOException {
+        // Arrange - chunks that split field names, strings and the nested owner
+        byte[] body = ("[" + repoJson(0) + "," + repoJson(1) + "]").getBytes(StandardCharsets.UTF_8);
+        RepoListReader.Incremental reader = RepoListReader.incremental();
+
+        // Act
+        for (int i = 0; i < body.length; i += 7) {
+            reader.feed(ByteBuffer.wrap(body, i, Math.min(7, body.length - i)));
+        }
+        List<RepoInfo> repos = reader.finish();
+
+        // Assert
+        assertEquals(List.of("repo-0", "repo-1"), repos.stream().map(RepoInfo::getName).toList());
+        assertEquals("https://api.github.com/repos/octocat/repo-1", repos.get(1).getUrl());
+    }
+
+    @Test
+    void incremental_shouldRejectTruncatedBody() throws IOException {
+        // Arrange
+        RepoListReader.Incremental reader = RepoListReader.incremental();
+        reader.feed(ByteBuffer.wrap(("[" + repoJson(0) + ",").getBytes(StandardCharsets.UTF_8)));
+
+        // Act & Assert
+        assertThrows(JsonParseException.class, reader::finish);
+    }
+
+    @Test
+    void incremental_shouldRejectNonArrayBody() throws IOException {
+        RepoListReader.Incremental reader = RepoListReader.incremental();
+
+        assertThrows(JsonParseException.class,
+                () -> reader.feed(ByteBuffer.wrap("{\"message\":\"Not Found\"}".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void read_shouldAllocateLessThanDatabind() throws IOException {
+        // Arrange - a realistic page of repos, each with the full set of GitHub fields
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < REPO_COUNT; i++) {
+            json.append(i == 0 ? "" : ",").append(repoJson(i));
+        }
+        byte[] body = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < ITERATIONS; i++) {
+            RepoListReader.read(new ByteArrayInputStream(body));
+            readWithDatabind(body);
+        }
+
+        // Act
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(REPO_COUNT, RepoListReader.read(new ByteArrayInputStream(body)).size());
+        }
+        long streaming = threads.getCurrentThreadAllocatedBytes() - before;
+
+        before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(REPO_COUNT, readWithDatabind(body).size());
+        }
+        long databind = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // Assert
+        assertTrue(streaming < databind,
+                "Expected streaming (" + streaming + " bytes) to allocate less than databind (" + databind + " bytes)");
+    }
+
+    /**
+     * The previous path: bind every repo to a DTO, then map to RepoInfo
+     */
+    private List<RepoInfo> readWithDatabind(byte[] body) throws IOException {
+        List<GitHubRepoResponse> repos = objectMapper.readValue(body, new TypeReference<List<GitHubRepoResponse>>() {
+        });
+        return repos.stream()
+                .map(repo -> new RepoInfo(repo.getName(), repo.getUrl()))
+                .toList();
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String repoJson(int i) {
+        String name = "repo-" + i;
+        return """
+                {"id":%d,"node_id":"MDEwOlJlcG9zaXRvcnkxMjk2MjY5","name":"%s","full_name":"octocat/%s",
+                "private":false,"owner":{"login":"octocat","id":1,"url":"https://api.github.com/users/octocat",
+                "html_url":"https://github.com/octocat","type":"User","site_admin":false},
+                "html_url":"https://github.com/octocat/%s","description":"This your first repo!","fork":false,
+                "url":"https://api.github.com/repos/octocat/%s",
+                "topics":[{"name":"ignored"},"octocat","atom","electron","api"],
+                "license":{"key":"mit","name":"MIT License","spdx_id":"MIT","url":"https://api.github.com/licenses/mit"},
+                "permissions":{"admin":false,"push":false,"pull":true},
+                "homepage":null,"language":"Java","forks_count":9,"stargazers_count":80,"watchers_count":80,
+                "size":108,"default_branch":"master","open_issues_count":0,"is_template":false,
+                "has_issues":true,"has_projects":true,"has_wiki":true,"has_pages":false,"has_downloads":true,
+                "archived":false,"disabled":false,"visibility":"public","pushed_at":"2011-01-26T19:06:43Z",
+                "created_at":"2011-01-26T19:01:12Z","updated_at":"2011-01-26T19:14:43Z"}"""
+                .formatted(i, name, name, name, name);
+    }
+}
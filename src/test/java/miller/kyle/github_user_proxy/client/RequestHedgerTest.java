@@ -0,0 +1,134 @@
+package miller.kyle.github_user_proxy.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestHedgerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService githubExecutor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        githubExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        githubExecutor.close();
+    }
+
+    @Test
+    void call_shouldSendHedgeAndTakeItWhenFirstAttemptIsSlow() {
+        // Arrange - budget for a hedge on every request; the first attempt stalls, the second is fast
+        RequestHedger hedger = newHedger(1.0);
+        AtomicInteger attempts = new AtomicInteger();
+        Callable<String> attempt = () -> {
+            if (attempts.incrementAndGet() == 1) {
+                Thread.sleep(2000);
+                return "slow";
+            }
+            return "fast";
+        };
+
+        // Act
+        long start = System.nanoTime();
+        String result = hedger.call("user", attempt);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Assert
+        assertEquals("fast", result);
+        assertEquals(2, attempts.get());
+        assertTrue(elapsed.toMillis() < 1000, "Expected the hedge to answer, took " + elapsed.toMillis());
+        assertEquals(1, count("github.hedge.sent"));
+        assertEquals(1, count("github.hedge.won"));
+    }
+
+    @Test
+    void call_shouldNotHedgeFastRequests() {
+        // Arrange
+        RequestHedger hedger = newHedger(1.0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        String result = hedger.call("user", () -> {
+            attempts.incrementAndGet();
+            return "octocat";
+        });
+
+        // Assert
+        assertEquals("octocat", result);
+        assertEquals(1, attempts.get());
+        assertEquals(0, count("github.hedge.sent"));
+    }
+
+    @Test
+    void call_shouldOnlyHedgeWithinBudget() {
+        // Arrange - every request earns half a hedge
+        RequestHedger hedger = newHedger(0.5);
+        Callable<String> slow = () -> {
+            Thread.sleep(200);
+            return "slow";
+        };
+
+        // Act - different operations, so the first call's latency does not raise the second call's hedge delay
+        hedger.call("repos", slow);
+        hedger.call("user", slow);
+
+        // Assert - first request had no budget yet, second had earned a full hedge
+        assertEquals(1, count("github.hedge.skipped"));
+        assertEquals(1, count("github.hedge.sent"));
+    }
+
+    @Test
+    void call_shouldRethrowOriginalException() {
+        // Arrange
+        RequestHedger hedger = newHedger(1.0);
+
+        // Act & Assert
+        assertThrows(UserNotFoundException.class, () -> hedger.call("user", () -> {
+            throw new UserNotFoundException("nonexistentuser");
+        }));
+    }
+
+    @Test
+    void call_shouldCallOnceWhenDisabled() {
+        // Arrange
+        RequestHedger hedger = new RequestHedger(
+                githubExecutor, meterRegistry, false, 0.95, Duration.ofMillis(50), 1.0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        hedger.call("user", () -> {
+            attempts.incrementAndGet();
+            Thread.sleep(200);
+            return "octocat";
+        });
+
+        // Assert
+        assertEquals(1, attempts.get());
+        assertEquals(0, count("github.hedge.sent"));
+    }
+
+    private RequestHedger newHedger(double budgetRatio) {
+        return new RequestHedger(githubExecutor, meterRegistry, true, 0.95, Duration.ofMillis(50), budgetRatio);
+    }
+
+    private double count(String name) {
+        return meterRegistry.find(name).counters().stream().mapToDouble(counter -> counter.count()).sum();
+    }
+}
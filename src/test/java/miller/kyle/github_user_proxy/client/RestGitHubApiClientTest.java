@@ -0,0 +1,393 @@
+package miller.kyle.github_user_proxy.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import miller.kyle.github_user_proxy.dto.GitHubUserResponse;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+import miller.kyle.github_user_proxy.exception.GitHubApiException;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import miller.kyle.github_user_proxy.service.GitHubDataService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RestGitHubApiClientTest {
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private RestGitHubApiClient gitHubApiClient;
+
+    private ExecutorService githubExecutor;
+
+    private ConcurrentMapCacheManager cacheManager;
+
+    private final String baseUrl = "https://api.github.com";
+
+    @BeforeEach
+    void setUp() {
+        githubExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        cacheManager = new ConcurrentMapCacheManager();
+        gitHubApiClient = newClient(1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        githubExecutor.close();
+    }
+
+    @Test
+    void getUser_shouldReturnUserWhenSuccessful() {
+        // Arrange
+        String username = "octocat";
+        GitHubUserResponse mockUser = new GitHubUserResponse();
+        mockUser.setLogin(username);
+        mockUser.setName("The Octocat");
+
+        ResponseEntity<GitHubUserResponse> responseEntity = ResponseEntity.ok(mockUser);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(GitHubUserResponse.class)))
+                .thenReturn(responseEntity);
+
+        // Act
+        GitHubUserResponse result = gitHubApiClient.getUser(username);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(username, result.getLogin());
+        assertEquals("The Octocat", result.getName());
+        verify(restTemplate, times(1)).exchange(
+                eq(baseUrl + "/users/" + username),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                eq(GitHubUserResponse.class)
+        );
+    }
+
+    @Test
+    void getUser_shouldThrowUserNotFoundExceptionWhen404() {
+        // Arrange
+        String username = "nonexistentuser";
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(GitHubUserResponse.class)))
+                .thenThrow(HttpClientErrorException.NotFound.class);
+
+        // Act & Assert
+        assertThrows(UserNotFoundException.class, () -> gitHubApiClient.getUser(username));
+        verify(restTemplate, times(1)).exchange(
+                eq(baseUrl + "/users/" + username),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                eq(GitHubUserResponse.class)
+        );
+    }
+
+    @Test
+    void getUser_shouldThrowGitHubApiExceptionOnOtherErrors() {
+        // Arrange
+        String username = "testuser";
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(GitHubUserResponse.class)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.FORBIDDEN));
+
+        // Act & Assert
+        assertThrows(GitHubApiException.class, () -> gitHubApiClient.getUser(username));
+    }
+
+    @Test
+    void getUserRepos_shouldReturnRepositoriesWhenSuccessful() {
+        // Arrange
+        String username = "octocat";
+        RepoInfo repo1 = new RepoInfo("Hello-World", "https://api.github.com/repos/octocat/Hello-World");
+        RepoInfo repo2 = new RepoInfo("test-repo", "https://api.github.com/repos/octocat/test-repo");
+
+        List<RepoInfo> repos = Arrays.asList(repo1, repo2);
+        ResponseEntity<List<RepoInfo>> responseEntity = ResponseEntity.ok(repos);
+
+        when(restTemplate.execute(
+                anyString(),
+                eq(HttpMethod.GET),
+                any(RequestCallback.class),
+                any(ResponseExtractor.class)
+        )).thenReturn(responseEntity);
+
+        // Act
+        List<RepoInfo> result = gitHubApiClient.getUserRepos(username);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(2, result.size());
+        assertEquals("Hello-World", result.get(0).getName());
+        assertEquals("test-repo", result.get(1).getName());
+    }
+
+    @Test
+    void getUserRepos_shouldThrowGitHubApiExceptionOnError() {
+        // Arrange
+        String username = "testuser";
+        when(restTemplate.execute(
+                anyString(),
+                eq(HttpMethod.GET),
+                any(RequestCallback.class),
+                any(ResponseExtractor.class)
+        )).thenThrow(new HttpClientErrorException(HttpStatus.FORBIDDEN));
+
+        // Act & Assert
+        assertThrows(GitHubApiException.class, () -> gitHubApiClient.getUserRepos(username));
+    }
+
+    @Test
+    void getUser_shouldRevalidateWithETagAndReuseCachedProfileWhenNotModified() {
+        // Arrange - first response carries an ETag, second is a 304
+        String username = "octocat";
+        GitHubUserResponse mockUser = new GitHubUserResponse();
+        mockUser.setLogin(username);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"abc123\"");
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(GitHubUserResponse.class)))
+                .thenReturn(ResponseEntity.ok().headers(headers).body(mockUser))
+                .thenReturn(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+        // Act - the profile is cached in between, as the caching layer does
+        GitHubUserResponse first = gitHubApiClient.getUser(username);
+        cacheManager.getCache(GitHubDataService.PROFILES_CACHE).put(username, first);
+        GitHubUserResponse second = gitHubApiClient.getUser(username);
+
+        // Assert
+        assertEquals(username, first.getLogin());
+        assertSame(first, second);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<HttpEntity<Void>> requests = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, times(2)).exchange(
+                eq(baseUrl + "/users/" + username),
+                eq(HttpMethod.GET),
+                requests.capture(),
+                eq(GitHubUserResponse.class)
+        );
+        assertNull(requests.getAllValues().get(0).getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals("\"abc123\"", requests.getAllValues().get(1).getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void getUser_shouldNotRevalidateWithoutCachedProfile() {
+        // Arrange - validators are stored, but the profile is no longer cached
+        String username = "octocat";
+        GitHubUserResponse mockUser = new GitHubUserResponse();
+        mockUser.setLogin(username);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"abc123\"");
+        when(restTemplate.exchange(
+                anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(GitHubUserResponse.class)))
+                .thenReturn(ResponseEntity.ok().headers(headers).body(mockUser));
+
+        // Act
+        gitHubApiClient.getUser(username);
+        gitHubApiClient.getUser(username);
+
+        // Assert - a 304 could not be answered, so the body is requested again
+        assertNull(lastUserRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void getUser_shouldNotRevalidateCachedProfileOtherThanTheValidated() {
+        // Arrange - the cached profile is older than the response the validators came with
+        String username = "octocat";
+        GitHubUserResponse mockUser = new GitHubUserResponse();
+        mockUser.setLogin(username);
+        mockUser.setName("The Octocat");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"abc123\"");
+        when(restTemplate.exchange(
+                anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(GitHubUserResponse.class)))
+                .thenReturn(ResponseEntity.ok().headers(headers).body(mockUser));
+        GitHubUserResponse older = new GitHubUserResponse();
+        older.setLogin(username);
+        cacheManager.getCache(GitHubDataService.PROFILES_CACHE).put(username, older);
+
+        // Act
+        gitHubApiClient.getUser(username);
+        gitHubApiClient.getUser(username);
+
+        // Assert
+        assertNull(lastUserRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void getUserRepos_shouldReuseCachedBodyWhenNotModified() {
+        // Arrange
+        String username = "octocat";
+        RepoInfo repo = new RepoInfo("Hello-World", "https://api.github.com/repos/octocat/Hello-World");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("W/\"repos\"");
+        ResponseEntity<List<RepoInfo>> okResponse = ResponseEntity.ok().headers(headers).body(List.of(repo));
+        ResponseEntity<List<RepoInfo>> notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+
+        when(restTemplate.execute(
+                anyString(),
+                eq(HttpMethod.GET),
+                any(RequestCallback.class),
+                any(ResponseExtractor.class)
+        )).thenReturn(okResponse).thenReturn(notModified);
+
+        // Act
+        cacheManager.getCache(GitHubDataService.REPOS_CACHE).put(username, gitHubApiClient.getUserRepos(username));
+        List<RepoInfo> result = gitHubApiClient.getUserRepos(username);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertSame(repo, result.get(0));
+    }
+
+    @Test
+    void getUserRepos_shouldRebuildNotModifiedPagesFromCachedList() {
+        // Arrange - two pages with ETags, both answered 304 the second time
+        String username = "octocat";
+        String reposUrl = baseUrl + "/users/" + username + "/repos?per_page=100";
+        stubRepoPage(reposUrl, repos("page1-", 100), 2);
+        stubRepoPage(reposUrl + "&page=2", repos("page2-", 42), 2);
+        cacheManager.getCache(GitHubDataService.REPOS_CACHE).put(username, gitHubApiClient.getUserRepos(username));
+        ResponseEntity<List<RepoInfo>> notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        when(restTemplate.execute(
+                anyString(), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class)))
+                .thenReturn(notModified);
+
+        // Act - the second page is still requested, from the stored Link header
+        List<RepoInfo> result = gitHubApiClient.getUserRepos(username);
+
+        // Assert
+        assertEquals(142, result.size());
+        assertEquals("page1-99", result.get(99).getName());
+        assertEquals("page2-41", result.get(141).getName());
+        verify(restTemplate, times(2)).execute(
+                eq(reposUrl + "&page=2"),
+                eq(HttpMethod.GET),
+                any(RequestCallback.class),
+                any(ResponseExtractor.class)
+        );
+    }
+
+    @Test
+    void getUserRepos_shouldFetchAllPagesAndMergeInOrder() {
+        // Arrange - first page links to 3 pages in total
+        String username = "octocat";
+        String reposUrl = baseUrl + "/users/" + username + "/repos?per_page=100";
+        stubRepoPage(reposUrl, repos("page1-", 100), 3);
+        stubRepoPage(reposUrl + "&page=2", repos("page2-", 100), 3);
+        stubRepoPage(reposUrl + "&page=3", repos("page3-", 42), 3);
+
+        // Act
+        List<RepoInfo> result = gitHubApiClient.getUserRepos(username);
+
+        // Assert
+        assertEquals(242, result.size());
+        assertEquals("page1-0", result.get(0).getName());
+        assertEquals("page2-0", result.get(100).getName());
+        assertEquals("page3-41", result.get(241).getName());
+    }
+
+    @Test
+    void getUserRepos_shouldStopAtConfiguredMaximum() {
+        // Arrange - 150 repos max, account has 5 full pages
+        gitHubApiClient = newClient(150);
+        String username = "prolific";
+        String reposUrl = baseUrl + "/users/" + username + "/repos?per_page=100";
+        stubRepoPage(reposUrl, repos("page1-", 100), 5);
+        stubRepoPage(reposUrl + "&page=2", repos("page2-", 100), 5);
+
+        // Act
+        List<RepoInfo> result = gitHubApiClient.getUserRepos(username);
+
+        // Assert
+        assertEquals(150, result.size());
+        assertEquals("page2-49", result.get(149).getName());
+        verify(restTemplate, never()).execute(
+                eq(reposUrl + "&page=3"),
+                eq(HttpMethod.GET),
+                any(RequestCallback.class),
+                any(ResponseExtractor.class)
+        );
+    }
+
+    @Test
+    void lastPage_shouldParseLinkHeader() {
+        String link = "<https://api.github.com/user/583231/repos?per_page=100&page=2>; rel=\"next\", "
+                + "<https://api.github.com/user/583231/repos?per_page=100&page=7>; rel=\"last\"";
+
+        assertEquals(7, RestGitHubApiClient.lastPage(link));
+        assertEquals(1, RestGitHubApiClient.lastPage(null));
+        assertEquals(1, RestGitHubApiClient.lastPage(
+                "<https://api.github.com/user/583231/repos?per_page=100&page=1>; rel=\"prev\""));
+    }
+
+    private RestGitHubApiClient newClient(int maxRepos) {
+        RequestHedger noHedging = new RequestHedger(
+                githubExecutor, new SimpleMeterRegistry(), false, 0.95, Duration.ofMillis(100), 0.05);
+        GitHubCircuitBreaker noCircuitBreaker = new GitHubCircuitBreaker(
+                new SimpleMeterRegistry(), false, 0.5, 20, 10, Duration.ofSeconds(30));
+        return new RestGitHubApiClient(restTemplate, cacheManager, githubExecutor,
+                noHedging, noCircuitBreaker, baseUrl, maxRepos, 4);
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpEntity<?> lastUserRequest() {
+        ArgumentCaptor<HttpEntity<?>> requests = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, times(2)).exchange(
+                anyString(), eq(HttpMethod.GET), requests.capture(), eq(GitHubUserResponse.class));
+        return requests.getValue();
+    }
+
+    private void stubRepoPage(String url, List<RepoInfo> repos, int lastPage) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"" + url.hashCode() + "\"");
+        headers.set(HttpHeaders.LINK, "<" + baseUrl + "/user/1/repos?per_page=100&page=" + lastPage + ">; rel=\"last\"");
+        ResponseEntity<List<RepoInfo>> response = ResponseEntity.ok().headers(headers).body(repos);
+        when(restTemplate.execute(
+                eq(url),
+                eq(HttpMethod.GET),
+                any(RequestCallback.class),
+                any(ResponseExtractor.class)
+        )).thenReturn(response);
+    }
+
+    private List<RepoInfo> repos(String prefix, int count) {
+        List<RepoInfo> repos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            repos.add(new RepoInfo(prefix + i, baseUrl + "/repos/octocat/" + prefix + i));
+        }
+        return repos;
+    }
+}
@@ -0,0 +1,234 @@
+package miller.kyle.github_user_proxy.controller;
+
+import miller.kyle.github_user_proxy.dto.BatchUserResult;
+import miller.kyle.github_user_proxy.dto.ErrorResponse;
+import miller.kyle.github_user_proxy.dto.UserProxyResponse;
+import miller.kyle.github_user_proxy.service.BatchUserProxyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BatchUserProxyController.class)
+class BatchUserProxyControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private BatchUserProxyService batchUserProxyService;
+
+    @Test
+    void getUsers_shouldReturnResultPerUsernameInRequestOrder() throws Exception {
+        // Arrange
+        UserProxyResponse octocat = new UserProxyResponse();
+        octocat.setUserName("octocat");
+        Map<String, BatchUserResult> results = new LinkedHashMap<>();
+        results.put("octocat", BatchUserResult.found("octocat", octocat));
+        results.put("nonexistentuser", BatchUserResult.failed("nonexistentuser",
+                new ErrorResponse("Not Found", "GitHub user not found: nonexistentuser", 404)));
+        when(batchUserProxyService.getUsers(List.of("octocat", "nonexistentuser"))).thenReturn(results);
+
+        // Act & Assert - duplicates collapse, invalid usernames fail on their own without a lookup
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"usernames\":[\"octocat\",\"-invalid-\",\"nonexistentuser\",\"octocat\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(3))
+                .andExpect(jsonPath("$.users[0].username").value("octocat"))
+                .andExpect(jsonPath("$.users[0].status").value(200))
+                .andExpect(jsonPath("$.users[0].user.user_name").value("octocat"))
+                .andExpect(jsonPath("$.users[0].error").doesNotExist())
+                .andExpect(jsonPath("$.users[1].username").value("-invalid-"))
+                .andExpect(jsonPath("$.users[1].status").value(400))
+                .andExpect(jsonPath("$.users[1].error.error").value("Bad Request"))
+                .andExpect(jsonPath("$.users[2].username").value("nonexistentuser"))
+                .andExpect(jsonPath("$.users[2].status").value(404))
+                .andExpect(jsonPath("$.users[2].user").doesNotExist());
+
+        verify(batchUserProxyService).getUsers(List.of("octocat", "nonexistentuser"));
+    }
+
+    @Test
+    void getUsers_shouldStreamResultsAsNdjsonWhenAccepted() throws Exception {
+        // Arrange - the service passes on results in completion order
+        UserProxyResponse octocat = new UserProxyResponse();
+        octocat.setUserName("octocat");
+        doAnswer(invocation -> {
+            Consumer<BatchUserResult> sink = invocation.getArgument(1);
+            sink.accept(BatchUserResult.found("octocat", octocat));
+            sink.accept(BatchUserResult.failed("nonexistentuser",
+                    new ErrorResponse("Not Found", "GitHub user not found: nonexistentuser", 404)));
+            return null;
+        }).when(batchUserProxyService).streamUsers(eq(List.of("nonexistentuser", "octocat")), any());
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content("{\"usernames\":[\"nonexistentuser\",\"-invalid-\",\"octocat\"]}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert - one JSON object per line, invalid usernames first as they need no lookup
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        List<String> lines = body.lines().toList();
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).contains("\"username\":\"-invalid-\""));
+        assertTrue(lines.get(0).contains("\"status\":400"));
+        assertTrue(lines.get(1).contains("\"user_name\":\"octocat\""));
+        assertTrue(lines.get(2).contains("\"status\":404"));
+    }
+
+    @Test
+    void getUsers_shouldRunConcurrentStreamsEachOnItsOwnVirtualThread() throws Exception {
+        // Arrange - every stream blocks until all of them are running, as streams waiting on GitHub would
+        int streams = 20;
+        CountDownLatch running = new CountDownLatch(streams);
+        Set<Boolean> virtual = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            virtual.add(Thread.currentThread().isVirtual());
+            running.countDown();
+            if (!running.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Streams did not run concurrently");
+            }
+            String username = invocation.<List<String>>getArgument(0).getFirst();
+            invocation.<Consumer<BatchUserResult>>getArgument(1).accept(BatchUserResult.failed(username,
+                    new ErrorResponse("Not Found", "GitHub user not found: " + username, 404)));
+            return null;
+        }).when(batchUserProxyService).streamUsers(any(), any());
+
+        // Act
+        List<MvcResult> results = new ArrayList<>();
+        for (int i = 0; i < streams; i++) {
+            results.add(mockMvc.perform(post("/api/users/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_NDJSON)
+                            .content("{\"usernames\":[\"user-" + i + "\"]}"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn());
+        }
+
+        // Assert - all streams were in flight at once, none queued behind the others
+        for (int i = 0; i < streams; i++) {
+            String body = mockMvc.perform(asyncDispatch(results.get(i)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            assertTrue(body.contains("\"username\":\"user-" + i + "\""));
+        }
+        assertEquals(Set.of(true), virtual);
+    }
+
+    @Test
+    void getUsers_shouldRejectEmptyBatch() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"usernames\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Bad Request"));
+
+        verifyNoInteractions(batchUserProxyService);
+    }
+
+    @Test
+    void getUsers_shouldRejectBatchOverMaximumSize() throws Exception {
+        // Arrange
+        String usernames = IntStream.rangeClosed(1, 501)
+                .mapToObj(i -> "\"user-" + i + "\"")
+                .collect(Collectors.joining(","));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"usernames\":[" + usernames + "]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("A batch must contain between 1 and 500 usernames"));
+
+        verifyNoInteractions(batchUserProxyService);
+    }
+
+    @Test
+    void getUsers_shouldRejectNullUsernames() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"usernames\":null}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Bad Request"))
+                .andExpect(jsonPath("$.message").value("A batch must contain between 1 and 500 usernames"));
+
+        verifyNoInteractions(batchUserProxyService);
+    }
+
+    @Test
+    void getUsers_shouldRejectMalformedBody() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"usernames\":[\"octocat\""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Bad Request"))
+                .andExpect(jsonPath("$.message").value("Request body is missing or is not valid JSON"))
+                .andExpect(jsonPath("$.status").value(400));
+
+        verifyNoInteractions(batchUserProxyService);
+    }
+
+    @Test
+    void getUsers_shouldRejectMissingBody() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Bad Request"));
+
+        verifyNoInteractions(batchUserProxyService);
+    }
+
+    @Test
+    void getUsers_shouldRejectBodyThatIsNotJson() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("octocat"))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(jsonPath("$.error").value("Unsupported Media Type"))
+                .andExpect(jsonPath("$.status").value(415));
+
+        verifyNoInteractions(batchUserProxyService);
+    }
+}
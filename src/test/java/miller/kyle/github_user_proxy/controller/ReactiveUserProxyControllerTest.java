@@ -0,0 +1,113 @@
+package miller.kyle.github_user_proxy.controller;
+
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+import miller.kyle.github_user_proxy.dto.UserProxyResponse;
+import miller.kyle.github_user_proxy.exception.GitHubApiException;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import miller.kyle.github_user_proxy.service.ReactiveUserProxyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(ReactiveUserProxyController.class)
+class ReactiveUserProxyControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private ReactiveUserProxyService userProxyService;
+
+    private UserProxyResponse mockResponse;
+
+    @BeforeEach
+    void setUp() {
+        mockResponse = new UserProxyResponse();
+        mockResponse.setUserName("octocat");
+        mockResponse.setDisplayName("The Octocat");
+        mockResponse.setAvatar("https://avatars.githubusercontent.com/u/583231?v=4");
+        mockResponse.setGeoLocation("San Francisco");
+        mockResponse.setEmail(null);
+        mockResponse.setUrl("https://api.github.com/users/octocat");
+        mockResponse.setCreatedAt("Tue, 25 Jan 2011 18:44:36 GMT");
+
+        RepoInfo repo1 = new RepoInfo("Hello-World", "https://api.github.com/repos/octocat/Hello-World");
+        RepoInfo repo2 = new RepoInfo("boysenberry-repo-1", "https://api.github.com/repos/octocat/boysenberry-repo-1");
+        mockResponse.setRepos(Arrays.asList(repo1, repo2));
+    }
+
+    @Test
+    void getUserData_shouldReturnUserDataWithSameJsonContract() {
+        // Arrange
+        when(userProxyService.getUserData("octocat")).thenReturn(Mono.just(mockResponse));
+
+        // Act & Assert
+        webTestClient.get().uri("/api/users/{username}", "octocat")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.user_name").isEqualTo("octocat")
+                .jsonPath("$.display_name").isEqualTo("The Octocat")
+                .jsonPath("$.geo_location").isEqualTo("San Francisco")
+                .jsonPath("$.email").isEmpty()
+                .jsonPath("$.created_at").isEqualTo("Tue, 25 Jan 2011 18:44:36 GMT")
+                .jsonPath("$.repos.length()").isEqualTo(2)
+                .jsonPath("$.repos[0].url").isEqualTo("https://api.github.com/repos/octocat/Hello-World");
+    }
+
+    @Test
+    void getUserData_shouldReturn404WhenUserNotFound() {
+        // Arrange
+        String username = "nonexistentuser";
+        when(userProxyService.getUserData(username)).thenReturn(Mono.error(new UserNotFoundException(username)));
+
+        // Act & Assert
+        webTestClient.get().uri("/api/users/{username}", username)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Not Found")
+                .jsonPath("$.message").isEqualTo("GitHub user not found: nonexistentuser")
+                .jsonPath("$.status").isEqualTo(404);
+    }
+
+    @Test
+    void getUserData_shouldReturn502OnGitHubApiError() {
+        // Arrange
+        when(userProxyService.getUserData("octocat"))
+                .thenReturn(Mono.error(new GitHubApiException("GitHub API error: 403 FORBIDDEN")));
+
+        // Act & Assert
+        webTestClient.get().uri("/api/users/{username}", "octocat")
+                .exchange()
+                .expectStatus().isEqualTo(502)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Bad Gateway")
+                .jsonPath("$.status").isEqualTo(502);
+    }
+
+    @Test
+    void getUserData_shouldReturn400ForInvalidUsername() {
+        // Act & Assert
+        webTestClient.get().uri("/api/users/{username}", "octo--cat")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Bad Request")
+                .jsonPath("$.message").isEqualTo("Invalid GitHub username: octo--cat")
+                .jsonPath("$.status").isEqualTo(400);
+
+        verifyNoInteractions(userProxyService);
+    }
+}
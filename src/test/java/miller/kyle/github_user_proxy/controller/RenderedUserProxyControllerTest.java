@@ -0,0 +1,170 @@
+package miller.kyle.github_user_proxy.controller;
+
+import miller.kyle.github_user_proxy.dto.RenderedResponse;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import miller.kyle.github_user_proxy.service.RenderedResponseService;
+import miller.kyle.github_user_proxy.service.UserProxyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@link UserProxyController} with rendered response caching enabled
+ */
+@WebMvcTest(UserProxyController.class)
+class RenderedUserProxyControllerTest {
+
+    private static final String JSON = "{\"user_name\":\"octocat\",\"display_name\":\"The Octocat\",\"repos\":[]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private UserProxyService userProxyService;
+
+    @MockitoBean
+    private RenderedResponseService renderedResponseService;
+
+    @Test
+    void getUserData_shouldSendGzippedBodyAsIs() throws Exception {
+        // Arrange
+        byte[] gzipped = gzip(JSON);
+        when(renderedResponseService.getUserData("octocat")).thenReturn(new RenderedResponse(gzipped, true));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{username}", "octocat").header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().longValue("Content-Length", gzipped.length))
+                .andExpect(content().bytes(gzipped));
+
+        verifyNoInteractions(userProxyService);
+    }
+
+    @Test
+    void getUserData_shouldSendBrotliBodyToClientsAcceptingIt() throws Exception {
+        // Arrange - the Brotli bytes only need to differ from the gzipped ones here
+        byte[] brotli = {11, 2, 3, 5, 7};
+        when(renderedResponseService.getUserData("octocat"))
+                .thenReturn(new RenderedResponse(gzip(JSON), true, brotli, "5d41402abc4b2a76", 0));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{username}", "octocat").header("Accept-Encoding", "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "br"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().string("ETag", "\"5d41402abc4b2a76-br\""))
+                .andExpect(content().bytes(brotli));
+    }
+
+    @Test
+    void getUserData_shouldSendGzippedBodyToClientsPreferringGzip() throws Exception {
+        // Arrange
+        byte[] gzipped = gzip(JSON);
+        when(renderedResponseService.getUserData("octocat"))
+                .thenReturn(new RenderedResponse(gzipped, true, new byte[] {11, 2, 3}, "5d41402abc4b2a76", 0));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{username}", "octocat").header("Accept-Encoding", "br;q=0.5, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(content().bytes(gzipped));
+    }
+
+    @Test
+    void getUserData_shouldDecodeGzippedBodyForClientsWithoutGzip() throws Exception {
+        // Arrange
+        when(renderedResponseService.getUserData("octocat")).thenReturn(new RenderedResponse(gzip(JSON), true));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{username}", "octocat").header("Accept-Encoding", "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().longValue("Content-Length", JSON.length()))
+                .andExpect(jsonPath("$.user_name").value("octocat"));
+    }
+
+    @Test
+    void getUserData_shouldSendPlainBodyWhateverTheClientAccepts() throws Exception {
+        // Arrange
+        when(renderedResponseService.getUserData("octocat"))
+                .thenReturn(new RenderedResponse(JSON.getBytes(StandardCharsets.UTF_8), false));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{username}", "octocat").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().doesNotExist("Vary"))
+                .andExpect(content().json(JSON));
+    }
+
+    @Test
+    void getUserData_shouldSendStoredValidators() throws Exception {
+        // Arrange
+        long expiresAt = System.currentTimeMillis() + 120_000;
+        when(renderedResponseService.getUserData("octocat"))
+                .thenReturn(new RenderedResponse(gzip(JSON), true, null, "5d41402abc4b2a76", expiresAt));
+
+        // Act & Assert - gzipped and plain bodies are tagged apart
+        mockMvc.perform(get("/api/users/{username}", "octocat").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5d41402abc4b2a76-gzip\""))
+                .andExpect(header().string("Cache-Control", matchesPattern("max-age=1(19|20)")));
+        mockMvc.perform(get("/api/users/{username}", "octocat"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5d41402abc4b2a76\""));
+    }
+
+    @Test
+    void getUserData_shouldReturn304WhenStoredETagMatches() throws Exception {
+        // Arrange
+        when(renderedResponseService.getUserData("octocat")).thenReturn(new RenderedResponse(
+                gzip(JSON), true, null, "5d41402abc4b2a76", System.currentTimeMillis() + 120_000));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{username}", "octocat")
+                        .header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", "W/\"5d41402abc4b2a76-gzip\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getUserData_shouldReturn404WhenUserNotFound() throws Exception {
+        // Arrange
+        when(renderedResponseService.getUserData("nonexistentuser"))
+                .thenThrow(new UserNotFoundException("nonexistentuser"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{username}", "nonexistentuser"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404));
+    }
+
+    private static byte[] gzip(String json) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -1,8 +1,12 @@
 package miller.kyle.github_user_proxy.controller;
 
+import miller.kyle.github_user_proxy.cache.ResponseExpiry;
+import miller.kyle.github_user_proxy.cache.ResponseTag;
+import miller.kyle.github_user_proxy.cache.StaleResponse;
 import miller.kyle.github_user_proxy.dto.RepoInfo;
 import miller.kyle.github_user_proxy.dto.UserProxyResponse;
 import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import miller.kyle.github_user_proxy.service.GitHubDataService;
 import miller.kyle.github_user_proxy.service.UserProxyService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,14 +15,24 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -74,6 +88,134 @@ class UserProxyControllerTest {
         verify(userProxyService, times(1)).getUserData(username);
     }
 
+    @Test
+    void getUserData_shouldMarkStaleResponse() throws Exception {
+        // Arrange - the cache served an expired copy because GitHub is failing
+        String username = "octocat";
+        when(userProxyService.getUserData(username)).thenAnswer(invocation -> {
+            StaleResponse.record(Duration.ofMinutes(45));
+            return mockResponse;
+        });
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{username}", username))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Warning", "110 - \"Response is Stale\""))
+                .andExpect(header().string("Age", "2700"))
+                .andExpect(jsonPath("$.user_name").value("octocat"));
+    }
+
+    @Test
+    void getUserData_shouldNotMarkFreshResponse() throws Exception {
+        // Arrange
+        when(userProxyService.getUserData("octocat")).thenReturn(mockResponse);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{username}", "octocat"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Warning"))
+                .andExpect(header().doesNotExist("Age"));
+    }
+
+    @Test
+    void getUserData_shouldAllowCachingUntilTheCachedDataExpires() throws Exception {
+        // Arrange - the profile and repos were served from entries expiring in 10 and 5 minutes
+        when(userProxyService.getUserData("octocat")).thenAnswer(invocation -> {
+            ResponseExpiry.record(System.currentTimeMillis() + Duration.ofMinutes(10).toMillis());
+            ResponseExpiry.record(System.currentTimeMillis() + Duration.ofMinutes(5).toMillis());
+            servedTags();
+            return mockResponse;
+        });
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/users/{username}", "octocat"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn();
+
+        // Assert - the earliest expiry wins
+        String cacheControl = result.getResponse().getHeader("Cache-Control");
+        long maxAge = Long.parseLong(cacheControl.substring("max-age=".length()));
+        assertTrue(maxAge > 290 && maxAge <= 300, "Unexpected " + cacheControl);
+    }
+
+    @Test
+    void getUserData_shouldReturn304WhenETagMatches() throws Exception {
+        // Arrange - the tags stored with the profile and repo entries make up a strong tag
+        when(userProxyService.getUserData("octocat")).thenAnswer(invocation -> {
+            servedTags();
+            return mockResponse;
+        });
+        String etag = mockMvc.perform(get("/api/users/{username}", "octocat"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert - same tag for the same data, and no body when the client has it
+        assertEquals("\"5d41402abc4b2a767d793762f1a4e7c2\"", etag);
+        mockMvc.perform(get("/api/users/{username}", "octocat").header("If-None-Match", "\"other\", " + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getUserData_shouldGzipLargeBodyWithItsOwnStrongTag() throws Exception {
+        // Arrange - enough repos to pass the gzip threshold
+        mockResponse.setRepos(IntStream.range(0, 50)
+                .mapToObj(i -> new RepoInfo("repo-" + i, "https://api.github.com/repos/octocat/repo-" + i))
+                .toList());
+        when(userProxyService.getUserData("octocat")).thenAnswer(invocation -> {
+            servedTags();
+            return mockResponse;
+        });
+
+        // Act
+        MvcResult gzipped = mockMvc.perform(get("/api/users/{username}", "octocat")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().string("ETag", "\"5d41402abc4b2a767d793762f1a4e7c2-gzip\""))
+                .andReturn();
+        MvcResult identity = mockMvc.perform(get("/api/users/{username}", "octocat"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", "\"5d41402abc4b2a767d793762f1a4e7c2\""))
+                .andReturn();
+
+        // Assert - the same JSON either way
+        byte[] body = gzipped.getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertArrayEquals(identity.getResponse().getContentAsByteArray(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void getUserData_shouldNotTagResponseWithoutEntryTags() throws Exception {
+        // Arrange - e.g. the cache failed and the parts were fetched directly
+        when(userProxyService.getUserData("octocat")).thenReturn(mockResponse);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{username}", "octocat"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
+    @Test
+    void getUserData_shouldNotAllowReuseOfStaleResponse() throws Exception {
+        // Arrange - an entry that expired a minute ago was served
+        when(userProxyService.getUserData("octocat")).thenAnswer(invocation -> {
+            StaleResponse.record(Duration.ofMinutes(61));
+            ResponseExpiry.record(System.currentTimeMillis() - Duration.ofMinutes(1).toMillis());
+            return mockResponse;
+        });
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{username}", "octocat"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=0"));
+    }
+
     @Test
     void getUserData_shouldReturn404WhenUserNotFound() throws Exception {
         // Arrange
@@ -104,4 +246,29 @@ class UserProxyControllerTest {
 
         verify(userProxyService, times(1)).getUserData(username);
     }
+
+    @Test
+    void getUserData_shouldReturn400ForInvalidUsernames() throws Exception {
+        // Arrange - leading, trailing and double hyphens, illegal characters, and one character too long
+        String[] usernames = {"-octocat", "octocat-", "octo--cat", "octo.cat", "octo cat", "a".repeat(40)};
+
+        // Act & Assert
+        for (String username : usernames) {
+            mockMvc.perform(get("/api/users/{username}", username))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Bad Request"))
+                    .andExpect(jsonPath("$.message").value("Invalid GitHub username: " + username))
+                    .andExpect(jsonPath("$.status").value(400));
+        }
+
+        verifyNoInteractions(userProxyService);
+    }
+
+    /**
+     * Record the tags stored with the profile and repo entries a response was assembled from
+     */
+    private static void servedTags() {
+        ResponseTag.record(GitHubDataService.PROFILES_CACHE, "5d41402abc4b2a76");
+        ResponseTag.record(GitHubDataService.REPOS_CACHE, "7d793762f1a4e7c2");
+    }
 }
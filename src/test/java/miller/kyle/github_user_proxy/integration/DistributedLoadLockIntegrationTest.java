@@ -0,0 +1,231 @@
+package miller.kyle.github_user_proxy.integration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import miller.kyle.github_user_proxy.cache.CoalescingCache;
+import miller.kyle.github_user_proxy.cache.RedisLoadLock;
+import miller.kyle.github_user_proxy.exception.GitHubApiException;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simulates several application nodes, each with its own in-process coalescing, sharing one Redis
+ */
+@SpringBootTest(properties = {
+        "github.cache.distributed-lock.enabled=true",
+        "github.cache.distributed-lock.lease-time=5s",
+        "github.cache.distributed-lock.wait-timeout=1s",
+        "github.cache.distributed-lock.poll-interval=20ms"
+})
+@Testcontainers
+class DistributedLoadLockIntegrationTest {
+
+    private static final String CACHE_NAME = "lock-test";
+
+    @Container
+    @ServiceConnection
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine")
+            .withExposedPorts(6379);
+
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+
+    @Autowired
+    private RedisLoadLock loadLock;
+
+    @AfterEach
+    void tearDown() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.serverCommands().flushDb();
+        }
+    }
+
+    @Test
+    void get_shouldLoadOnceAcrossNodes_whenNodesMissConcurrently() throws Exception {
+        // Arrange - three nodes, each with its own in-process single flight
+        List<Cache> nodes = List.of(newNode(), newNode(), newNode());
+        AtomicInteger loaderCalls = new AtomicInteger();
+        Callable<String> loader = () -> {
+            loaderCalls.incrementAndGet();
+            Thread.sleep(300);
+            return "octocat-data";
+        };
+
+        // Act
+        List<Future<String>> results = getConcurrently(nodes, loader);
+
+        // Assert
+        for (Future<String> result : results) {
+            assertEquals("octocat-data", result.get());
+        }
+        assertEquals(1, loaderCalls.get());
+    }
+
+    @Test
+    void get_shouldLoadDirectly_whenLeaseHolderNeverFillsTheCache() {
+        // Arrange - another node holds the lease but never fills the entry
+        Cache node = newNode();
+        String token = loadLock.tryAcquire(CACHE_NAME + "::octocat");
+        assertNotNull(token);
+        AtomicInteger loaderCalls = new AtomicInteger();
+
+        // Act
+        long start = System.nanoTime();
+        String value = node.get("octocat", () -> {
+            loaderCalls.incrementAndGet();
+            return "octocat-data";
+        });
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Assert - waited for the configured timeout, then fetched itself
+        assertEquals("octocat-data", value);
+        assertEquals(1, loaderCalls.get());
+        assertTrue(elapsed.toMillis() >= 1000, "Expected to wait for the lease holder, waited " + elapsed.toMillis());
+    }
+
+    @Test
+    void get_shouldRetryOnceAcrossNodes_whenLeaseHolderLoadFails() throws Exception {
+        // Arrange - the first load fails as if GitHub were down, the next succeeds
+        List<Cache> nodes = List.of(newNode(), newNode(), newNode());
+        AtomicInteger loaderCalls = new AtomicInteger();
+        Callable<String> loader = () -> {
+            int call = loaderCalls.incrementAndGet();
+            Thread.sleep(200);
+            if (call == 1) {
+                throw new GitHubApiException("GitHub is down");
+            }
+            return "octocat-data";
+        };
+
+        // Act
+        List<Future<String>> results = getConcurrently(nodes, loader);
+
+        // Assert - callers on the failed node share its failure, the other nodes share a single retry
+        int loaded = 0;
+        for (Future<String> result : results) {
+            try {
+                assertEquals("octocat-data", result.get());
+                loaded++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(GitHubApiException.class, e.getCause().getCause());
+            }
+        }
+        assertEquals(6, loaded);
+        assertEquals(2, loaderCalls.get());
+    }
+
+    @Test
+    void get_shouldNotLoadAgain_whenLeaseHolderFindsNoSuchUser() throws Exception {
+        // Arrange - the holder records the user as not found before giving up the lease
+        Set<Object> notFound = ConcurrentHashMap.newKeySet();
+        List<Cache> nodes = List.of(newNode(notFound), newNode(notFound), newNode(notFound));
+        AtomicInteger loaderCalls = new AtomicInteger();
+        Callable<String> loader = () -> {
+            loaderCalls.incrementAndGet();
+            Thread.sleep(200);
+            notFound.add("octocat");
+            throw new UserNotFoundException("octocat");
+        };
+
+        // Act
+        List<Future<String>> results = getConcurrently(nodes, loader);
+
+        // Assert
+        for (Future<String> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, result::get);
+            assertInstanceOf(UserNotFoundException.class, e.getCause().getCause());
+        }
+        assertEquals(1, loaderCalls.get());
+    }
+
+    @Test
+    void get_shouldTakeOverLease_whenLeaseHolderReleasesWithoutFilling() throws Exception {
+        // Arrange - another node holds the lease and gives up shortly after (e.g. its load failed)
+        Cache node = newNode();
+        String lockKey = CACHE_NAME + "::octocat";
+        String token = loadLock.tryAcquire(lockKey);
+        assertNotNull(token);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> {
+                Thread.sleep(100);
+                loadLock.release(lockKey, token);
+                return null;
+            });
+
+            // Act
+            long start = System.nanoTime();
+            String value = node.get("octocat", () -> "octocat-data");
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            // Assert - did not wait for the full timeout
+            assertEquals("octocat-data", value);
+            assertTrue(elapsed.toMillis() < 1000, "Expected to stop waiting once the lease was released");
+        }
+    }
+
+    /**
+     * Three concurrent callers per node, released together
+     */
+    private List<Future<String>> getConcurrently(List<Cache> nodes, Callable<String> loader) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Cache node : nodes) {
+                for (int i = 0; i < 3; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return node.get("octocat", loader);
+                    }));
+                }
+            }
+            start.countDown();
+        }
+        return results;
+    }
+
+    private Cache newNode() {
+        RedisCacheManager cacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(1)))
+                .build();
+        return new CoalescingCache(cacheManager.getCache(CACHE_NAME), new SimpleMeterRegistry(), loadLock);
+    }
+
+    private Cache newNode(Set<Object> notFound) {
+        RedisCacheManager cacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(1)))
+                .build();
+        return new CoalescingCache(cacheManager.getCache(CACHE_NAME), new SimpleMeterRegistry(), loadLock,
+                value -> true, notFound::contains);
+    }
+}
@@ -1,8 +1,11 @@
 package miller.kyle.github_user_proxy.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import miller.kyle.github_user_proxy.cache.CacheEntry;
 import miller.kyle.github_user_proxy.dto.GitHubRepoResponse;
 import miller.kyle.github_user_proxy.dto.GitHubUserResponse;
+import miller.kyle.github_user_proxy.service.GitHubDataService;
+import miller.kyle.github_user_proxy.service.UserProxyService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,10 +13,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.client.RestTemplate;
@@ -25,6 +31,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
@@ -58,7 +65,8 @@ class RedisCachingIntegrationTest {
 
     @BeforeEach
     void setUp() {
-        mockServer = MockRestServiceServer.createServer(restTemplate);
+        // Profile and repos are fetched concurrently, so requests may arrive in either order
+        mockServer = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
     }
 
     @AfterEach
@@ -87,7 +95,7 @@ class RedisCachingIntegrationTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body(objectMapper.writeValueAsString(mockUser)));
 
-        mockServer.expect(requestTo("https://api.github.com/users/" + username + "/repos"))
+        mockServer.expect(requestTo("https://api.github.com/users/" + username + "/repos?per_page=100"))
                 .andExpect(method(HttpMethod.GET))
                 .andRespond(withStatus(HttpStatus.OK)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -143,7 +151,7 @@ class RedisCachingIntegrationTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body(objectMapper.writeValueAsString(mockUser1)));
 
-        mockServer.expect(requestTo("https://api.github.com/users/" + user1 + "/repos"))
+        mockServer.expect(requestTo("https://api.github.com/users/" + user1 + "/repos?per_page=100"))
                 .andExpect(method(HttpMethod.GET))
                 .andRespond(withStatus(HttpStatus.OK)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -155,7 +163,7 @@ class RedisCachingIntegrationTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .body(objectMapper.writeValueAsString(mockUser2)));
 
-        mockServer.expect(requestTo("https://api.github.com/users/" + user2 + "/repos"))
+        mockServer.expect(requestTo("https://api.github.com/users/" + user2 + "/repos?per_page=100"))
                 .andExpect(method(HttpMethod.GET))
                 .andRespond(withStatus(HttpStatus.OK)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -196,11 +204,11 @@ class RedisCachingIntegrationTest {
     }
 
     @Test
-    void getUserData_shouldNotCacheErrors() throws Exception {
+    void getUserData_shouldCacheNotFound_untilNotFoundCacheIsCleared() throws Exception {
         // Arrange
         String username = "nonexistentuser";
 
-        // Setup mock server to expect TWO calls (errors should not be cached)
+        // Setup mock server to expect TWO calls: the first lookup, and the one after the not-found cache is cleared
         mockServer.expect(requestTo("https://api.github.com/users/" + username))
                 .andExpect(method(HttpMethod.GET))
                 .andRespond(withStatus(HttpStatus.NOT_FOUND));
@@ -209,18 +217,128 @@ class RedisCachingIntegrationTest {
                 .andExpect(method(HttpMethod.GET))
                 .andRespond(withStatus(HttpStatus.NOT_FOUND));
 
-        // Act - First request (404 error)
+        // The concurrent repo fetch may or may not reach GitHub before it is cancelled
+        mockServer.expect(ExpectedCount.max(2), requestTo("https://api.github.com/users/" + username + "/repos?per_page=100"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        // Act - First request (404 from GitHub)
         mockMvc.perform(get("/api/users/{username}", username))
                 .andExpect(status().isNotFound());
 
-        // Act - Second request (should make another GitHub API call since errors aren't cached)
+        // Act - Second request (answered from the not-found cache)
+        mockMvc.perform(get("/api/users/{username}", username))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("GitHub user not found: " + username));
+
+        // Act - Third request after invalidating the not-found cache (goes to GitHub again)
+        Objects.requireNonNull(cacheManager.getCache(UserProxyService.NOT_FOUND_CACHE)).clear();
         mockMvc.perform(get("/api/users/{username}", username))
                 .andExpect(status().isNotFound());
 
-        // Verify both requests hit the GitHub API
+        // Verify only the first and third requests hit the GitHub API
+        mockServer.verify();
+    }
+
+    @Test
+    void getUserData_shouldRevalidateWithETag_afterCacheEntryExpires() throws Exception {
+        // Arrange
+        String username = "octocat";
+        HttpHeaders userHeaders = new HttpHeaders();
+        userHeaders.setETag("\"user-etag\"");
+        HttpHeaders reposHeaders = new HttpHeaders();
+        reposHeaders.setETag("\"repos-etag\"");
+
+        mockServer.expect(requestTo("https://api.github.com/users/" + username))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .headers(userHeaders)
+                        .body(objectMapper.writeValueAsString(createMockUser(username))));
+
+        mockServer.expect(requestTo("https://api.github.com/users/" + username + "/repos?per_page=100"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .headers(reposHeaders)
+                        .body(objectMapper.writeValueAsString(createMockRepos())));
+
+        mockMvc.perform(get("/api/users/{username}", username))
+                .andExpect(status().isOk());
+        mockServer.verify();
+        mockServer.reset();
+
+        // Simulate expiry of the profile and repo cache entries; they are kept through the stale grace period,
+        // and the stored validators survive
+        expire(GitHubDataService.PROFILES_CACHE, username);
+        expire(GitHubDataService.REPOS_CACHE, username);
+
+        // Expect conditional requests answered with 304 Not Modified
+        mockServer.expect(requestTo("https://api.github.com/users/" + username))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"user-etag\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        mockServer.expect(requestTo("https://api.github.com/users/" + username + "/repos?per_page=100"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"repos-etag\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        // Act & Assert - response is rebuilt from the revalidated entries
+        mockMvc.perform(get("/api/users/{username}", username))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user_name").value("octocat"))
+                .andExpect(jsonPath("$.repos.length()").value(2));
+
         mockServer.verify();
     }
 
+    @Test
+    void getUserData_shouldRefetchOnlyTheExpiredPart() throws Exception {
+        // Arrange
+        String username = "octocat";
+        mockServer.expect(requestTo("https://api.github.com/users/" + username))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(objectMapper.writeValueAsString(createMockUser(username))));
+
+        mockServer.expect(requestTo("https://api.github.com/users/" + username + "/repos?per_page=100"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(objectMapper.writeValueAsString(createMockRepos())));
+
+        mockMvc.perform(get("/api/users/{username}", username))
+                .andExpect(status().isOk());
+        mockServer.verify();
+        mockServer.reset();
+
+        // Simulate expiry of the repo list only
+        Objects.requireNonNull(cacheManager.getCache(GitHubDataService.REPOS_CACHE)).evict(username);
+
+        // Expect the repos to be fetched again, but not the profile
+        List<GitHubRepoResponse> updatedRepos = createMockRepos().subList(0, 1);
+        mockServer.expect(requestTo("https://api.github.com/users/" + username + "/repos?per_page=100"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(objectMapper.writeValueAsString(updatedRepos)));
+
+        // Act & Assert - the cached profile is combined with the fresh repo list
+        mockMvc.perform(get("/api/users/{username}", username))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.display_name").value("The Octocat"))
+                .andExpect(jsonPath("$.repos.length()").value(1));
+
+        mockServer.verify();
+    }
+
+    private void expire(String cacheName, String username) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName));
+        Object value = Objects.requireNonNull(cache.get(username)).get();
+        long now = System.currentTimeMillis();
+        cache.put(username, new CacheEntry(value, now - 60_000, now - 1, 0));
+    }
+
     // Helper methods to create mock data
 
     private GitHubUserResponse createMockUser(String username) {
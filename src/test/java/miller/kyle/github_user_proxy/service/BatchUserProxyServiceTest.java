@@ -0,0 +1,278 @@
+package miller.kyle.github_user_proxy.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import miller.kyle.github_user_proxy.cache.CacheEntry;
+import miller.kyle.github_user_proxy.cache.NotFoundFilter;
+import miller.kyle.github_user_proxy.cache.RedisAvailability;
+import miller.kyle.github_user_proxy.cache.RedisMultiGet;
+import miller.kyle.github_user_proxy.cache.RefreshAheadPolicy;
+import miller.kyle.github_user_proxy.dto.BatchUserResult;
+import miller.kyle.github_user_proxy.dto.GitHubUserResponse;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+import miller.kyle.github_user_proxy.dto.UserProxyResponse;
+import miller.kyle.github_user_proxy.exception.CircuitOpenException;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchUserProxyServiceTest {
+
+    private final RefreshAheadPolicy policy =
+            new RefreshAheadPolicy(Duration.ofMinutes(30), 0, 1.0, Duration.ofHours(1));
+
+    /**
+     * Stands in for Redis: serialized keys are returned as values and deserialized from this map
+     */
+    private final Map<String, Object> redis = new HashMap<>();
+
+    private ExecutorService executor;
+    private UserProxyService userProxyService;
+    private RedisMultiGet redisMultiGet;
+    private RedisSerializer<Object> cacheValueSerializer;
+    private NotFoundFilter notFoundFilter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        userProxyService = mock(UserProxyService.class);
+        redisMultiGet = mock(RedisMultiGet.class);
+        cacheValueSerializer = mock(RedisSerializer.class);
+        when(redisMultiGet.get(anyList())).thenAnswer(invocation -> ((List<byte[]>) invocation.getArgument(0))
+                .stream()
+                .map(key -> redis.containsKey(new String(key, StandardCharsets.UTF_8)) ? key : null)
+                .toList());
+        when(cacheValueSerializer.deserialize(any())).thenAnswer(invocation ->
+                redis.get(new String((byte[]) invocation.getArgument(0), StandardCharsets.UTF_8)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void getUsers_shouldAnswerCachedUsersFromOneMultiKeyRead() {
+        // Arrange
+        cache("octocat");
+        cache("torvalds");
+        BatchUserProxyService service = newService(4, null);
+
+        // Act
+        Map<String, BatchUserResult> results = service.getUsers(List.of("octocat", "torvalds"));
+
+        // Assert
+        assertEquals(List.of("octocat", "torvalds"), List.copyOf(results.keySet()));
+        assertEquals(200, results.get("octocat").getStatus());
+        assertEquals("octocat", results.get("octocat").getUser().getUserName());
+        assertEquals(1, results.get("torvalds").getUser().getRepos().size());
+        verify(redisMultiGet, times(1)).get(anyList());
+        verify(userProxyService, never()).getUserData(anyString());
+    }
+
+    @Test
+    void getUsers_shouldLookUpMissesAndReportErrorsPerUser() {
+        // Arrange - one cached, one uncached, one recently not found, one failing upstream
+        cache("octocat");
+        redis.put(UserProxyService.NOT_FOUND_CACHE + "::nonexistentuser", Boolean.TRUE);
+        when(userProxyService.getUserData("torvalds")).thenReturn(response("torvalds"));
+        when(userProxyService.getUserData("gaearon")).thenThrow(new CircuitOpenException());
+        BatchUserProxyService service = newService(4, null);
+
+        // Act
+        Map<String, BatchUserResult> results =
+                service.getUsers(List.of("octocat", "torvalds", "nonexistentuser", "gaearon"));
+
+        // Assert - results stay in request order
+        assertEquals(List.of("octocat", "torvalds", "nonexistentuser", "gaearon"), List.copyOf(results.keySet()));
+        assertEquals(200, results.get("torvalds").getStatus());
+        assertEquals(404, results.get("nonexistentuser").getStatus());
+        assertEquals("Not Found", results.get("nonexistentuser").getError().getError());
+        assertEquals(502, results.get("gaearon").getStatus());
+        verify(userProxyService, never()).getUserData("octocat");
+        verify(userProxyService, never()).getUserData("nonexistentuser");
+    }
+
+    @Test
+    void getUsers_shouldLookUpUsersWithExpiredEntries() {
+        // Arrange
+        redis.put(GitHubDataService.PROFILES_CACHE + "::octocat", new CacheEntry(githubUser("octocat"), 0, 1, 0));
+        redis.put(GitHubDataService.REPOS_CACHE + "::octocat", policy.newEntry(repos(), 10));
+        when(userProxyService.getUserData("octocat")).thenReturn(response("octocat"));
+        BatchUserProxyService service = newService(4, null);
+
+        // Act
+        Map<String, BatchUserResult> results = service.getUsers(List.of("octocat"));
+
+        // Assert
+        assertEquals(200, results.get("octocat").getStatus());
+        verify(userProxyService, times(1)).getUserData("octocat");
+    }
+
+    @Test
+    void getUsers_shouldBoundConcurrentLookups() {
+        // Arrange
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(userProxyService.getUserData(anyString())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return response(invocation.getArgument(0));
+        });
+        BatchUserProxyService service = newService(3, null);
+
+        // Act
+        Map<String, BatchUserResult> results = service.getUsers(
+                List.of("user-1", "user-2", "user-3", "user-4", "user-5", "user-6", "user-7", "user-8"));
+
+        // Assert
+        assertTrue(results.values().stream().allMatch(result -> result.getStatus() == 200));
+        assertTrue(maxRunning.get() <= 3, "Too many concurrent lookups: " + maxRunning.get());
+    }
+
+    @Test
+    void getUsers_shouldSkipMultiKeyReadWhileRedisIsDown() {
+        // Arrange
+        RedisAvailability availability = new RedisAvailability(new SimpleMeterRegistry(), Duration.ofSeconds(5));
+        availability.markDown(new RedisConnectionFailureException("Redis down"));
+        when(userProxyService.getUserData("octocat")).thenReturn(response("octocat"));
+        BatchUserProxyService service = newService(4, availability);
+
+        // Act
+        Map<String, BatchUserResult> results = service.getUsers(List.of("octocat"));
+
+        // Assert
+        assertEquals(200, results.get("octocat").getStatus());
+        verify(redisMultiGet, never()).get(anyList());
+    }
+
+    @Test
+    void streamUsers_shouldPassOnCacheHitsBeforeLookupsComplete() {
+        // Arrange
+        cache("octocat");
+        when(userProxyService.getUserData("torvalds")).thenAnswer(invocation -> {
+            Thread.sleep(20);
+            return response("torvalds");
+        });
+        when(userProxyService.getUserData("nonexistentuser")).thenThrow(new UserNotFoundException("nonexistentuser"));
+        BatchUserProxyService service = newService(4, null);
+        List<BatchUserResult> streamed = new ArrayList<>();
+
+        // Act
+        service.streamUsers(List.of("torvalds", "octocat", "nonexistentuser"), streamed::add);
+
+        // Assert - the hit comes first, the slow lookup last
+        assertEquals(List.of("octocat", "nonexistentuser", "torvalds"),
+                streamed.stream().map(BatchUserResult::getUsername).toList());
+        assertEquals(404, streamed.get(1).getStatus());
+    }
+
+    @Test
+    void streamUsers_shouldKeepOutstandingResultsBounded() {
+        // Arrange - a consumer slower than the lookups
+        int total = 3 * BatchUserProxyService.STREAM_CHUNK_SIZE;
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger maxOutstanding = new AtomicInteger();
+        when(userProxyService.getUserData(anyString())).thenAnswer(invocation -> {
+            maxOutstanding.accumulateAndGet(started.incrementAndGet() - consumed.get(), Math::max);
+            return response(invocation.getArgument(0));
+        });
+        BatchUserProxyService service = newService(4, null);
+        List<String> usernames = IntStream.range(0, total).mapToObj(i -> "user-" + i).toList();
+
+        // Act
+        service.streamUsers(usernames, result -> {
+            consumed.incrementAndGet();
+            LockSupport.parkNanos(100_000);
+        });
+
+        // Assert - every user streamed, with no more lookups ahead of the consumer than the concurrency
+        assertEquals(total, consumed.get());
+        assertTrue(maxOutstanding.get() <= 4, "Too many outstanding results: " + maxOutstanding.get());
+        verify(redisMultiGet, times(3)).get(anyList());
+    }
+
+    @Test
+    void getUsers_shouldServeCachedUserDespiteFilterFalsePositive() {
+        // Arrange - the filter claims one cached user and one uncached user
+        cache("octocat");
+        notFoundFilter = new NotFoundFilter(1000, 0.001, Duration.ofMinutes(5));
+        notFoundFilter.put("octocat");
+        notFoundFilter.put("nonexistentuser");
+        BatchUserProxyService service = newService(4, null);
+
+        // Act
+        Map<String, BatchUserResult> results = service.getUsers(List.of("octocat", "nonexistentuser"));
+
+        // Assert - the filter only answers for users missing from the cache
+        assertEquals(200, results.get("octocat").getStatus());
+        assertEquals(404, results.get("nonexistentuser").getStatus());
+        verify(userProxyService, never()).getUserData(anyString());
+    }
+
+    private BatchUserProxyService newService(int concurrency, RedisAvailability availability) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        if (availability != null) {
+            beanFactory.registerSingleton("redisCache", availability);
+        }
+        if (notFoundFilter != null) {
+            beanFactory.registerSingleton("notFoundFilter", notFoundFilter);
+        }
+        return new BatchUserProxyService(userProxyService, redisMultiGet, cacheValueSerializer, policy,
+                beanFactory.getBeanProvider(NotFoundFilter.class),
+                beanFactory.getBeanProvider(RedisAvailability.class),
+                executor, new SimpleMeterRegistry(), concurrency);
+    }
+
+    private void cache(String username) {
+        redis.put(GitHubDataService.PROFILES_CACHE + "::" + username, policy.newEntry(githubUser(username), 10));
+        redis.put(GitHubDataService.REPOS_CACHE + "::" + username, policy.newEntry(repos(), 10));
+    }
+
+    private static GitHubUserResponse githubUser(String username) {
+        GitHubUserResponse githubUser = new GitHubUserResponse();
+        githubUser.setLogin(username);
+        githubUser.setUrl("https://api.github.com/users/" + username);
+        return githubUser;
+    }
+
+    private static List<RepoInfo> repos() {
+        return List.of(new RepoInfo("Hello-World", "https://api.github.com/repos/octocat/Hello-World"));
+    }
+
+    private static UserProxyResponse response(String username) {
+        UserProxyResponse response = new UserProxyResponse();
+        response.setUserName(username);
+        response.setRepos(repos());
+        return response;
+    }
+}
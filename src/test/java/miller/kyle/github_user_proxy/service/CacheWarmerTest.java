@@ -0,0 +1,250 @@
+package miller.kyle.github_user_proxy.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import miller.kyle.github_user_proxy.cache.HotKeyTracker;
+import miller.kyle.github_user_proxy.exception.GitHubApiException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CacheWarmerTest {
+
+    private static final int TOP_N = 100;
+
+    private GitHubDataService gitHubDataService;
+    private HotKeyTracker hotKeyTracker;
+    private StringRedisTemplate redisTemplate;
+    private ZSetOperations<String, String> zSetOperations;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        gitHubDataService = mock(GitHubDataService.class);
+        hotKeyTracker = new HotKeyTracker(TOP_N);
+        redisTemplate = mock(StringRedisTemplate.class);
+        zSetOperations = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void persist_shouldReplaceOwnSetWithTopUsernamesScoredByRank() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            hotKeyTracker.record("octocat");
+        }
+        hotKeyTracker.record("torvalds");
+
+        // Act
+        newWarmer(1000).persist();
+
+        // Assert - the busiest scores highest, in a set of this node's own that expires if it stops writing
+        ArgumentCaptor<String> nodeKey = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Set<TypedTuple<String>>> added = ArgumentCaptor.forClass(Set.class);
+        verify(zSetOperations).add(nodeKey.capture(), added.capture());
+        assertTrue(nodeKey.getValue().startsWith(CacheWarmer.HOT_USERS_KEY + ":"), nodeKey.getValue());
+        Map<String, Double> scores = added.getValue().stream()
+                .collect(Collectors.toMap(TypedTuple::getValue, TypedTuple::getScore));
+        assertEquals(Map.of("octocat", (double) TOP_N, "torvalds", TOP_N - 1.0), scores);
+        verify(redisTemplate).delete(nodeKey.getValue());
+        verify(redisTemplate).expire(nodeKey.getValue(), Duration.ofDays(1));
+        verify(zSetOperations).add(eq(CacheWarmer.NODES_KEY), eq(nodeKey.getValue()), anyDouble());
+    }
+
+    @Test
+    void persist_shouldDecayCountsOnlyOnceWritten() {
+        // Arrange
+        hotKeyTracker.record("octocat");
+        CacheWarmer warmer = newWarmer(1000);
+
+        // Act
+        warmer.persist();
+
+        // Assert - a single request halves to nothing
+        assertEquals(List.of(), hotKeyTracker.top());
+    }
+
+    @Test
+    void persist_shouldWriteNothingWithoutTraffic() {
+        // Act
+        newWarmer(1000).persist();
+
+        // Assert
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void persist_shouldKeepCountsWhenRedisFails() {
+        // Arrange
+        hotKeyTracker.record("octocat");
+        when(zSetOperations.add(anyString(), any(Set.class)))
+                .thenThrow(new RedisConnectionFailureException("Unable to connect to Redis"));
+
+        // Act - does not throw
+        newWarmer(1000).persist();
+
+        // Assert - not decayed, so the next write still has the username
+        verify(redisTemplate, never()).expire(anyString(), any(Duration.class));
+        assertEquals(List.of("octocat"), hotKeyTracker.top());
+    }
+
+    @Test
+    void warmUp_shouldMergeNodesBySummedScore() {
+        // Arrange - torvalds is hot on both nodes
+        when(zSetOperations.rangeByScore(eq(CacheWarmer.NODES_KEY), anyDouble(), anyDouble()))
+                .thenReturn(new LinkedHashSet<>(List.of("node-a", "node-b")));
+        when(zSetOperations.reverseRangeWithScores("node-a", 0, TOP_N - 1)).thenReturn(ranked("octocat", "torvalds"));
+        when(zSetOperations.reverseRangeWithScores("node-b", 0, TOP_N - 1)).thenReturn(ranked("torvalds", "gaearon"));
+
+        // Act
+        newWarmer(1000).warmUp();
+
+        // Assert - nodes silent for a day are dropped first
+        verify(zSetOperations).removeRangeByScore(eq(CacheWarmer.NODES_KEY), eq(Double.NEGATIVE_INFINITY), anyDouble());
+        InOrder order = inOrder(gitHubDataService);
+        order.verify(gitHubDataService).getUser("torvalds");
+        order.verify(gitHubDataService).getUser("octocat");
+        order.verify(gitHubDataService).getUser("gaearon");
+    }
+
+    @Test
+    void warmUp_shouldLoadHotUsersNoFasterThanRate() {
+        // Arrange - 5 usernames at 20 per second: the first at once, then one every 50ms
+        hotUsers("octocat", "torvalds", "gaearon", "sindresorhus", "yyx990803");
+        CacheWarmer warmer = newWarmer(20);
+
+        // Act
+        long start = System.nanoTime();
+        warmer.warmUp();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Assert
+        assertTrue(elapsed.compareTo(Duration.ofMillis(190)) >= 0, "warmed in " + elapsed);
+        verify(gitHubDataService, times(5)).getUser(anyString());
+        verify(gitHubDataService, times(5)).getUserRepos(anyString());
+        assertEquals(5.0, count("loaded"));
+    }
+
+    @Test
+    void progress_shouldBeZeroBeforeHotUsersAreLoaded() {
+        // Act & Assert
+        assertEquals(0.0, newWarmer(1000).progress());
+    }
+
+    @Test
+    void progress_shouldCountWarmedShareWhileWarming() {
+        // Arrange - note the progress each time a user is being warmed
+        hotUsers("octocat", "torvalds", "gaearon", "sindresorhus");
+        CacheWarmer warmer = newWarmer(1000);
+        List<Double> progress = new ArrayList<>();
+        when(gitHubDataService.getUser(anyString())).thenAnswer(invocation -> {
+            progress.add(warmer.progress());
+            return null;
+        });
+
+        // Act
+        warmer.warmUp();
+
+        // Assert
+        assertEquals(List.of(0.0, 0.25, 0.5, 0.75), progress);
+        assertEquals(1.0, warmer.progress());
+    }
+
+    @Test
+    void progress_shouldBeCompleteWhenNoHotUsersArePersisted() {
+        // Arrange
+        hotUsers();
+        CacheWarmer warmer = newWarmer(1000);
+
+        // Act
+        warmer.warmUp();
+
+        // Assert
+        assertEquals(1.0, warmer.progress());
+        verifyNoInteractions(gitHubDataService);
+    }
+
+    @Test
+    void progress_shouldBeCompleteWhenHotUsersCannotBeLoaded() {
+        // Arrange
+        when(zSetOperations.rangeByScore(eq(CacheWarmer.NODES_KEY), anyDouble(), anyDouble()))
+                .thenThrow(new RedisConnectionFailureException("Unable to connect to Redis"));
+        CacheWarmer warmer = newWarmer(1000);
+
+        // Act
+        warmer.warmUp();
+
+        // Assert - a node is not kept out of service because Redis is down
+        assertEquals(1.0, warmer.progress());
+        verifyNoInteractions(gitHubDataService);
+    }
+
+    @Test
+    void progress_shouldBeCompleteAfterFailures() {
+        // Arrange - GitHub fails for one of the users
+        hotUsers("octocat", "torvalds", "gaearon");
+        when(gitHubDataService.getUser("torvalds")).thenThrow(new GitHubApiException("GitHub is down"));
+        CacheWarmer warmer = newWarmer(1000);
+
+        // Act
+        warmer.warmUp();
+
+        // Assert - the others still warmed, the failure counted
+        assertEquals(1.0, warmer.progress());
+        verify(gitHubDataService).getUserRepos("gaearon");
+        assertEquals(2.0, count("loaded"));
+        assertEquals(1.0, count("failed"));
+    }
+
+    private void hotUsers(String... usernames) {
+        when(zSetOperations.rangeByScore(eq(CacheWarmer.NODES_KEY), anyDouble(), anyDouble()))
+                .thenReturn(Set.of("node-a"));
+        when(zSetOperations.reverseRangeWithScores("node-a", 0, TOP_N - 1)).thenReturn(ranked(usernames));
+    }
+
+    private static Set<TypedTuple<String>> ranked(String... usernames) {
+        Set<TypedTuple<String>> ranked = new LinkedHashSet<>();
+        for (int i = 0; i < usernames.length; i++) {
+            ranked.add(new DefaultTypedTuple<>(usernames[i], (double) (TOP_N - i)));
+        }
+        return ranked;
+    }
+
+    private CacheWarmer newWarmer(double rate) {
+        return new CacheWarmer(gitHubDataService, hotKeyTracker, redisTemplate, meterRegistry, TOP_N, rate);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("cache.warmup.users").tag("result", result).counter().count();
+    }
+}
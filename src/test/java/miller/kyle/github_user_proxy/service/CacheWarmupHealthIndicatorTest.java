@@ -0,0 +1,57 @@
+package miller.kyle.github_user_proxy.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CacheWarmupHealthIndicatorTest {
+
+    private CacheWarmer cacheWarmer;
+
+    @BeforeEach
+    void setUp() {
+        cacheWarmer = mock(CacheWarmer.class);
+    }
+
+    @Test
+    void health_shouldSwitchFromOutOfServiceToUpAtTarget() {
+        // Arrange
+        CacheWarmupHealthIndicator indicator = new CacheWarmupHealthIndicator(cacheWarmer, 0.8);
+        when(cacheWarmer.progress()).thenReturn(0.0, 0.79, 0.8, 1.0);
+
+        // Act & Assert
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+        assertEquals(Status.UP, indicator.health().getStatus());
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+
+    @Test
+    void health_shouldReportProgressAndTarget() {
+        // Arrange
+        CacheWarmupHealthIndicator indicator = new CacheWarmupHealthIndicator(cacheWarmer, 0.8);
+        when(cacheWarmer.progress()).thenReturn(0.5);
+
+        // Act
+        Health health = indicator.health();
+
+        // Assert
+        assertEquals(0.5, health.getDetails().get("progress"));
+        assertEquals(0.8, health.getDetails().get("target"));
+    }
+
+    @Test
+    void health_shouldBeUpAtOnceWithZeroTarget() {
+        // Arrange
+        CacheWarmupHealthIndicator indicator = new CacheWarmupHealthIndicator(cacheWarmer, 0);
+        when(cacheWarmer.progress()).thenReturn(0.0);
+
+        // Act & Assert
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+}
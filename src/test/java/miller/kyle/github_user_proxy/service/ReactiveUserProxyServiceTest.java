@@ -0,0 +1,249 @@
+package miller.kyle.github_user_proxy.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import miller.kyle.github_user_proxy.cache.CacheEntry;
+import miller.kyle.github_user_proxy.cache.NotFoundFilter;
+import miller.kyle.github_user_proxy.cache.RefreshAheadPolicy;
+import miller.kyle.github_user_proxy.cache.StaleResponse;
+import miller.kyle.github_user_proxy.client.ReactiveGitHubApiClient;
+import miller.kyle.github_user_proxy.dto.GitHubUserResponse;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+import miller.kyle.github_user_proxy.dto.UserProxyResponse;
+import miller.kyle.github_user_proxy.exception.GitHubApiException;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactiveUserProxyServiceTest {
+
+    private final RefreshAheadPolicy policy =
+            new RefreshAheadPolicy(Duration.ofMinutes(30), 0, 0, Duration.ofHours(1));
+
+    /**
+     * Stands in for Redis
+     */
+    private final Map<String, Object> redis = new ConcurrentHashMap<>();
+
+    private ReactiveGitHubApiClient gitHubApiClient;
+    private ReactiveRedisTemplate<String, Object> redisTemplate;
+    private ReactiveValueOperations<String, Object> valueOperations;
+    private NotFoundFilter notFoundFilter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        gitHubApiClient = mock(ReactiveGitHubApiClient.class);
+        redisTemplate = mock(ReactiveRedisTemplate.class);
+        valueOperations = mock(ReactiveValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenAnswer(invocation ->
+                Mono.fromSupplier(() -> redis.get((String) invocation.getArgument(0))));
+        when(valueOperations.set(anyString(), any(), any(Duration.class))).thenAnswer(invocation ->
+                Mono.fromSupplier(() -> {
+                    redis.put(invocation.getArgument(0), invocation.getArgument(1));
+                    return true;
+                }));
+        when(redisTemplate.hasKey(anyString())).thenAnswer(invocation ->
+                Mono.fromSupplier(() -> redis.containsKey((String) invocation.getArgument(0))));
+    }
+
+    @Test
+    void getUserData_shouldAssembleAndCacheBothParts() {
+        // Arrange
+        when(gitHubApiClient.getUser("octocat")).thenReturn(Mono.just(githubUser("octocat")));
+        when(gitHubApiClient.getUserRepos("octocat")).thenReturn(Mono.just(repos()));
+
+        // Act
+        UserProxyResponse response = newService().getUserData("octocat").block();
+
+        // Assert
+        assertEquals("octocat", response.getUserName());
+        assertEquals(1, response.getRepos().size());
+        assertTrue(redis.get(GitHubDataService.PROFILES_CACHE + "::octocat") instanceof CacheEntry);
+        assertTrue(redis.get(GitHubDataService.REPOS_CACHE + "::octocat") instanceof CacheEntry);
+    }
+
+    @Test
+    void getUserData_shouldReportUnknownUserAsNotFoundWhenReposFailFirst() {
+        // Arrange - the repos call fails before the profile's 404 arrives
+        when(gitHubApiClient.getUser("nonexistentuser")).thenReturn(
+                Mono.<GitHubUserResponse>error(new UserNotFoundException("nonexistentuser"))
+                        .delaySubscription(Duration.ofMillis(50)));
+        when(gitHubApiClient.getUserRepos("nonexistentuser")).thenReturn(
+                Mono.error(new GitHubApiException("GitHub API error: 404 NOT_FOUND")));
+        ReactiveUserProxyService service = newService();
+
+        // Act & Assert - a 404, never a 502, and remembered as not found
+        for (int i = 0; i < 5; i++) {
+            assertThrows(UserNotFoundException.class, () -> service.getUserData("nonexistentuser").block());
+        }
+        assertEquals(Boolean.TRUE, redis.get(UserProxyService.NOT_FOUND_CACHE + "::nonexistentuser"));
+    }
+
+    @Test
+    void getUserData_shouldServeExpiredEntryWhenGitHubFails() {
+        // Arrange - the profile expired an hour ago and GitHub is down
+        long now = System.currentTimeMillis();
+        redis.put(GitHubDataService.PROFILES_CACHE + "::octocat",
+                new CacheEntry(githubUser("octocat"), now - 7_200_000, now - 3_600_000, 10));
+        redis.put(GitHubDataService.REPOS_CACHE + "::octocat", policy.newEntry(repos(), 10));
+        when(gitHubApiClient.getUser("octocat")).thenReturn(Mono.error(new GitHubApiException("GitHub is down")));
+        AtomicReference<Duration> staleAge = new AtomicReference<>();
+
+        // Act
+        UserProxyResponse response = newService().getUserData("octocat")
+                .contextWrite(StaleResponse.capture(staleAge))
+                .block();
+
+        // Assert - served stale, reported with its age
+        assertEquals("octocat", response.getUserName());
+        assertNotNull(staleAge.get());
+        assertTrue(staleAge.get().compareTo(Duration.ofHours(2)) >= 0);
+    }
+
+    @Test
+    void getUserData_shouldNotReportFreshEntriesAsStale() {
+        // Arrange
+        redis.put(GitHubDataService.PROFILES_CACHE + "::octocat", policy.newEntry(githubUser("octocat"), 10));
+        redis.put(GitHubDataService.REPOS_CACHE + "::octocat", policy.newEntry(repos(), 10));
+        AtomicReference<Duration> staleAge = new AtomicReference<>();
+
+        // Act
+        UserProxyResponse response = newService().getUserData("octocat")
+                .contextWrite(StaleResponse.capture(staleAge))
+                .block();
+
+        // Assert
+        assertEquals("octocat", response.getUserName());
+        assertNull(staleAge.get());
+    }
+
+    @Test
+    void getUserData_shouldCoalesceConcurrentMisses() {
+        // Arrange - a slow upstream, so both callers miss while the first load is in flight
+        when(gitHubApiClient.getUser("octocat")).thenReturn(
+                Mono.just(githubUser("octocat")).delayElement(Duration.ofMillis(100)));
+        when(gitHubApiClient.getUserRepos("octocat")).thenReturn(
+                Mono.just(repos()).delayElement(Duration.ofMillis(100)));
+        ReactiveUserProxyService service = newService();
+
+        // Act
+        List<UserProxyResponse> responses = Mono.zip(service.getUserData("octocat"), service.getUserData("octocat"))
+                .map(both -> List.of(both.getT1(), both.getT2()))
+                .block();
+
+        // Assert - both served, one upstream call per part
+        assertEquals("octocat", responses.get(0).getUserName());
+        assertEquals("octocat", responses.get(1).getUserName());
+        verify(gitHubApiClient, times(1)).getUser("octocat");
+        verify(gitHubApiClient, times(1)).getUserRepos("octocat");
+    }
+
+    @Test
+    void getUserData_shouldServeFromGitHubWhileRedisIsDown() {
+        // Arrange - every Redis read and write fails
+        redisDown();
+        when(gitHubApiClient.getUser("octocat")).thenReturn(Mono.just(githubUser("octocat")));
+        when(gitHubApiClient.getUserRepos("octocat")).thenReturn(Mono.just(repos()));
+
+        // Act
+        UserProxyResponse response = newService().getUserData("octocat").block();
+
+        // Assert - the failed reads counted as misses, the failed writes were skipped
+        assertEquals("octocat", response.getUserName());
+        assertEquals(1, response.getRepos().size());
+        verify(gitHubApiClient, times(1)).getUser("octocat");
+    }
+
+    @Test
+    void getUserData_shouldStillReportUnknownUserWhileRedisIsDown() {
+        // Arrange
+        redisDown();
+        when(gitHubApiClient.getUser("nonexistentuser"))
+                .thenReturn(Mono.error(new UserNotFoundException("nonexistentuser")));
+        when(gitHubApiClient.getUserRepos("nonexistentuser"))
+                .thenReturn(Mono.error(new UserNotFoundException("nonexistentuser")));
+
+        // Act & Assert - a 404, not the failure to record it
+        assertThrows(UserNotFoundException.class, () -> newService().getUserData("nonexistentuser").block());
+    }
+
+    @Test
+    void getUserData_shouldServeCachedUserDespiteFilterFalsePositive() {
+        // Arrange - the filter claims a user that exists and is cached
+        redis.put(GitHubDataService.PROFILES_CACHE + "::octocat", policy.newEntry(githubUser("octocat"), 10));
+        redis.put(GitHubDataService.REPOS_CACHE + "::octocat", policy.newEntry(repos(), 10));
+        notFoundFilter = new NotFoundFilter(1000, 0.001, Duration.ofMinutes(5));
+        notFoundFilter.put("octocat");
+
+        // Act
+        UserProxyResponse response = newService().getUserData("octocat").block();
+
+        // Assert - served from the cache; the filter is only asked on a miss
+        assertEquals("octocat", response.getUserName());
+        verify(gitHubApiClient, times(0)).getUser(anyString());
+    }
+
+    @Test
+    void getUserData_shouldAnswerMissFromFilterWithoutReadingNotFoundCache() {
+        // Arrange
+        notFoundFilter = new NotFoundFilter(1000, 0.001, Duration.ofMinutes(5));
+        notFoundFilter.put("nonexistentuser");
+
+        // Act & Assert
+        assertThrows(UserNotFoundException.class, () -> newService().getUserData("nonexistentuser").block());
+        verify(redisTemplate, times(0)).hasKey(anyString());
+        verify(gitHubApiClient, times(0)).getUser(anyString());
+    }
+
+    private void redisDown() {
+        RedisConnectionFailureException down = new RedisConnectionFailureException("Unable to connect to Redis");
+        when(valueOperations.get(anyString())).thenReturn(Mono.error(down));
+        when(valueOperations.set(anyString(), any(), any(Duration.class))).thenReturn(Mono.error(down));
+        when(redisTemplate.hasKey(anyString())).thenReturn(Mono.error(down));
+    }
+
+    private ReactiveUserProxyService newService() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        if (notFoundFilter != null) {
+            beanFactory.registerSingleton("notFoundFilter", notFoundFilter);
+        }
+        return new ReactiveUserProxyService(gitHubApiClient, redisTemplate, policy,
+                beanFactory.getBeanProvider(NotFoundFilter.class),
+                new SimpleMeterRegistry(), Duration.ofHours(1), Duration.ofMinutes(10), Duration.ofMinutes(5));
+    }
+
+    private static GitHubUserResponse githubUser(String username) {
+        GitHubUserResponse githubUser = new GitHubUserResponse();
+        githubUser.setLogin(username);
+        githubUser.setUrl("https://api.github.com/users/" + username);
+        return githubUser;
+    }
+
+    private static List<RepoInfo> repos() {
+        return List.of(new RepoInfo("Hello-World", "https://api.github.com/repos/octocat/Hello-World"));
+    }
+}
@@ -0,0 +1,189 @@
+package miller.kyle.github_user_proxy.service;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.decoder.Decoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import miller.kyle.github_user_proxy.cache.ResponseExpiry;
+import miller.kyle.github_user_proxy.cache.StaleResponse;
+import miller.kyle.github_user_proxy.dto.RenderedResponse;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
+import miller.kyle.github_user_proxy.dto.UserProxyResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RenderedResponseServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserProxyService userProxyService;
+
+    @BeforeEach
+    void setUp() {
+        userProxyService = mock(UserProxyService.class);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getUserData_shouldRenderOnceAndServeCachedBody() throws IOException {
+        // Arrange
+        when(userProxyService.getUserData("octocat")).thenReturn(response(2));
+        RenderedResponseService service = newService(1024);
+
+        // Act
+        RenderedResponse first = service.getUserData("octocat");
+        RenderedResponse second = service.getUserData("octocat");
+
+        // Assert - small body stays plain JSON, and the second call is a hit
+        assertFalse(first.isGzipped());
+        assertEquals(objectMapper.writeValueAsString(response(2)), new String(first.getBody()));
+        assertSame(first, second);
+        verify(userProxyService, times(1)).getUserData("octocat");
+        assertEquals(1, count("hit"));
+        assertEquals(1, count("miss"));
+    }
+
+    @Test
+    void getUserData_shouldGzipLargeBodies() throws IOException {
+        // Arrange
+        when(userProxyService.getUserData("octocat")).thenReturn(response(200));
+
+        // Act
+        RenderedResponse rendered = newService(1024).getUserData("octocat");
+
+        // Assert
+        assertTrue(rendered.isGzipped());
+        byte[] json = new GZIPInputStream(new ByteArrayInputStream(rendered.getBody())).readAllBytes();
+        assertEquals(objectMapper.writeValueAsString(response(200)), new String(json));
+        assertTrue(rendered.getBody().length * 4 < json.length,
+                "Expected at least 4:1, got " + rendered.getBody().length);
+    }
+
+    @Test
+    void getUserData_shouldStoreBrotliVariantOfLargeBodies() throws IOException {
+        // Arrange
+        assumeTrue(Brotli4jLoader.isAvailable(), "Brotli native library not available");
+        when(userProxyService.getUserData("octocat")).thenReturn(response(200));
+
+        // Act
+        RenderedResponse rendered = newService(1024).getUserData("octocat");
+
+        // Assert - the same JSON, smaller than gzip
+        byte[] json = Decoder.decompress(rendered.getBrotli()).getDecompressedData();
+        assertEquals(objectMapper.writeValueAsString(response(200)), new String(json));
+        assertTrue(rendered.getBrotli().length < rendered.getBody().length,
+                "Expected smaller than gzip, got " + rendered.getBrotli().length);
+    }
+
+    @Test
+    void getUserData_shouldNotCompressSmallBodies() {
+        // Arrange
+        when(userProxyService.getUserData("octocat")).thenReturn(response(2));
+
+        // Act
+        RenderedResponse rendered = newService(1024).getUserData("octocat");
+
+        // Assert
+        assertFalse(rendered.isGzipped());
+        assertNull(rendered.getBrotli());
+    }
+
+    @Test
+    void getUserData_shouldStoreValidatorsWithBody() throws IOException {
+        // Arrange - the repo entry expires in a minute, well within the rendered TTL
+        long reposExpireAt = System.currentTimeMillis() + 60_000;
+        when(userProxyService.getUserData("octocat")).thenAnswer(invocation -> {
+            ResponseExpiry.record(reposExpireAt);
+            return response(200);
+        });
+
+        // Act
+        RenderedResponse rendered = newService(1024).getUserData("octocat");
+
+        // Assert - the tag is of the JSON, not of its gzipped form
+        byte[] json = objectMapper.writeValueAsBytes(response(200));
+        assertEquals(DigestUtils.md5DigestAsHex(json), rendered.getEtag());
+        assertEquals(reposExpireAt, rendered.getExpiresAt());
+    }
+
+    @Test
+    void getUserData_shouldTagBodiesCachedWithoutValidators() {
+        // Arrange - rendered before entity tags were stored
+        byte[] body = "{\"user_name\":\"octocat\"}".getBytes();
+        cacheManager.getCache(RenderedResponseService.RENDERED_CACHE).put("octocat", new RenderedResponse(body, false));
+
+        // Act
+        RenderedResponse rendered = newService(1024).getUserData("octocat");
+
+        // Assert
+        assertEquals(DigestUtils.md5DigestAsHex(body), rendered.getEtag());
+        assertEquals(0, rendered.getExpiresAt());
+    }
+
+    @Test
+    void getUserData_shouldNotCacheBodyAssembledFromStaleData() {
+        // Arrange - GitHub is failing and an expired part was served
+        when(userProxyService.getUserData("octocat")).thenAnswer(invocation -> {
+            StaleResponse.record(Duration.ofMinutes(5));
+            return response(2);
+        });
+
+        // Act
+        newService(1024).getUserData("octocat");
+
+        // Assert
+        assertNull(cacheManager.getCache(RenderedResponseService.RENDERED_CACHE).get("octocat"));
+    }
+
+    private RenderedResponseService newService(int gzipThreshold) {
+        return new RenderedResponseService(userProxyService, objectMapper, cacheManager, meterRegistry,
+                Duration.ofMinutes(5), gzipThreshold, true, 5);
+    }
+
+    private UserProxyResponse response(int repoCount) {
+        UserProxyResponse response = new UserProxyResponse();
+        response.setUserName("octocat");
+        response.setDisplayName("The Octocat");
+        response.setCreatedAt("Tue, 25 Jan 2011 18:44:36 GMT");
+        List<RepoInfo> repos = new ArrayList<>();
+        for (int i = 0; i < repoCount; i++) {
+            repos.add(new RepoInfo("repo-" + i, "https://api.github.com/repos/octocat/repo-" + i));
+        }
+        response.setRepos(repos);
+        return response;
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("cache.rendered.gets").tag("result", result).counter().count();
+    }
+}
@@ -1,22 +1,29 @@
 package miller.kyle.github_user_proxy.service;
 
 import miller.kyle.github_user_proxy.client.GitHubApiClient;
-import miller.kyle.github_user_proxy.dto.GitHubRepoResponse;
 import miller.kyle.github_user_proxy.dto.GitHubUserResponse;
+import miller.kyle.github_user_proxy.dto.RepoInfo;
 import miller.kyle.github_user_proxy.dto.UserProxyResponse;
+import miller.kyle.github_user_proxy.exception.UserNotFoundException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -28,14 +35,19 @@ class UserProxyServiceTest {
     @Mock
     private GitHubApiClient gitHubApiClient;
 
-    @InjectMocks
+    private ExecutorService githubExecutor;
+
     private UserProxyService userProxyService;
 
     private GitHubUserResponse mockUserResponse;
-    private List<GitHubRepoResponse> mockRepoResponses;
+    private List<RepoInfo> mockRepoResponses;
 
     @BeforeEach
     void setUp() {
+        githubExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        // Without the Spring proxy nothing is cached, so every call reaches the client
+        userProxyService = new UserProxyService(new GitHubDataService(gitHubApiClient), githubExecutor);
+
         // Setup mock user response
         mockUserResponse = new GitHubUserResponse();
         mockUserResponse.setLogin("octocat");
@@ -47,17 +59,17 @@ class UserProxyServiceTest {
         mockUserResponse.setCreatedAt("2011-01-25T18:44:36Z");
 
         // Setup mock repo responses
-        GitHubRepoResponse repo1 = new GitHubRepoResponse();
-        repo1.setName("Hello-World");
-        repo1.setUrl("https://api.github.com/repos/octocat/Hello-World");
-
-        GitHubRepoResponse repo2 = new GitHubRepoResponse();
-        repo2.setName("boysenberry-repo-1");
-        repo2.setUrl("https://api.github.com/repos/octocat/boysenberry-repo-1");
+        RepoInfo repo1 = new RepoInfo("Hello-World", "https://api.github.com/repos/octocat/Hello-World");
+        RepoInfo repo2 = new RepoInfo("boysenberry-repo-1", "https://api.github.com/repos/octocat/boysenberry-repo-1");
 
         mockRepoResponses = Arrays.asList(repo1, repo2);
     }
 
+    @AfterEach
+    void tearDown() {
+        githubExecutor.close();
+    }
+
     @Test
     void getUserData_shouldReturnTransformedData() {
         // Arrange
@@ -144,4 +156,54 @@ class UserProxyServiceTest {
         // RFC 1123 format: "Tue, 25 Jan 2011 18:44:36 GMT"
         assertTrue(result.getCreatedAt().contains("Jan 2011"));
     }
+
+    @Test
+    void getUserData_shouldFetchUserAndReposConcurrently() {
+        // Arrange - each upstream call takes 300ms, so a serial fetch would take at least 600ms
+        String username = "octocat";
+        long delayMillis = 300;
+        when(gitHubApiClient.getUser(username)).thenAnswer(invocation -> {
+            Thread.sleep(delayMillis);
+            return mockUserResponse;
+        });
+        when(gitHubApiClient.getUserRepos(username)).thenAnswer(invocation -> {
+            Thread.sleep(delayMillis);
+            return mockRepoResponses;
+        });
+
+        // Act
+        long start = System.nanoTime();
+        UserProxyResponse result = userProxyService.getUserData(username);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Assert
+        assertEquals(2, result.getRepos().size());
+        assertTrue(elapsed.toMillis() < 2 * delayMillis,
+                "Expected concurrent fetch to finish in under " + 2 * delayMillis + "ms but took " + elapsed.toMillis());
+    }
+
+    @Test
+    void getUserData_shouldCancelRepoFetchWhenUserNotFound() throws Exception {
+        // Arrange - repo fetch blocks until interrupted
+        String username = "nonexistentuser";
+        CountDownLatch reposStarted = new CountDownLatch(1);
+        CountDownLatch reposInterrupted = new CountDownLatch(1);
+        when(gitHubApiClient.getUserRepos(username)).thenAnswer(invocation -> {
+            reposStarted.countDown();
+            try {
+                Thread.sleep(Duration.ofSeconds(30));
+            } catch (InterruptedException e) {
+                reposInterrupted.countDown();
+            }
+            return mockRepoResponses;
+        });
+        when(gitHubApiClient.getUser(username)).thenAnswer(invocation -> {
+            reposStarted.await(5, TimeUnit.SECONDS);
+            throw new UserNotFoundException(username);
+        });
+
+        // Act & Assert
+        assertThrows(UserNotFoundException.class, () -> userProxyService.getUserData(username));
+        assertTrue(reposInterrupted.await(5, TimeUnit.SECONDS), "Repo fetch should have been cancelled");
+    }
 }